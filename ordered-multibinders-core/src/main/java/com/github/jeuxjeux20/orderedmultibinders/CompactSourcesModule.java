@@ -0,0 +1,236 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Binder;
+import com.google.inject.Binding;
+import com.google.inject.Key;
+import com.google.inject.MembersInjector;
+import com.google.inject.Module;
+import com.google.inject.PrivateBinder;
+import com.google.inject.Provider;
+import com.google.inject.Scope;
+import com.google.inject.Stage;
+import com.google.inject.TypeLiteral;
+import com.google.inject.binder.AnnotatedBindingBuilder;
+import com.google.inject.binder.AnnotatedConstantBindingBuilder;
+import com.google.inject.binder.LinkedBindingBuilder;
+import com.google.inject.matcher.Matcher;
+import com.google.inject.spi.Dependency;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.ElementSource;
+import com.google.inject.spi.Message;
+import com.google.inject.spi.ModuleAnnotatedMethodScanner;
+import com.google.inject.spi.ProvisionListener;
+import com.google.inject.spi.TypeConverter;
+import com.google.inject.spi.TypeListener;
+import org.aopalliance.intercept.MethodInterceptor;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A module applying elements like {@link com.google.inject.spi.Elements#getModule(Iterable)}, but dropping
+ * their original {@link ElementSource}: every element gets a new source only made of its declaring source
+ * (such as the module's class and line), instead of the whole chain of modules and sources it has been
+ * recorded with. Equal declaring sources are replaced with the same instance.
+ * <p>
+ * Guice still creates an {@link ElementSource} for every element, which refers to its declaring source.
+ * <p>
+ * Elements in private modules keep their full source.
+ *
+ * @see SortingConfiguration#isCompactSources()
+ */
+final class CompactSourcesModule implements Module {
+    private final ImmutableList<Element> elements;
+
+    CompactSourcesModule(List<? extends Element> elements) {
+        this.elements = ImmutableList.copyOf(elements);
+    }
+
+    @Override
+    public void configure(Binder binder) {
+        CompactingBinder compactingBinder = new CompactingBinder(binder);
+
+        for (Element element : elements) {
+            element.applyTo(compactingBinder);
+        }
+    }
+
+    /**
+     * Forwards everything to a binder, but compacts the sources given to {@link #withSource(Object)}.
+     * <p>
+     * Elements always apply themselves using {@code binder.withSource(getSource())}, and then only use
+     * the binder it returns, so only this method needs to be changed.
+     */
+    private static final class CompactingBinder implements Binder {
+        private final Binder delegate;
+        private final Map<Object, Object> compactSources = new HashMap<>();
+
+        CompactingBinder(Binder delegate) {
+            this.delegate = delegate;
+        }
+
+        private Object compact(Object source) {
+            if (!(source instanceof ElementSource)) {
+                return source;
+            }
+
+            Object declaringSource = ((ElementSource) source).getDeclaringSource();
+            return compactSources.computeIfAbsent(declaringSource, s -> s);
+        }
+
+        @Override
+        public void bindInterceptor(Matcher<? super Class<?>> classMatcher, Matcher<? super Method> methodMatcher, MethodInterceptor... interceptors) {
+            delegate.bindInterceptor(classMatcher, methodMatcher, interceptors);
+        }
+
+        @Override
+        public void bindScope(Class<? extends Annotation> annotationType, Scope scope) {
+            delegate.bindScope(annotationType, scope);
+        }
+
+        @Override
+        public <T> LinkedBindingBuilder<T> bind(Key<T> key) {
+            return delegate.bind(key);
+        }
+
+        @Override
+        public <T> AnnotatedBindingBuilder<T> bind(TypeLiteral<T> typeLiteral) {
+            return delegate.bind(typeLiteral);
+        }
+
+        @Override
+        public <T> AnnotatedBindingBuilder<T> bind(Class<T> type) {
+            return delegate.bind(type);
+        }
+
+        @Override
+        public AnnotatedConstantBindingBuilder bindConstant() {
+            return delegate.bindConstant();
+        }
+
+        @Override
+        public <T> void requestInjection(TypeLiteral<T> type, T instance) {
+            delegate.requestInjection(type, instance);
+        }
+
+        @Override
+        public void requestInjection(Object instance) {
+            delegate.requestInjection(instance);
+        }
+
+        @Override
+        public void requestStaticInjection(Class<?>... types) {
+            delegate.requestStaticInjection(types);
+        }
+
+        @Override
+        public void install(Module module) {
+            delegate.install(module);
+        }
+
+        @Override
+        public Stage currentStage() {
+            return delegate.currentStage();
+        }
+
+        @Override
+        public void addError(String message, Object... arguments) {
+            delegate.addError(message, arguments);
+        }
+
+        @Override
+        public void addError(Throwable t) {
+            delegate.addError(t);
+        }
+
+        @Override
+        public void addError(Message message) {
+            delegate.addError(message);
+        }
+
+        @Override
+        public <T> Provider<T> getProvider(Key<T> key) {
+            return delegate.getProvider(key);
+        }
+
+        @Override
+        public <T> Provider<T> getProvider(Dependency<T> dependency) {
+            return delegate.getProvider(dependency);
+        }
+
+        @Override
+        public <T> Provider<T> getProvider(Class<T> type) {
+            return delegate.getProvider(type);
+        }
+
+        @Override
+        public <T> MembersInjector<T> getMembersInjector(TypeLiteral<T> typeLiteral) {
+            return delegate.getMembersInjector(typeLiteral);
+        }
+
+        @Override
+        public <T> MembersInjector<T> getMembersInjector(Class<T> type) {
+            return delegate.getMembersInjector(type);
+        }
+
+        @Override
+        public void convertToTypes(Matcher<? super TypeLiteral<?>> typeMatcher, TypeConverter converter) {
+            delegate.convertToTypes(typeMatcher, converter);
+        }
+
+        @Override
+        public void bindListener(Matcher<? super TypeLiteral<?>> typeMatcher, TypeListener listener) {
+            delegate.bindListener(typeMatcher, listener);
+        }
+
+        @Override
+        public void bindListener(Matcher<? super Binding<?>> bindingMatcher, ProvisionListener... listeners) {
+            delegate.bindListener(bindingMatcher, listeners);
+        }
+
+        @Override
+        public Binder withSource(Object source) {
+            return delegate.withSource(compact(source));
+        }
+
+        @Override
+        public Binder skipSources(Class... classesToSkip) {
+            return delegate.skipSources(classesToSkip);
+        }
+
+        @Override
+        public PrivateBinder newPrivateBinder() {
+            return delegate.newPrivateBinder();
+        }
+
+        @Override
+        public void requireExplicitBindings() {
+            delegate.requireExplicitBindings();
+        }
+
+        @Override
+        public void disableCircularProxies() {
+            delegate.disableCircularProxies();
+        }
+
+        @Override
+        public void requireAtInjectOnConstructors() {
+            delegate.requireAtInjectOnConstructors();
+        }
+
+        @Override
+        public void requireExactBindingAnnotations() {
+            delegate.requireExactBindingAnnotations();
+        }
+
+        @Override
+        public void scanModulesForAnnotatedMethods(ModuleAnnotatedMethodScanner scanner) {
+            delegate.scanModulesForAnnotatedMethods(scanner);
+        }
+    }
+}
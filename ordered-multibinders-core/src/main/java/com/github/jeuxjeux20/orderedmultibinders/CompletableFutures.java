@@ -0,0 +1,34 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Helpers for {@link CompletableFuture}s.
+ */
+final class CompletableFutures {
+    private CompletableFutures() {
+    }
+
+    /**
+     * Waits for the specified future to complete, and returns its value, or throws
+     * its exception as is, if it is unchecked.
+     *
+     * @param future the future
+     * @param <T>    the type of the future's value
+     * @return the value of the future
+     */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The contributions to the elements of a type listed by the plugins of a class loader,
+ * in a {@code META-INF/ordered-multibinders/<binary name of the element type>} file, with their order,
+ * so they can be ordered without loading their class.
+ * <p>
+ * Every line of an index file is a contribution: the binary name of its class, followed by its ordering values,
+ * separated by whitespace. Empty lines and lines starting with {@code #} are ignored:
+ * <pre>
+ * # META-INF/ordered-multibinders/com.example.Handler
+ * com.example.plugin.DecodingHandler phase=decoding before=com.example.plugin.LoggingHandler
+ * com.example.plugin.LoggingHandler after=com.example.core.SecurityHandler,com.example.core.AuditHandler position=5
+ * </pre>
+ * The ordering values are:
+ * <ul>
+ *     <li>{@code before} and {@code after}: the binary names of classes, separated by commas,
+ *     as in {@link Order#beforeNames()} and {@link Order#afterNames()}</li>
+ *     <li>{@code phase}: the name of the phase, as in {@link Order#phaseName()}</li>
+ *     <li>{@code position}: the position, as in {@link Order#position()}</li>
+ * </ul>
+ * A class listed many times is only contributed once, using the first line listing it, in the order
+ * of the class loader's resources.
+ *
+ * @see OrderedMultibinder#addIndexedContributions(ClassLoader)
+ */
+final class ContributionIndex {
+    static final String LOCATION = "META-INF/ordered-multibinders/";
+
+    private static final Splitter TOKEN_SPLITTER = Splitter.on(CharMatcher.whitespace()).omitEmptyStrings();
+    private static final Splitter NAME_SPLITTER = Splitter.on(',').omitEmptyStrings().trimResults();
+
+    private ContributionIndex() {
+    }
+
+    /**
+     * Reads the contributions to the elements of the specified type, listed in all the index files
+     * of the specified class loader.
+     *
+     * @param elementType the type of the elements
+     * @param classLoader the class loader to find the index files with
+     * @return the contributions, in the order they are listed
+     * @throws UncheckedIOException     when an index file cannot be read
+     * @throws IllegalArgumentException when an index file is malformed
+     */
+    static ImmutableList<Entry> load(Class<?> elementType, ClassLoader classLoader) {
+        String resourceName = LOCATION + elementType.getName();
+
+        ImmutableList.Builder<Entry> entries = ImmutableList.builder();
+        Set<String> classNames = new HashSet<>();
+        try {
+            Enumeration<URL> resources = classLoader.getResources(resourceName);
+            while (resources.hasMoreElements()) {
+                for (Entry entry : read(resources.nextElement())) {
+                    if (classNames.add(entry.className)) {
+                        entries.add(entry);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read the contribution indexes " + resourceName + ".", e);
+        }
+        return entries.build();
+    }
+
+    private static List<Entry> read(URL resource) throws IOException {
+        ImmutableList.Builder<Entry> entries = ImmutableList.builder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                try {
+                    entries.add(parse(line));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException(
+                            "Malformed contribution at line " + lineNumber + " of " + resource + ".", e);
+                }
+            }
+        }
+        return entries.build();
+    }
+
+    private static Entry parse(String line) {
+        List<String> tokens = TOKEN_SPLITTER.splitToList(line);
+        ImmutableList.Builder<String> beforeNames = ImmutableList.builder();
+        ImmutableList.Builder<String> afterNames = ImmutableList.builder();
+        String phaseName = "";
+        int position = 0;
+
+        for (String token : tokens.subList(1, tokens.size())) {
+            int separator = token.indexOf('=');
+            if (separator == -1) {
+                throw new IllegalArgumentException("Expected an ordering value such as 'before=...': " + token);
+            }
+
+            String value = token.substring(separator + 1);
+            switch (token.substring(0, separator)) {
+                case "before":
+                    beforeNames.addAll(NAME_SPLITTER.split(value));
+                    break;
+                case "after":
+                    afterNames.addAll(NAME_SPLITTER.split(value));
+                    break;
+                case "phase":
+                    phaseName = value;
+                    break;
+                case "position":
+                    position = Integer.parseInt(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown ordering value: " + token);
+            }
+        }
+        return new Entry(tokens.get(0), beforeNames.build(), afterNames.build(), phaseName, position);
+    }
+
+    /**
+     * A contribution listed in an index file.
+     */
+    static final class Entry {
+        final String className;
+        final ImmutableList<String> beforeNames;
+        final ImmutableList<String> afterNames;
+        final String phaseName;
+        final int position;
+
+        private Entry(String className, ImmutableList<String> beforeNames, ImmutableList<String> afterNames,
+                      String phaseName, int position) {
+            this.className = className;
+            this.beforeNames = beforeNames;
+            this.afterNames = afterNames;
+            this.phaseName = phaseName;
+            this.position = position;
+        }
+    }
+}
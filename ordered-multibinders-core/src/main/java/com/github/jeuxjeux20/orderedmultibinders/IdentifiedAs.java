@@ -7,9 +7,14 @@ import java.lang.annotation.*;
 /**
  * Specifies that bindings targeting this class will be identified using the
  * specified class.
+ * <p>
+ * This annotation can also be present on provider methods annotated with
+ * {@link com.google.inject.multibindings.ProvidesIntoSet @ProvidesIntoSet}, whose bindings are otherwise
+ * identified by their return type, qualified with the method's declaring class and signature,
+ * and referred to with the method's name (such as {@code @Qualified(value = Handler.class, named = "loggingHandler")}).
  */
 @Documented
-@Target(ElementType.TYPE)
+@Target({ElementType.TYPE, ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
 @OrderedBindingAnnotation(IdentifiedAsOrderedBindingTransformer.class)
 public @interface IdentifiedAs {
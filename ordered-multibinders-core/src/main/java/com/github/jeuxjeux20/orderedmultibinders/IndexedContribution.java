@@ -0,0 +1,23 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.inject.BindingAnnotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Qualifies the element of a contribution listed in a {@link ContributionIndex}, which stands for
+ * the contribution's class, so other elements can refer to it by class name without loading it.
+ */
+@BindingAnnotation
+@Target({})
+@Retention(RetentionPolicy.RUNTIME)
+@interface IndexedContribution {
+    /**
+     * The binary name of the contribution's class.
+     *
+     * @return the binary name of the contribution's class
+     */
+    String value();
+}
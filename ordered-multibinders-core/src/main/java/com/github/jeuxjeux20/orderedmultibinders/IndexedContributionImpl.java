@@ -0,0 +1,45 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import java.lang.annotation.Annotation;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An implementation of @{@link IndexedContribution} created at runtime,
+ * following the {@link Annotation} contract.
+ */
+final class IndexedContributionImpl implements IndexedContribution {
+    private final String value;
+
+    IndexedContributionImpl(String value) {
+        this.value = requireNonNull(value, "value is null");
+    }
+
+    @Override
+    public String value() {
+        return value;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotationType() {
+        return IndexedContribution.class;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof IndexedContribution)) return false;
+        return value.equals(((IndexedContribution) o).value());
+    }
+
+    @Override
+    public int hashCode() {
+        // As specified by Annotation.hashCode().
+        return 127 * "value".hashCode() ^ value.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "@" + IndexedContribution.class.getName() + "(value=" + value + ")";
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Binding;
+import com.google.inject.Key;
+import com.google.inject.name.Names;
+import com.google.inject.spi.DefaultElementVisitor;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
+import com.google.inject.spi.InstanceBinding;
+import com.google.inject.spi.InterceptorBinding;
+import org.aopalliance.intercept.MethodInterceptor;
+
+import java.util.*;
+
+/**
+ * Sorts {@link InterceptorBinding}s according to the @{@link Order} annotation
+ * of their {@link MethodInterceptor}s.
+ * <p>
+ * Guice applies interceptors in the order their bindings have been registered, so
+ * every interceptor binding is split into bindings of a single interceptor, which are
+ * then re-registered in the sorted order.
+ * <p>
+ * Interceptors are identified the same way an {@link InstanceBinding}
+ * of a multibinder would be, and interceptors sharing the same identifier keep their
+ * registration order.
+ */
+final class InterceptorSorter {
+    private final MultibinderSorter multibinderSorter;
+
+    InterceptorSorter(MultibinderSorter multibinderSorter) {
+        this.multibinderSorter = multibinderSorter;
+    }
+
+    /**
+     * Finds all the interceptor bindings in the specified elements.
+     *
+     * @param elements the elements where should be found the interceptor bindings
+     * @return the found {@link InterceptorBinding}s
+     */
+    static List<InterceptorBinding> findInterceptorBindings(List<? extends Element> elements) {
+        List<InterceptorBinding> interceptorBindings = new ArrayList<>();
+
+        for (Element element : elements) {
+            if (element instanceof InterceptorBinding) {
+                interceptorBindings.add((InterceptorBinding) element);
+            }
+        }
+
+        return interceptorBindings;
+    }
+
+    public List<InterceptorBinding> sort(List<InterceptorBinding> interceptorBindings) {
+        List<SingleInterceptor> interceptors = splitInterceptors(interceptorBindings);
+
+        if (interceptors.size() < 2) {
+            // There is no ordering to apply with under two interceptors.
+            return interceptorBindings;
+        }
+
+        Map<Class<?>, Integer> ranks = rankInterceptorClasses(interceptors);
+
+        // List.sort is stable, so interceptors with the same rank keep their registration order.
+        interceptors.sort(Comparator.comparing(i -> ranks.get(i.interceptor.getClass())));
+
+        return recordInterceptorBindings(interceptors);
+    }
+
+    private List<SingleInterceptor> splitInterceptors(List<InterceptorBinding> interceptorBindings) {
+        List<SingleInterceptor> interceptors = new ArrayList<>();
+
+        for (InterceptorBinding interceptorBinding : interceptorBindings) {
+            for (MethodInterceptor interceptor : interceptorBinding.getInterceptors()) {
+                interceptors.add(new SingleInterceptor(interceptorBinding, interceptor));
+            }
+        }
+
+        return interceptors;
+    }
+
+    private Map<Class<?>, Integer> rankInterceptorClasses(List<SingleInterceptor> interceptors) {
+        Map<Class<?>, MethodInterceptor> interceptorsByClass = new LinkedHashMap<>();
+        for (SingleInterceptor interceptor : interceptors) {
+            interceptorsByClass.putIfAbsent(interceptor.interceptor.getClass(), interceptor.interceptor);
+        }
+
+        // Bind one instance of every class so they go through the same process as multibinder elements.
+        List<MethodInterceptor> representatives = ImmutableList.copyOf(interceptorsByClass.values());
+        List<Binding<?>> bindings = new ArrayList<>();
+        for (Element element : Elements.getElements(binder -> {
+            for (int i = 0; i < representatives.size(); i++) {
+                binder.bind(Key.get(MethodInterceptor.class, Names.named(String.valueOf(i))))
+                        .toInstance(representatives.get(i));
+            }
+        })) {
+            element.acceptVisitor(new DefaultElementVisitor<Void>() {
+                @Override
+                public <T> Void visit(Binding<T> binding) {
+                    bindings.add(binding);
+                    return null;
+                }
+            });
+        }
+
+        Map<Class<?>, Integer> ranks = new HashMap<>();
+        int rank = 0;
+        for (Binding<?> binding : multibinderSorter.sort(bindings)) {
+            ranks.put(((InstanceBinding<?>) binding).getInstance().getClass(), rank++);
+        }
+        return ranks;
+    }
+
+    private List<InterceptorBinding> recordInterceptorBindings(List<SingleInterceptor> interceptors) {
+        List<Element> elements = Elements.getElements(binder -> {
+            for (SingleInterceptor interceptor : interceptors) {
+                InterceptorBinding original = interceptor.binding;
+
+                binder.withSource(original.getSource()).bindInterceptor(
+                        original.getClassMatcher(), original.getMethodMatcher(), interceptor.interceptor);
+            }
+        });
+
+        return findInterceptorBindings(elements);
+    }
+
+    private static final class SingleInterceptor {
+        final InterceptorBinding binding;
+        final MethodInterceptor interceptor;
+
+        SingleInterceptor(InterceptorBinding binding, MethodInterceptor interceptor) {
+            this.binding = binding;
+            this.interceptor = interceptor;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.common.base.MoreObjects;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import com.google.inject.TypeLiteral;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Provides the element of a contribution listed in a {@link ContributionIndex}, whose class is only loaded
+ * and initialized when the element is first provisioned, and then instantiated using the injector.
+ *
+ * @param <T> the type of elements
+ */
+final class LazyContributionProvider<T> implements Provider<T> {
+    private final TypeLiteral<T> elementType;
+    private final String className;
+    private final ClassLoader classLoader;
+    private @Inject @Nullable Injector injector;
+    private volatile @Nullable Class<? extends T> contributionClass;
+
+    LazyContributionProvider(TypeLiteral<T> elementType, String className, ClassLoader classLoader) {
+        this.elementType = elementType;
+        this.className = className;
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public T get() {
+        if (injector == null) {
+            throw new IllegalStateException("The contribution " + className + " is not bound in an injector.");
+        }
+        return injector.getInstance(getContributionClass());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<? extends T> getContributionClass() {
+        Class<? extends T> clazz = contributionClass;
+        if (clazz == null) {
+            // Loading a class is idempotent, so concurrent provisions don't need to lock.
+            Class<?> loadedClass;
+            try {
+                loadedClass = Class.forName(className, true, classLoader);
+            } catch (ClassNotFoundException e) {
+                throw new IllegalStateException("Cannot find the class of the contribution " + className + ".", e);
+            }
+
+            if (!elementType.getRawType().isAssignableFrom(loadedClass)) {
+                throw new IllegalStateException(
+                        "The contribution " + className + " is not a subtype of " + elementType + ".");
+            }
+            clazz = (Class<? extends T>) loadedClass;
+            contributionClass = clazz;
+        }
+        return clazz;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("className", className)
+                .toString();
+    }
+}
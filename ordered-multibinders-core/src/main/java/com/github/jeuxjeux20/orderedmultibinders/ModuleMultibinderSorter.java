@@ -1,44 +1,150 @@
 package com.github.jeuxjeux20.orderedmultibinders;
 
 import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.github.jeuxjeux20.orderedmultibinders.runtime.OrderedIndex;
+import com.github.jeuxjeux20.orderedmultibinders.runtime.OrderedStructure;
 import com.github.jeuxjeux20.orderedmultibinders.util.MultibinderFinder;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.inject.Binding;
 import com.google.inject.Module;
+import com.google.inject.*;
 import com.google.inject.multibindings.Multibinder;
 import com.google.inject.multibindings.MultibinderBinding;
 import com.google.inject.spi.Element;
 import com.google.inject.spi.Elements;
+import com.google.inject.spi.InterceptorBinding;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
- * Sorts the elements of modules' {@link Multibinder}s using a {@link MultibinderSorter}.
+ * Sorts the elements of modules' {@link Multibinder}s using a {@link MultibinderSorter},
+ * and their {@link InterceptorBinding}s using an {@link InterceptorSorter}.
+ * <p>
+ * The {@link OrderedStructure} and the {@link OrderedIndex} of every sorted multibinder are also bound.
+ * <p>
+ * Multibinders with the same shape, such as multibinders of different qualifiers or generic types
+ * with the same elements, are sorted once, using the given {@link SortCache},
+ * or a cache only used by this sorter.
  *
  * @see MultibinderSorter
+ * @see InterceptorSorter
  */
 final class ModuleMultibinderSorter {
-    private final ImmutableSet<Module> modules;
+    private final ImmutableList<Module> modules;
     private final SortingConfiguration configuration;
+    private final SortCache cache;
 
     ModuleMultibinderSorter(Iterable<? extends Module> modules, SortingConfiguration configuration) {
-        this.modules = ImmutableSet.copyOf(modules);
+        this(modules, configuration, null);
+    }
+
+    ModuleMultibinderSorter(Iterable<? extends Module> modules, SortingConfiguration configuration,
+                            @Nullable SortCache cache) {
+        this.modules = ImmutableSet.<Module>copyOf(modules).asList();
         this.configuration = configuration;
+        this.cache = cache != null ? cache : new SortCache();
     }
 
     public Module sort() {
-        List<Element> allElements = new ArrayList<>(Elements.getElements(modules));
-        MultibinderSorter multibinderSorter = new MultibinderSorter(allElements, configuration);
+        List<Element> allElements = recordElements();
+        MultibinderSorter multibinderSorter = new MultibinderSorter(allElements, configuration, cache);
+
+        Map<Key<Set<Object>>, MultibinderSorter.Result> results = new LinkedHashMap<>();
+        for (MultibinderBinding<?> multibinder : findMultibinders(allElements)) {
+            results.put(setKey(multibinder), multibinderSorter.sortWithStructure(multibinder));
+        }
+
+        return createSortedModule(allElements, multibinderSorter, results);
+    }
+
+    /**
+     * Sorts the modules asynchronously using the specified executor: the modules are recorded in a first task,
+     * and then every multibinder is sorted in its own task.
+     *
+     * @param executor the executor running the tasks
+     * @return a future completed with the module with sorted multibinder elements
+     */
+    public CompletableFuture<Module> sortAsync(Executor executor) {
+        return CompletableFuture.supplyAsync(this::recordElements, executor).thenCompose(allElements -> {
+            MultibinderSorter multibinderSorter = new MultibinderSorter(allElements, configuration, cache);
+
+            Map<Key<Set<Object>>, CompletableFuture<MultibinderSorter.Result>> futureResults = new LinkedHashMap<>();
+            for (MultibinderBinding<?> multibinder : findMultibinders(allElements)) {
+                futureResults.put(setKey(multibinder),
+                        CompletableFuture.supplyAsync(() -> multibinderSorter.sortWithStructure(multibinder), executor));
+            }
+
+            return CompletableFuture.allOf(futureResults.values().toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+                Map<Key<Set<Object>>, MultibinderSorter.Result> results = new LinkedHashMap<>();
+                futureResults.forEach((setKey, result) -> results.put(setKey, result.join()));
+
+                return createSortedModule(allElements, multibinderSorter, results);
+            });
+        });
+    }
+
+    private List<Element> recordElements() {
+        List<Element> allElements = ModuleRecorder.record(modules, configuration.getRecordingExecutor());
+
+        // The module might have already been sorted, the structures and indexes are bound again later.
+        allElements.removeIf(RuntimeBindings::isRuntimeBinding);
 
+        return allElements;
+    }
+
+    private Collection<MultibinderBinding<?>> findMultibinders(List<Element> allElements) {
+        // Modules recorded separately each have their own binding of the same multibinder.
+        Map<Key<Set<Object>>, MultibinderBinding<?>> multibinders = new LinkedHashMap<>();
         for (MultibinderBinding<?> multibinder : MultibinderFinder.findMultibinders(allElements)) {
-            List<Binding<?>> sortedBindings = multibinderSorter.sort(multibinder);
+            // Filtered multibinders are left as is, without creating their ordered bindings.
+            if (configuration.getMultibinderFilter().test(multibinder)) {
+                multibinders.putIfAbsent(setKey(multibinder), multibinder);
+            }
+        }
+        return multibinders.values();
+    }
 
+    private Module createSortedModule(List<Element> allElements, MultibinderSorter multibinderSorter,
+                                      Map<Key<Set<Object>>, MultibinderSorter.Result> results) {
+        for (MultibinderSorter.Result result : results.values()) {
             // Remove them all and then re-add them so we get the correct order.
-            allElements.removeAll(sortedBindings);
-            allElements.addAll(sortedBindings);
+            allElements.removeAll(result.bindings);
+            allElements.addAll(result.bindings);
+        }
+
+        List<InterceptorBinding> interceptorBindings = InterceptorSorter.findInterceptorBindings(allElements);
+        if (!interceptorBindings.isEmpty()) {
+            List<InterceptorBinding> sortedInterceptorBindings =
+                    new InterceptorSorter(multibinderSorter).sort(interceptorBindings);
+
+            allElements.removeAll(interceptorBindings);
+            allElements.addAll(sortedInterceptorBindings);
         }
 
-        return Elements.getModule(allElements);
+        // The recorded metadata has been applied, but is kept so the sorted module can be sorted again.
+        SortingMetadata.markSorted(allElements, results.keySet());
+
+        allElements.addAll(Elements.getElements(binder -> results.forEach(
+                (setKey, result) -> RuntimeBindings.recordStructure(binder, setKey, result.structure))));
+
+        Module sortedModule = configuration.isCompactSources() ?
+                new CompactSourcesModule(allElements) :
+                Elements.getModule(allElements);
+
+        // Installed as modules so Guice only installs them once with modules sorted separately.
+        return binder -> {
+            binder.install(sortedModule);
+            for (Key<Set<Object>> setKey : results.keySet()) {
+                binder.install(RuntimeBindings.createModule(setKey));
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Key<Set<Object>> setKey(MultibinderBinding<?> multibinder) {
+        return (Key<Set<Object>>) multibinder.getSetKey();
     }
 }
@@ -0,0 +1,191 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.inject.Binder;
+import com.google.inject.Module;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
+import com.google.inject.spi.ModuleAnnotatedMethodScannerBinding;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Records the elements of modules, either sequentially, or in parallel, one module per task,
+ * and concatenates the elements in the order of the modules.
+ * <p>
+ * Guice only installs a module once per recording, comparing modules using {@link Object#equals(Object)},
+ * so a module installed by modules recorded in different tasks would be recorded multiple times.
+ * The modules installed in each task are then collected, and when equal modules are installed in multiple tasks,
+ * the modules are recorded again, sequentially.
+ * Modules of Guice itself, such as the ones of multibinders, are designed to be recorded multiple times
+ * and are ignored.
+ * <p>
+ * Method scanners also only apply to the modules installed after them in the same recording, so modules are
+ * recorded again as well when a task other than the last one registers a scanner.
+ * <p>
+ * Guice doesn't expose the modules installed by a recording, so they are read from its binder.
+ * When this isn't possible, modules are always recorded sequentially.
+ *
+ * @see SequentiallyRecorded
+ */
+final class ModuleRecorder {
+    private static final @Nullable Field INSTALLED_MODULES_FIELD = findInstalledModulesField();
+
+    private ModuleRecorder() {
+    }
+
+    /**
+     * Records the elements of the specified modules, in parallel using the specified executor
+     * when it isn't {@code null}.
+     *
+     * @param modules  the modules to record
+     * @param executor the executor recording the modules in parallel, or {@code null} to record them sequentially
+     * @return a mutable list of the elements of the modules, in the order of the modules
+     */
+    static List<Element> record(List<Module> modules, @Nullable Executor executor) {
+        Field installedModulesField = INSTALLED_MODULES_FIELD;
+        if (executor == null || modules.size() < 2 || installedModulesField == null) {
+            return new ArrayList<>(Elements.getElements(modules));
+        }
+
+        List<CompletableFuture<Recording>> recordings = new ArrayList<>(modules.size());
+        for (Module module : modules) {
+            if (isSequential(module)) {
+                recordings.add(new CompletableFuture<>());
+            } else {
+                recordings.add(CompletableFuture.supplyAsync(() -> Recording.of(module, installedModulesField), executor));
+            }
+        }
+
+        // Sequential modules are recorded on this thread, while the other ones are being recorded.
+        for (int i = 0; i < modules.size(); i++) {
+            Module module = modules.get(i);
+            if (isSequential(module)) {
+                recordings.get(i).complete(Recording.of(module, installedModulesField));
+            }
+        }
+
+        List<Recording> completedRecordings = new ArrayList<>(modules.size());
+        for (CompletableFuture<Recording> recording : recordings) {
+            completedRecordings.add(CompletableFutures.join(recording));
+        }
+
+        if (mustRecordSequentially(completedRecordings)) {
+            return new ArrayList<>(Elements.getElements(modules));
+        }
+
+        List<Element> elements = new ArrayList<>();
+        for (Recording recording : completedRecordings) {
+            elements.addAll(recording.elements);
+        }
+        return elements;
+    }
+
+    private static boolean mustRecordSequentially(List<Recording> recordings) {
+        Map<Object, Integer> installingTasks = new HashMap<>();
+
+        for (int task = 0; task < recordings.size(); task++) {
+            Recording recording = recordings.get(task);
+            if (recording.installedModules == null) {
+                return true;
+            }
+
+            for (Object installedModule : recording.installedModules) {
+                Integer installingTask = installingTasks.putIfAbsent(installedModule, task);
+                if (installingTask != null && installingTask != task) {
+                    return true;
+                }
+            }
+
+            // The scanners of the last task don't apply to any other module.
+            if (task != recordings.size() - 1 && hasScanners(recording.elements)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasScanners(List<Element> elements) {
+        for (Element element : elements) {
+            if (element instanceof ModuleAnnotatedMethodScannerBinding) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isGuiceModule(Object module) {
+        return module.getClass().getName().startsWith("com.google.inject.");
+    }
+
+    private static boolean isSequential(Module module) {
+        return module.getClass().isAnnotationPresent(SequentiallyRecorded.class);
+    }
+
+    private static @Nullable Field findInstalledModulesField() {
+        try {
+            Field field = Class.forName("com.google.inject.spi.Elements$RecordingBinder")
+                    .getDeclaredField("modules");
+            field.setAccessible(true);
+            return field.getType() == Map.class ? field : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static final class Recording {
+        final List<Element> elements;
+        // The modules installed by the recording, or null if they couldn't be read.
+        final @Nullable Set<Object> installedModules;
+
+        private Recording(List<Element> elements, @Nullable Set<Object> installedModules) {
+            this.elements = elements;
+            this.installedModules = installedModules;
+        }
+
+        static Recording of(Module module, Field installedModulesField) {
+            RecordingModule recordingModule = new RecordingModule(module, installedModulesField);
+            List<Element> elements = Elements.getElements(recordingModule);
+            return new Recording(elements, recordingModule.installedModules);
+        }
+    }
+
+    // Installs the module, and then collects the modules installed by the binder, which are shared
+    // by every binder of the recording, except the ones of private modules.
+    private static final class RecordingModule implements Module {
+        private final Module module;
+        private final Field installedModulesField;
+        @Nullable Set<Object> installedModules;
+
+        RecordingModule(Module module, Field installedModulesField) {
+            this.module = module;
+            this.installedModulesField = installedModulesField;
+        }
+
+        @Override
+        public void configure(Binder binder) {
+            binder.install(module);
+
+            try {
+                Map<?, ?> modules = (Map<?, ?>) installedModulesField.get(binder);
+                Set<Object> installedModules = new LinkedHashSet<>();
+                for (Object installedModule : modules.keySet()) {
+                    if (installedModule != this && !isGuiceModule(installedModule)) {
+                        installedModules.add(installedModule);
+                    }
+                }
+                this.installedModules = installedModules;
+            } catch (IllegalAccessException | IllegalArgumentException e) {
+                this.installedModules = null;
+            }
+        }
+    }
+}
@@ -2,277 +2,230 @@ package com.github.jeuxjeux20.orderedmultibinders;
 
 import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBinding;
 import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
-import com.github.jeuxjeux20.orderedmultibinders.config.UnresolvableClassHandling;
+import com.github.jeuxjeux20.orderedmultibinders.engine.SortingProblem;
 import com.github.jeuxjeux20.orderedmultibinders.internal.binding.OrderedBindingBiMapFactory;
 import com.github.jeuxjeux20.orderedmultibinders.internal.binding.OrderedBindingFactory;
+import com.github.jeuxjeux20.orderedmultibinders.runtime.OrderedStructure;
 import com.github.jeuxjeux20.orderedmultibinders.util.MultibinderFinder;
-import com.google.common.collect.BiMap;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ListMultimap;
 import com.google.inject.Binding;
-import com.google.inject.TypeLiteral;
+import com.google.inject.Key;
 import com.google.inject.multibindings.Multibinder;
 import com.google.inject.multibindings.MultibinderBinding;
 import com.google.inject.spi.Element;
+import com.google.inject.spi.LinkedKeyBinding;
 import org.jetbrains.annotations.Nullable;
-import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.DirectedAcyclicGraph;
-import org.jgrapht.traverse.TopologicalOrderIterator;
 
-import java.util.Comparator;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
- * Sorts a {@link Multibinder}'s elements according to their @{@link Order} annotation.
+ * Sorts a {@link Multibinder}'s elements according to their @{@link Order} annotation,
+ * or the order recorded by an {@link OrderedMultibinder}.
  */
 final class MultibinderSorter {
     private final List<Element> elements;
-    private final OrderedBindingFactory orderedBindingFactory = OrderedBindingFactory.DEFAULT;
+    private final OrderedBindingFactory orderedBindingFactory;
+    private final ImmutableListMultimap<Key<?>, ImmutableList<String>> phaseOrders;
     private final SortingConfiguration configuration;
+    private final @Nullable SortCache cache;
 
     MultibinderSorter(List<Element> elements, SortingConfiguration configuration) {
+        this(elements, configuration, null);
+    }
+
+    MultibinderSorter(List<Element> elements, SortingConfiguration configuration, @Nullable SortCache cache) {
         this.elements = elements;
         this.configuration = configuration;
+        this.cache = cache;
+        this.orderedBindingFactory = createOrderedBindingFactory(OrderMetadata.findAll(elements));
+        this.phaseOrders = PhaseMetadata.findAll(elements);
     }
 
-    public List<Binding<?>> sort(MultibinderBinding<?> multibinder) {
-        List<Binding<?>> multiBinderElements = MultibinderFinder.findMultibinderContentBindings(elements, multibinder);
-
-        if (multiBinderElements.isEmpty()) {
-            return multiBinderElements;
+    private static OrderedBindingFactory createOrderedBindingFactory(
+            ImmutableMap<Key<?>, OrderMetadata> recordedOrders) {
+        if (recordedOrders.isEmpty()) {
+            return OrderedBindingFactory.DEFAULT;
         }
 
-        SortContext context = createSortContext(multiBinderElements);
-
-        BindingGraphFactory graphFactory = new BindingGraphFactory(context);
-        context.graph = graphFactory.createGraph();
-
-        return sortElements(context);
-    }
-
-    private MultibinderSorter.SortContext createSortContext(List<Binding<?>> bindings) {
-        ImmutableBiMap<Binding<?>, OrderedBinding> orderedBindings =
-                new OrderedBindingBiMapFactory(orderedBindingFactory).createOrderedBindings(bindings);
+        return binding -> {
+            // Elements bound using an OrderedMultibinder already have their order, no need to use reflection.
+            if (binding instanceof LinkedKeyBinding<?>) {
+                Key<?> linkedKey = ((LinkedKeyBinding<?>) binding).getLinkedKey();
+                OrderMetadata metadata = recordedOrders.get(linkedKey);
 
-        return new SortContext(bindings, orderedBindings);
+                if (metadata != null) {
+                    return new OrderedBinding(metadata.getIdentifierKey(), binding, metadata.getOrder());
+                }
+            }
+            return OrderedBindingFactory.DEFAULT.create(binding);
+        };
     }
 
-    private List<Binding<?>> sortElements(SortContext context) {
-        if (context.bindings.size() < 2) {
-            // There is no ordering to apply with under two elements.
-            return context.bindings;
-        }
-
-        Comparator<Binding<?>> listPositionComparator = new BindingListPositionComparator(context);
-        TopologicalOrderIterator<Binding<?>, BindingEdge> topologicalIterator =
-                new TopologicalOrderIterator<>(context.graph, (a, b) -> {
-                    int aPosition = findPosition(context, a);
-                    int bPosition = findPosition(context, b);
-
-                    int positionComparison = Integer.compare(aPosition, bPosition);
-                    if (positionComparison != 0) {
-                        return positionComparison;
-                    } else {
-                        return listPositionComparator.compare(a, b);
-                    }
-                });
-
-        return ImmutableList.copyOf(topologicalIterator);
+    public List<Binding<?>> sort(MultibinderBinding<?> multibinder) {
+        return sort(MultibinderFinder.findMultibinderContentBindings(elements, multibinder));
     }
 
-    private int findPosition(SortContext context, Binding<?> binding) {
-        OrderedBinding orderedBinding = context.orderedBindings.get(binding);
-        Order order = orderedBinding.getOrder();
-
-        int position = 0;
+    /**
+     * Sorts a {@link Multibinder}'s elements, and returns them along with their {@link OrderedStructure}.
+     *
+     * @param multibinder the multibinder to sort
+     * @return the sorted bindings and their structure
+     */
+    public Result sortWithStructure(MultibinderBinding<?> multibinder) {
+        List<Binding<?>> bindings = MultibinderFinder.findMultibinderContentBindings(elements, multibinder);
 
-        if (order != null) {
-            position = order.position();
+        if (bindings.isEmpty()) {
+            return new Result(bindings, new OrderedStructure<>(ImmutableList.of(), new int[0][]));
         }
 
-        if (position == 0) {
-            position = configuration.getDefaultPosition().get(orderedBinding);
-        }
-        return position;
-
-    }
+        Key<?> setKey = multibinder.getSetKey();
+        SortingConfiguration multibinderConfiguration = configuration.forMultibinder(setKey);
+        List<ImmutableList<String>> multibinderPhaseOrders = phaseOrders.get(setKey);
+        OrderedBindingSorter sorter = createSorter(bindings, multibinderConfiguration, multibinderPhaseOrders);
 
-    private static final class BindingGraph extends DirectedAcyclicGraph<Binding<?>, BindingEdge> {
-        BindingGraph(SortContext context) {
-            super(null, () -> new BindingEdge(context), false);
+        if (cache == null) {
+            return createResult(bindings, sorter.sort());
         }
-    }
-
-    private static final class BindingEdge extends DefaultEdge {
-        private final SortContext context;
 
-        private boolean isExplicit = true;
-
-        public BindingEdge(SortContext context) {
-            this.context = context;
+        // Multibinders with the same shape give the same order, which can be reused.
+        SortCache.Shape shape = createShape(bindings, sorter, multibinderConfiguration, multibinderPhaseOrders);
+        SortCache.CachedOrder cachedOrder = cache.get(shape);
+        if (cachedOrder != null) {
+            return new Result(cachedOrder.apply(bindings), cachedOrder.structure);
         }
 
-        public boolean isExplicit() {
-            return isExplicit;
-        }
+        OrderedBindingSorter.Result sorted = sorter.sort();
+        Result result = createResult(bindings, sorted);
 
-        public void setExplicit(boolean explicit) {
-            isExplicit = explicit;
-        }
+        int[] sortedIndexes = Arrays.stream(sorted.order).filter(index -> !sorted.problem.isBarrier(index)).toArray();
+        // The same shape may have been sorted concurrently, in which case its structure is shared.
+        cachedOrder = cache.put(shape, new SortCache.CachedOrder(sortedIndexes, result.structure));
 
-        @Override
-        public String toString() {
-            return getIdentifier((Binding<?>) getSource()) + " " +
-                   getIdentifier((Binding<?>) getTarget()) + (isExplicit ? " [explicit]" : " [implicit]");
-        }
-
-        private String getIdentifier(Binding<?> binding) {
-            return context.orderedBindings.get(binding).getIdentifier().getRawType().getSimpleName();
-        }
+        return new Result(result.bindings, cachedOrder.structure);
     }
 
-    private static final class BindingListPositionComparator implements Comparator<Binding<?>> {
-        private final SortContext context;
-
-        public BindingListPositionComparator(SortContext context) {
-            this.context = context;
+    private static Result createResult(List<Binding<?>> bindings, OrderedBindingSorter.Result sorted) {
+        ImmutableList.Builder<Binding<?>> sortedBindings = ImmutableList.builderWithExpectedSize(sorted.order.length);
+        for (int index : sorted.order) {
+            if (!sorted.problem.isBarrier(index)) {
+                sortedBindings.add(bindings.get(index));
+            }
         }
 
-        @Override
-        public int compare(Binding<?> a, Binding<?> b) {
-            return context.bindingPositions.get(a).compareTo(context.bindingPositions.get(b));
-        }
+        return new Result(sortedBindings.build(), createStructure(sorted.problem, sorted.order));
     }
 
-    private static final class SortContext {
-        final List<Binding<?>> bindings;
-        final BiMap<Binding<?>, OrderedBinding> orderedBindings;
-        final Map<Binding<?>, Integer> bindingPositions;
-        BindingGraph graph;
-
-        private SortContext(List<Binding<?>> bindings, BiMap<Binding<?>, OrderedBinding> orderedBindings) {
-            this.bindings = bindings;
-            this.orderedBindings = orderedBindings;
-
-            this.bindingPositions = createBindingPositions(bindings);
-        }
-
-        private Map<Binding<?>, Integer> createBindingPositions(List<Binding<?>> bindings) {
-            Map<Binding<?>, Integer> map = new HashMap<>();
-            for (int i = 0; i < bindings.size(); i++) {
-                map.put(bindings.get(i), i);
-            }
-
-            return map;
+    private static SortCache.Shape createShape(List<Binding<?>> bindings, OrderedBindingSorter sorter,
+                                               SortingConfiguration configuration,
+                                               List<ImmutableList<String>> phaseOrders) {
+        List<SortCache.ShapeElement> shapeElements = new ArrayList<>(bindings.size());
+        for (int i = 0; i < bindings.size(); i++) {
+            OrderedBinding orderedBinding = sorter.getOrderedBinding(i);
+            shapeElements.add(new SortCache.ShapeElement(
+                    orderedBinding.getIdentifierKey(), orderedBinding.getOrder(), sorter.findPosition(i)));
         }
+        return new SortCache.Shape(shapeElements, phaseOrders, configuration);
     }
 
-    private final class BindingGraphFactory {
-        private final SortContext context;
-
-        BindingGraphFactory(SortContext context) {
-            this.context = context;
+    /**
+     * Sorts the given bindings as if they were the elements of a {@link Multibinder}.
+     *
+     * @param bindings the bindings to sort
+     * @return the sorted bindings
+     */
+    public List<Binding<?>> sort(List<Binding<?>> bindings) {
+        if (bindings.isEmpty()) {
+            return bindings;
         }
 
-        public BindingGraph createGraph() {
-            BindingGraph graph = new BindingGraph(context);
-
-            addVertexes(graph);
-            createImplicitEdges(graph);
-            createExplicitEdges(graph);
+        return createResult(bindings, createSorter(bindings, configuration, ImmutableList.of()).sort()).bindings;
+    }
 
-            return graph;
-        }
+    private OrderedBindingSorter createSorter(List<Binding<?>> bindings,
+                                              SortingConfiguration configuration,
+                                              List<ImmutableList<String>> phaseOrders) {
+        ImmutableBiMap<Binding<?>, OrderedBinding> orderedBindings =
+                new OrderedBindingBiMapFactory(orderedBindingFactory).createOrderedBindings(bindings);
 
-        private void addVertexes(BindingGraph graph) {
-            for (Binding<?> binding : context.bindings) {
-                graph.addVertex(binding);
-            }
+        List<OrderedBinding> orderedBindingList = new ArrayList<>(bindings.size());
+        for (Binding<?> binding : bindings) {
+            orderedBindingList.add(orderedBindings.get(binding));
         }
 
-        private void createImplicitEdges(BindingGraph graph) {
-            List<Binding<?>> bindings = context.bindings;
-
-            Binding<?> lastImplicitBinding = null;
-            for (Binding<?> binding : bindings) {
-                if (isImplicitCandidate(binding)) {
-                    if (lastImplicitBinding != null) {
-                        BindingEdge edge = graph.addEdge(lastImplicitBinding, binding);
-                        edge.setExplicit(false);
-                    }
+        return new OrderedBindingSorter(orderedBindingList, configuration, phaseOrders);
+    }
 
-                    lastImplicitBinding = binding;
-                }
+    private static OrderedStructure<?> createStructure(SortingProblem problem, int[] order) {
+        // The position of every element without the barriers, or -1 for barriers.
+        int[] sortedPositions = new int[order.length];
+        List<Key<?>> identifiers = new ArrayList<>(order.length);
+        for (int index : order) {
+            if (problem.isBarrier(index)) {
+                sortedPositions[index] = -1;
+            } else {
+                sortedPositions[index] = identifiers.size();
+                identifiers.add(problem.getOrderedBinding(index).getIdentifierKey());
             }
         }
 
-        private boolean isImplicitCandidate(Binding<?> binding) {
-            OrderedBinding orderedBinding = context.orderedBindings.get(binding);
-            Order order = orderedBinding.getOrder();
-
-            return order == null ||
-                   (order.before().length == 0 && order.after().length == 0 && order.position() == 0);
+        ListMultimap<Integer, Integer> explicitSources = ArrayListMultimap.create();
+        for (int i = 0; i < problem.getEdgeCount(); i++) {
+            if (problem.isEdgeExplicit(i)) {
+                explicitSources.put(problem.getEdgeTarget(i), problem.getEdgeSource(i));
+            }
         }
 
-        private void createExplicitEdges(BindingGraph graph) {
-            for (Binding<?> binding : context.bindings) {
-                Order order = context.orderedBindings.get(binding).getOrder();
-                if (order == null) {
-                    continue;
-                }
-
-                for (Class<?> beforeClass : order.before()) {
-                    Binding<?> succeedingBinding = findByClassOrHandle(beforeClass);
-                    if (succeedingBinding != null) {
-                        addExplicitEdge(graph, binding, succeedingBinding);
-                    }
-                }
-
-                for (Class<?> afterClass : order.after()) {
-                    Binding<?> precedingBinding = findByClassOrHandle(afterClass);
-                    if (precedingBinding != null) {
-                        addExplicitEdge(graph, precedingBinding, binding);
+        // Barriers are replaced by the closest elements before them, such as the elements of the previous phase,
+        // which are computed in the sorted order, so the ones of the barriers before them are known.
+        int[][] predecessors = new int[order.length][];
+        int[][] explicitPredecessors = new int[identifiers.size()][];
+        for (int index : order) {
+            Set<Integer> elementPredecessors = new TreeSet<>();
+            Set<Integer> barrierPredecessors = new TreeSet<>();
+            for (int source : explicitSources.get(index)) {
+                if (problem.isBarrier(source)) {
+                    for (int predecessor : predecessors[source]) {
+                        barrierPredecessors.add(predecessor);
                     }
+                } else {
+                    elementPredecessors.add(sortedPositions[source]);
                 }
             }
-        }
 
-        private void addExplicitEdge(BindingGraph graph, Binding<?> binding, Binding<?> succeedingBinding) {
-            try {
-                graph.addEdge(binding, succeedingBinding);
-            } catch (IllegalArgumentException e) {
-                throw cycleDetectedException(binding, succeedingBinding);
+            if (problem.isBarrier(index)) {
+                predecessors[index] = toArray(elementPredecessors.isEmpty() ? barrierPredecessors : elementPredecessors);
+            } else {
+                elementPredecessors.addAll(barrierPredecessors);
+                explicitPredecessors[sortedPositions[index]] = toArray(elementPredecessors);
             }
         }
 
-        private @Nullable Binding<?> findByClassOrHandle(Class<?> clazz) {
-            Binding<?> binding = context.orderedBindings.inverse().get(OrderedBinding.equalityToken(TypeLiteral.get(clazz)));
+        return new OrderedStructure<>(identifiers, explicitPredecessors);
+    }
 
-            if (binding != null) {
-                return binding;
-            } else {
-                UnresolvableClassHandling handling = configuration.getUnresolvableClassHandling();
-
-                switch (handling) {
-                    case THROW:
-                        throw new UnableToResolveClassAsBindingException(clazz);
-                    case IGNORE:
-                        return null;
-                    default:
-                        throw new UnsupportedOperationException("Unknown handling: " + handling);
-                }
-            }
-        }
+    private static int[] toArray(Set<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).toArray();
+    }
 
-        private CycleDetectedException cycleDetectedException(Binding<?> binding, Binding<?> otherBinding) {
-            OrderedBinding orderedBinding = context.orderedBindings.get(binding);
-            OrderedBinding otherOrderedBinding = context.orderedBindings.get(otherBinding);
+    /**
+     * Sorted bindings along with their {@link OrderedStructure}.
+     */
+    static final class Result {
+        final List<Binding<?>> bindings;
+        final OrderedStructure<?> structure;
 
-            return new CycleDetectedException(
-                    "Cycle detected between " + orderedBinding.getIdentifier() +
-                    " and " + otherOrderedBinding.getIdentifier() + ".");
+        Result(List<Binding<?>> bindings, OrderedStructure<?> structure) {
+            this.bindings = bindings;
+            this.structure = structure;
         }
     }
 }
@@ -8,15 +8,22 @@ import java.lang.annotation.*;
 /**
  * Specifies the relative constraints on the position of bindings
  * targeting this class in a {@link Multibinder}.
+ * <p>
+ * This annotation can also be present on provider methods annotated with
+ * {@link com.google.inject.multibindings.ProvidesIntoSet @ProvidesIntoSet}, in which case it is used
+ * instead of the annotation on the method's return type.
  *
  * @see OrderedMultibinders
  */
 @Inherited
-@Target(ElementType.TYPE)
+@Target({ElementType.TYPE, ElementType.METHOD})
 @Retention(RetentionPolicy.RUNTIME)
 public @interface Order {
     /**
      * Returns the classes that this element should precede.
+     * <p>
+     * When no binding is identified by a class without qualifier, every binding identified by this class,
+     * with any qualifier, is used.
      *
      * @return the classes that this element should precede
      */
@@ -24,11 +31,102 @@ public @interface Order {
 
     /**
      * Returns the classes that this element should succeed.
+     * <p>
+     * When no binding is identified by a class without qualifier, every binding identified by this class,
+     * with any qualifier, is used.
      *
      * @return the classes that this element should succeed
      */
     Class<?>[] after() default {};
 
+    /**
+     * Returns the binary names (as returned by {@link Class#getName()}) of the classes
+     * that this element should precede.
+     * <p>
+     * Unlike {@link #before()}, these classes are matched against the names of the bindings' identifiers,
+     * and are never loaded, which avoids loading classes of optional elements that aren't bound.
+     * They are otherwise resolved like the classes of {@link #before()}.
+     *
+     * @return the names of the classes that this element should precede
+     */
+    String[] beforeNames() default {};
+
+    /**
+     * Returns the binary names (as returned by {@link Class#getName()}) of the classes
+     * that this element should succeed.
+     * <p>
+     * Unlike {@link #after()}, these classes are matched against the names of the bindings' identifiers,
+     * and are never loaded, which avoids loading classes of optional elements that aren't bound.
+     * They are otherwise resolved like the classes of {@link #after()}.
+     *
+     * @return the names of the classes that this element should succeed
+     */
+    String[] afterNames() default {};
+
+    /**
+     * Returns the qualified identifiers that this element should precede.
+     *
+     * @return the qualified identifiers that this element should precede
+     * @see Qualified
+     */
+    Qualified[] beforeQualified() default {};
+
+    /**
+     * Returns the qualified identifiers that this element should succeed.
+     *
+     * @return the qualified identifiers that this element should succeed
+     * @see Qualified
+     */
+    Qualified[] afterQualified() default {};
+
+    /**
+     * Returns the supertypes (classes or interfaces) whose bound subtypes this element should precede.
+     * <p>
+     * Every element whose identifier is assignable to one of these types, with any qualifier, is preceded,
+     * except this element. Unlike {@link #before()}, a type without any bound subtype is ignored.
+     * Contributions added using {@link OrderedMultibinder#addIndexedContributions(ClassLoader)} are never
+     * matched, as their class isn't loaded.
+     *
+     * @return the supertypes whose subtypes this element should precede
+     */
+    Class<?>[] beforeSubtypesOf() default {};
+
+    /**
+     * Returns the supertypes (classes or interfaces) whose bound subtypes this element should succeed.
+     * <p>
+     * Every element whose identifier is assignable to one of these types, with any qualifier, is succeeded,
+     * except this element. Unlike {@link #after()}, a type without any bound subtype is ignored.
+     * Contributions added using {@link OrderedMultibinder#addIndexedContributions(ClassLoader)} are never
+     * matched, as their class isn't loaded.
+     *
+     * @return the supertypes whose subtypes this element should succeed
+     */
+    Class<?>[] afterSubtypesOf() default {};
+
+    /**
+     * Returns the class identifying the phase of this element, or {@code void.class} if it isn't in a phase
+     * identified by a class.
+     * <p>
+     * Phases group elements: when a phase is declared before another phase of the multibinder,
+     * using {@link OrderedMultibinder#phaseOrder(Class[])}, all of its elements precede the elements
+     * of the other phase, without a constraint between every pair of elements. A phase identified
+     * by a class is the same as the phase named after the binary name of the class.
+     * Phases without a declared order don't constrain their elements.
+     *
+     * @return the class identifying the phase of this element, or {@code void.class}
+     */
+    Class<?> phase() default void.class;
+
+    /**
+     * Returns the name of the phase of this element, or an empty string if it isn't in a named phase.
+     * <p>
+     * This value is ignored when {@link #phase()} is set.
+     *
+     * @return the name of the phase of this element, or an empty string
+     * @see #phase()
+     */
+    String phaseName() default "";
+
     /**
      * Defines the position of the element when its
      * exact position cannot be determined.
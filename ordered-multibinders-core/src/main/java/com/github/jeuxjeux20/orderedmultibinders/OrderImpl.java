@@ -0,0 +1,150 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+
+/**
+ * An implementation of @{@link Order} created at runtime, such as by an {@link OrderedMultibinder},
+ * following the {@link Annotation} contract.
+ */
+final class OrderImpl implements Order {
+    private final Class<?>[] before;
+    private final Class<?>[] after;
+    private final String[] beforeNames;
+    private final String[] afterNames;
+    private final Qualified[] beforeQualified;
+    private final Qualified[] afterQualified;
+    private final Class<?>[] beforeSubtypesOf;
+    private final Class<?>[] afterSubtypesOf;
+    private final Class<?> phase;
+    private final String phaseName;
+    private final int position;
+
+    OrderImpl(Class<?>[] before, Class<?>[] after,
+              String[] beforeNames, String[] afterNames,
+              Qualified[] beforeQualified, Qualified[] afterQualified,
+              Class<?>[] beforeSubtypesOf, Class<?>[] afterSubtypesOf,
+              Class<?> phase, String phaseName, int position) {
+        this.before = before.clone();
+        this.after = after.clone();
+        this.beforeNames = beforeNames.clone();
+        this.afterNames = afterNames.clone();
+        this.beforeQualified = beforeQualified.clone();
+        this.afterQualified = afterQualified.clone();
+        this.beforeSubtypesOf = beforeSubtypesOf.clone();
+        this.afterSubtypesOf = afterSubtypesOf.clone();
+        this.phase = phase;
+        this.phaseName = phaseName;
+        this.position = position;
+    }
+
+    @Override
+    public Class<?>[] before() {
+        return before.clone();
+    }
+
+    @Override
+    public Class<?>[] after() {
+        return after.clone();
+    }
+
+    @Override
+    public String[] beforeNames() {
+        return beforeNames.clone();
+    }
+
+    @Override
+    public String[] afterNames() {
+        return afterNames.clone();
+    }
+
+    @Override
+    public Qualified[] beforeQualified() {
+        return beforeQualified.clone();
+    }
+
+    @Override
+    public Qualified[] afterQualified() {
+        return afterQualified.clone();
+    }
+
+    @Override
+    public Class<?>[] beforeSubtypesOf() {
+        return beforeSubtypesOf.clone();
+    }
+
+    @Override
+    public Class<?>[] afterSubtypesOf() {
+        return afterSubtypesOf.clone();
+    }
+
+    @Override
+    public Class<?> phase() {
+        return phase;
+    }
+
+    @Override
+    public String phaseName() {
+        return phaseName;
+    }
+
+    @Override
+    public int position() {
+        return position;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotationType() {
+        return Order.class;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Order)) return false;
+        Order that = (Order) o;
+        return Arrays.equals(before, that.before()) &&
+               Arrays.equals(after, that.after()) &&
+               Arrays.equals(beforeNames, that.beforeNames()) &&
+               Arrays.equals(afterNames, that.afterNames()) &&
+               Arrays.equals(beforeQualified, that.beforeQualified()) &&
+               Arrays.equals(afterQualified, that.afterQualified()) &&
+               Arrays.equals(beforeSubtypesOf, that.beforeSubtypesOf()) &&
+               Arrays.equals(afterSubtypesOf, that.afterSubtypesOf()) &&
+               phase == that.phase() &&
+               phaseName.equals(that.phaseName()) &&
+               position == that.position();
+    }
+
+    @Override
+    public int hashCode() {
+        // As specified by Annotation.hashCode().
+        return (127 * "before".hashCode() ^ Arrays.hashCode(before)) +
+               (127 * "after".hashCode() ^ Arrays.hashCode(after)) +
+               (127 * "beforeNames".hashCode() ^ Arrays.hashCode(beforeNames)) +
+               (127 * "afterNames".hashCode() ^ Arrays.hashCode(afterNames)) +
+               (127 * "beforeQualified".hashCode() ^ Arrays.hashCode(beforeQualified)) +
+               (127 * "afterQualified".hashCode() ^ Arrays.hashCode(afterQualified)) +
+               (127 * "beforeSubtypesOf".hashCode() ^ Arrays.hashCode(beforeSubtypesOf)) +
+               (127 * "afterSubtypesOf".hashCode() ^ Arrays.hashCode(afterSubtypesOf)) +
+               (127 * "phase".hashCode() ^ phase.hashCode()) +
+               (127 * "phaseName".hashCode() ^ phaseName.hashCode()) +
+               (127 * "position".hashCode() ^ Integer.hashCode(position));
+    }
+
+    @Override
+    public String toString() {
+        return "@" + Order.class.getName() + "(" +
+               "before=" + Arrays.toString(before) +
+               ", after=" + Arrays.toString(after) +
+               ", beforeNames=" + Arrays.toString(beforeNames) +
+               ", afterNames=" + Arrays.toString(afterNames) +
+               ", beforeQualified=" + Arrays.toString(beforeQualified) +
+               ", afterQualified=" + Arrays.toString(afterQualified) +
+               ", beforeSubtypesOf=" + Arrays.toString(beforeSubtypesOf) +
+               ", afterSubtypesOf=" + Arrays.toString(afterSubtypesOf) +
+               ", phase=" + phase.getName() +
+               ", phaseName=" + phaseName +
+               ", position=" + position + ")";
+    }
+}
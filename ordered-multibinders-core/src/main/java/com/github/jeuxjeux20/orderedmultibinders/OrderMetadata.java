@@ -0,0 +1,66 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Key;
+import com.google.inject.spi.Element;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The @{@link Order} of an element bound using an {@link OrderedMultibinder}, and the key identifying it,
+ * recorded at binding time next to the element, and then read by the {@link MultibinderSorter}.
+ */
+final class OrderMetadata extends SortingMetadata {
+    private final Key<?> elementKey;
+    private final Key<?> identifierKey;
+    private final Order order;
+
+    OrderMetadata(Key<?> setKey, Key<?> elementKey, Key<?> identifierKey, Order order) {
+        this(setKey, elementKey, identifierKey, order, false);
+    }
+
+    private OrderMetadata(Key<?> setKey, Key<?> elementKey, Key<?> identifierKey, Order order, boolean sorted) {
+        super(setKey, sorted);
+        this.elementKey = elementKey;
+        this.identifierKey = identifierKey;
+        this.order = order;
+    }
+
+    Key<?> getElementKey() {
+        return elementKey;
+    }
+
+    Key<?> getIdentifierKey() {
+        return identifierKey;
+    }
+
+    Order getOrder() {
+        return order;
+    }
+
+    @Override
+    OrderMetadata toSorted() {
+        return new OrderMetadata(getSetKey(), elementKey, identifierKey, order, true);
+    }
+
+    @Override
+    String describe() {
+        return "The element " + identifierKey + " of the OrderedMultibinder " + getSetKey();
+    }
+
+    /**
+     * Finds the metadata of every element bound using an {@link OrderedMultibinder}, by element key.
+     *
+     * @param elements the elements to search in
+     * @return the metadata of every element, by element key
+     */
+    static ImmutableMap<Key<?>, OrderMetadata> findAll(List<? extends Element> elements) {
+        Map<Key<?>, OrderMetadata> metadataByKey = new HashMap<>();
+        for (OrderMetadata metadata : findAll(elements, OrderMetadata.class)) {
+            metadataByKey.put(metadata.elementKey, metadata);
+        }
+        return ImmutableMap.copyOf(metadataByKey);
+    }
+}
@@ -0,0 +1,535 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBinding;
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.github.jeuxjeux20.orderedmultibinders.config.UnresolvableClassHandling;
+import com.github.jeuxjeux20.orderedmultibinders.engine.SortingEngine;
+import com.github.jeuxjeux20.orderedmultibinders.engine.SortingProblem;
+import com.github.jeuxjeux20.orderedmultibinders.internal.binding.ProviderMethodIdentifiers;
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ListMultimap;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Named;
+import com.google.inject.name.Names;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sorts ordered bindings according to their @{@link Order} annotation, the order of their phases
+ * and a {@link SortingConfiguration}, whether they come from a multibinder or not.
+ * <p>
+ * Elements are referred to by their index in the given list, which is also their index
+ * in the {@link SortingProblem}.
+ */
+final class OrderedBindingSorter {
+    private final List<OrderedBinding> orderedBindings;
+    private final SortingConfiguration configuration;
+    private final ImmutableList<ImmutableList<String>> phaseOrders;
+    private final Map<Key<?>, Integer> indexes;
+    private final ListMultimap<TypeLiteral<?>, Integer> qualifiedIndexes;
+    private @Nullable Map<String, Integer> unqualifiedIndexesByName;
+    private @Nullable ListMultimap<String, Integer> qualifiedIndexesByName;
+    private @Nullable ListMultimap<Class<?>, Integer> subtypeIndex;
+    private @Nullable ListMultimap<Key<?>, Integer> providerMethodIndexes;
+
+    /**
+     * Creates a new sorter of the specified ordered bindings.
+     *
+     * @param orderedBindings the ordered bindings, in their initial order
+     * @param configuration   the configuration
+     * @param phaseOrders     the orders of the phases of the elements
+     * @throws DuplicateIdentifiersException when multiple ordered bindings have the same identifier
+     */
+    OrderedBindingSorter(List<OrderedBinding> orderedBindings, SortingConfiguration configuration,
+                         List<ImmutableList<String>> phaseOrders) {
+        this.orderedBindings = orderedBindings;
+        this.configuration = configuration;
+        this.phaseOrders = ImmutableList.copyOf(phaseOrders);
+
+        this.indexes = new HashMap<>();
+        this.qualifiedIndexes = ArrayListMultimap.create();
+        boolean hasContributions = false;
+        for (int i = 0; i < orderedBindings.size(); i++) {
+            OrderedBinding orderedBinding = orderedBindings.get(i);
+            if (indexes.put(orderedBinding.getIdentifierKey(), i) != null) {
+                throw new DuplicateIdentifiersException(
+                        "Multiple elements have the same identifier: " + orderedBinding.getIdentifierKey() + ".");
+            }
+            if (orderedBinding.isQualified()) {
+                qualifiedIndexes.put(orderedBinding.getIdentifier(), i);
+            }
+            hasContributions |= isIndexedContribution(orderedBinding);
+        }
+
+        if (hasContributions) {
+            // Contributions are identified by their class name, which may also be the name of a bound class.
+            createIndexesByName();
+        }
+    }
+
+    OrderedBinding getOrderedBinding(int index) {
+        return orderedBindings.get(index);
+    }
+
+    /**
+     * Sorts the ordered bindings.
+     *
+     * @return the sorted problem
+     * @throws CycleDetectedException            when the constraints have a cycle
+     * @throws UnableToResolveAsBindingException when a constraint cannot be resolved,
+     *                                           and the configuration doesn't ignore it
+     */
+    Result sort() {
+        SortingProblem.Builder problemBuilder = SortingProblem.builder();
+        for (int i = 0; i < orderedBindings.size(); i++) {
+            problemBuilder.addElement(orderedBindings.get(i), findPosition(i));
+        }
+
+        UnableToResolveAsBindingException unresolvableException = null;
+        try {
+            createImplicitEdges(problemBuilder);
+            createExplicitEdges(problemBuilder);
+        } catch (UnableToResolveAsBindingException e) {
+            // Only thrown if no cycle is found in the edges created until now.
+            unresolvableException = e;
+        }
+
+        if (unresolvableException == null) {
+            addPhaseEdges(problemBuilder);
+        }
+
+        SortingProblem problem = problemBuilder.build();
+        int[] order = sortProblem(problem);
+
+        if (unresolvableException != null) {
+            throw unresolvableException;
+        }
+
+        return new Result(problem, order);
+    }
+
+    /**
+     * Returns whether or not the ordered bindings can be sorted without changing their order:
+     * none of them has constraints, and all of them have a position of 0.
+     *
+     * @return {@code true} if the ordered bindings are already sorted, otherwise {@code false}
+     */
+    boolean isTriviallySorted() {
+        for (int i = 0; i < orderedBindings.size(); i++) {
+            if (!isImplicitCandidate(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int[] sortProblem(SortingProblem problem) {
+        SortingEngine engine = configuration.getSortingEngine();
+        if (configuration.isSortingComponentsInParallel()) {
+            engine = SortingEngine.parallelComponents(engine);
+        }
+
+        int[] order = engine.sort(problem);
+        try {
+            problem.checkOrder(order);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("The sorting engine " + engine + " returned an invalid order.", e);
+        }
+        return order;
+    }
+
+    /**
+     * Finds the position of an element, given by its @{@link Order} annotation,
+     * or by the configuration's default position.
+     *
+     * @param index the index of the element
+     * @return the position of the element
+     */
+    int findPosition(int index) {
+        OrderedBinding orderedBinding = orderedBindings.get(index);
+        Order order = orderedBinding.getOrder();
+
+        int position = 0;
+
+        if (order != null) {
+            position = order.position();
+        }
+
+        if (position == 0) {
+            position = configuration.getDefaultPosition().get(orderedBinding);
+        }
+        return position;
+    }
+
+    static boolean hasConstraints(Order order) {
+        return order.before().length != 0 || order.after().length != 0 ||
+               order.beforeNames().length != 0 || order.afterNames().length != 0 ||
+               order.beforeQualified().length != 0 || order.afterQualified().length != 0 ||
+               order.beforeSubtypesOf().length != 0 || order.afterSubtypesOf().length != 0 ||
+               findPhase(order) != null;
+    }
+
+    private static @Nullable String findPhase(Order order) {
+        if (order.phase() != void.class) {
+            return order.phase().getName();
+        }
+        return order.phaseName().isEmpty() ? null : order.phaseName();
+    }
+
+    private void createImplicitEdges(SortingProblem.Builder problemBuilder) {
+        int lastImplicitIndex = -1;
+        for (int i = 0; i < orderedBindings.size(); i++) {
+            if (isImplicitCandidate(i)) {
+                if (lastImplicitIndex != -1) {
+                    problemBuilder.addEdge(lastImplicitIndex, i, false);
+                }
+
+                lastImplicitIndex = i;
+            }
+        }
+    }
+
+    private boolean isImplicitCandidate(int index) {
+        Order order = orderedBindings.get(index).getOrder();
+
+        // Elements positioned by the default position provider aren't chained,
+        // so the provider can freely move them around.
+        return (order == null || !hasConstraints(order)) && findPosition(index) == 0;
+    }
+
+    private void createExplicitEdges(SortingProblem.Builder problemBuilder) {
+        for (int i = 0; i < orderedBindings.size(); i++) {
+            Order order = orderedBindings.get(i).getOrder();
+            if (order == null) {
+                continue;
+            }
+
+            for (Class<?> beforeClass : order.before()) {
+                for (int succeeding : findByClassOrHandle(beforeClass)) {
+                    problemBuilder.addEdge(i, succeeding, true);
+                }
+            }
+
+            for (Class<?> afterClass : order.after()) {
+                for (int preceding : findByClassOrHandle(afterClass)) {
+                    problemBuilder.addEdge(preceding, i, true);
+                }
+            }
+
+            for (String beforeName : order.beforeNames()) {
+                for (int succeeding : findByNameOrHandle(beforeName)) {
+                    problemBuilder.addEdge(i, succeeding, true);
+                }
+            }
+
+            for (String afterName : order.afterNames()) {
+                for (int preceding : findByNameOrHandle(afterName)) {
+                    problemBuilder.addEdge(preceding, i, true);
+                }
+            }
+
+            for (Qualified beforeIdentifier : order.beforeQualified()) {
+                for (int succeeding : findByQualifiedOrHandle(beforeIdentifier)) {
+                    problemBuilder.addEdge(i, succeeding, true);
+                }
+            }
+
+            for (Qualified afterIdentifier : order.afterQualified()) {
+                for (int preceding : findByQualifiedOrHandle(afterIdentifier)) {
+                    problemBuilder.addEdge(preceding, i, true);
+                }
+            }
+
+            for (Class<?> beforeSupertype : order.beforeSubtypesOf()) {
+                for (int succeeding : getSubtypeIndex().get(beforeSupertype)) {
+                    if (succeeding != i) {
+                        problemBuilder.addEdge(i, succeeding, true);
+                    }
+                }
+            }
+
+            for (Class<?> afterSupertype : order.afterSubtypesOf()) {
+                for (int preceding : getSubtypeIndex().get(afterSupertype)) {
+                    if (preceding != i) {
+                        problemBuilder.addEdge(preceding, i, true);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Orders the elements of the declared phases. Every phase has a barrier
+     * coming after its elements, and before the elements and the barriers of the next phases,
+     * which takes an edge per element instead of an edge per pair of elements.
+     */
+    private void addPhaseEdges(SortingProblem.Builder problemBuilder) {
+        if (phaseOrders.isEmpty()) {
+            return;
+        }
+
+        Map<String, Integer> barriers = new HashMap<>();
+        for (List<String> phaseOrder : phaseOrders) {
+            for (String phase : phaseOrder) {
+                if (!barriers.containsKey(phase)) {
+                    barriers.put(phase, orderedBindings.size() + barriers.size());
+                    problemBuilder.addBarrier("phase " + phase);
+                }
+            }
+        }
+
+        ListMultimap<String, Integer> elementsByPhase = ArrayListMultimap.create();
+        for (int i = 0; i < orderedBindings.size(); i++) {
+            Order order = orderedBindings.get(i).getOrder();
+            String phase = order == null ? null : findPhase(order);
+
+            if (phase != null && barriers.containsKey(phase)) {
+                elementsByPhase.put(phase, i);
+                problemBuilder.addEdge(i, barriers.get(phase), true);
+            }
+        }
+
+        for (List<String> phaseOrder : phaseOrders) {
+            for (int i = 1; i < phaseOrder.size(); i++) {
+                int previousBarrier = barriers.get(phaseOrder.get(i - 1));
+                String phase = phaseOrder.get(i);
+
+                problemBuilder.addEdge(previousBarrier, barriers.get(phase), true);
+                for (int element : elementsByPhase.get(phase)) {
+                    problemBuilder.addEdge(previousBarrier, element, true);
+                }
+            }
+        }
+    }
+
+    private List<Integer> findByClassOrHandle(Class<?> clazz) {
+        TypeLiteral<?> identifier = TypeLiteral.get(clazz);
+        Integer index = indexes.get(Key.get(identifier));
+
+        if (index != null) {
+            return ImmutableList.of(index);
+        }
+
+        // Without an unqualified element, use all the elements qualifying this class.
+        List<Integer> qualified = qualifiedIndexes.get(identifier);
+        if (!qualified.isEmpty()) {
+            return qualified;
+        }
+
+        // Indexed contributions are only known by the name of their class.
+        Integer contributionIndex = getUnqualifiedIndexesByName().get(clazz.getName());
+        if (contributionIndex != null) {
+            return ImmutableList.of(contributionIndex);
+        }
+
+        handleUnresolvable(new UnableToResolveClassAsBindingException(clazz));
+        return ImmutableList.of();
+    }
+
+    private List<Integer> findByNameOrHandle(String className) {
+        // Same as findByClassOrHandle, without loading the class.
+        Integer index = getUnqualifiedIndexesByName().get(className);
+
+        if (index != null) {
+            return ImmutableList.of(index);
+        }
+
+        List<Integer> qualified = getQualifiedIndexesByName().get(className);
+        if (!qualified.isEmpty()) {
+            return qualified;
+        }
+
+        handleUnresolvable(new UnableToResolveClassNameAsBindingException(className));
+        return ImmutableList.of();
+    }
+
+    private List<Integer> findByQualifiedOrHandle(Qualified qualified) {
+        Key<?> identifierKey = toIdentifierKey(qualified);
+        Integer index = indexes.get(identifierKey);
+
+        if (index != null) {
+            return ImmutableList.of(index);
+        }
+
+        // A method's name refers to all the provider methods with this name.
+        List<Integer> providerMethods = getProviderMethodIndexes().get(identifierKey);
+        if (!providerMethods.isEmpty()) {
+            return providerMethods;
+        }
+
+        handleUnresolvable(new UnableToResolveClassAsBindingException(
+                "Cannot resolve qualified identifier '" + identifierKey + "' as a binding.",
+                qualified.value()));
+        return ImmutableList.of();
+    }
+
+    private void handleUnresolvable(UnableToResolveAsBindingException exception) {
+        UnresolvableClassHandling handling = configuration.getUnresolvableClassHandling();
+
+        switch (handling) {
+            case THROW:
+                throw exception;
+            case IGNORE:
+                return;
+            default:
+                throw new UnsupportedOperationException("Unknown handling: " + handling);
+        }
+    }
+
+    private static Key<?> toIdentifierKey(Qualified qualified) {
+        if (!qualified.named().isEmpty()) {
+            return Key.get(qualified.value(), Names.named(qualified.named()));
+        } else if (qualified.annotatedWith() != Annotation.class) {
+            return Key.get(qualified.value(), qualified.annotatedWith());
+        } else {
+            return Key.get(qualified.value());
+        }
+    }
+
+    private ListMultimap<Key<?>, Integer> getProviderMethodIndexes() {
+        if (providerMethodIndexes == null) {
+            ListMultimap<Key<?>, Integer> index = ArrayListMultimap.create();
+
+            for (int i = 0; i < orderedBindings.size(); i++) {
+                Key<?> identifierKey = orderedBindings.get(i).getIdentifierKey();
+                if (!(identifierKey.getAnnotation() instanceof Named)) {
+                    continue;
+                }
+
+                String methodName = ProviderMethodIdentifiers.getMethodName(
+                        ((Named) identifierKey.getAnnotation()).value());
+                if (methodName != null) {
+                    index.put(Key.get(identifierKey.getTypeLiteral(), Names.named(methodName)), i);
+                }
+            }
+
+            providerMethodIndexes = index;
+        }
+        return providerMethodIndexes;
+    }
+
+    private Map<String, Integer> getUnqualifiedIndexesByName() {
+        if (unqualifiedIndexesByName == null) {
+            createIndexesByName();
+        }
+        return unqualifiedIndexesByName;
+    }
+
+    private ListMultimap<String, Integer> getQualifiedIndexesByName() {
+        if (qualifiedIndexesByName == null) {
+            createIndexesByName();
+        }
+        return qualifiedIndexesByName;
+    }
+
+    private void createIndexesByName() {
+        // Only the identifiers are indexed, as their classes are already loaded.
+        Map<String, Integer> unqualified = new HashMap<>();
+        ListMultimap<String, Integer> qualified = ArrayListMultimap.create();
+
+        for (int i = 0; i < orderedBindings.size(); i++) {
+            OrderedBinding orderedBinding = orderedBindings.get(i);
+            Annotation qualifier = orderedBinding.getIdentifierKey().getAnnotation();
+            if (qualifier instanceof IndexedContribution) {
+                // Indexed contributions stand for their class, which isn't loaded.
+                putUnqualifiedName(unqualified, ((IndexedContribution) qualifier).value(), i);
+                continue;
+            }
+
+            TypeLiteral<?> identifier = orderedBinding.getIdentifier();
+            // Like classes, names don't refer to parameterized types.
+            if (!(identifier.getType() instanceof Class<?>)) {
+                continue;
+            }
+
+            String name = identifier.getRawType().getName();
+            if (orderedBinding.isQualified()) {
+                qualified.put(name, i);
+            } else {
+                putUnqualifiedName(unqualified, name, i);
+            }
+        }
+
+        this.unqualifiedIndexesByName = unqualified;
+        this.qualifiedIndexesByName = qualified;
+    }
+
+    private static void putUnqualifiedName(Map<String, Integer> unqualified, String name, int index) {
+        if (unqualified.putIfAbsent(name, index) != null) {
+            throw new DuplicateIdentifiersException(
+                    "Multiple elements have the same identifier: " + name + " (an indexed contribution and " +
+                    "a bound class, or multiple indexed contributions).");
+        }
+    }
+
+    private static boolean isIndexedContribution(OrderedBinding orderedBinding) {
+        return orderedBinding.getIdentifierKey().getAnnotation() instanceof IndexedContribution;
+    }
+
+    /**
+     * Gets the elements whose identifier is assignable to a type, by type, in their initial order.
+     * <p>
+     * The index is built once, by walking the supertypes of every identifier, so finding the subtypes
+     * of a type doesn't compare it with every element. Indexed contributions are not indexed, as their class,
+     * and then its supertypes, isn't loaded.
+     */
+    private ListMultimap<Class<?>, Integer> getSubtypeIndex() {
+        if (subtypeIndex == null) {
+            ListMultimap<Class<?>, Integer> index = ArrayListMultimap.create();
+            Map<Class<?>, Set<Class<?>>> supertypeCache = new HashMap<>();
+
+            for (int i = 0; i < orderedBindings.size(); i++) {
+                if (isIndexedContribution(orderedBindings.get(i))) {
+                    continue;
+                }
+
+                Class<?> identifierClass = orderedBindings.get(i).getIdentifier().getRawType();
+                for (Class<?> supertype : findSupertypes(identifierClass, supertypeCache)) {
+                    index.put(supertype, i);
+                }
+            }
+            this.subtypeIndex = index;
+        }
+        return subtypeIndex;
+    }
+
+    private static Set<Class<?>> findSupertypes(Class<?> clazz, Map<Class<?>, Set<Class<?>>> cache) {
+        Set<Class<?>> supertypes = cache.get(clazz);
+        if (supertypes != null) {
+            return supertypes;
+        }
+
+        // Identifiers often share supertypes, whose own supertypes are only walked once.
+        supertypes = new LinkedHashSet<>();
+        supertypes.add(clazz);
+        if (clazz.getSuperclass() != null) {
+            supertypes.addAll(findSupertypes(clazz.getSuperclass(), cache));
+        }
+        for (Class<?> superinterface : clazz.getInterfaces()) {
+            supertypes.addAll(findSupertypes(superinterface, cache));
+        }
+        cache.put(clazz, supertypes);
+        return supertypes;
+    }
+
+    /**
+     * A sorted problem, along with the order of its elements and barriers.
+     */
+    static final class Result {
+        final SortingProblem problem;
+        final int[] order;
+
+        Result(SortingProblem problem, int[] order) {
+            this.problem = problem;
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.inject.BindingAnnotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Qualifies the key an element of an {@link OrderedMultibinder} with a qualified identifier is bound to,
+ * so it doesn't collide with the elements of other sets, or with other bindings of the identifier key.
+ */
+@BindingAnnotation
+@Target({})
+@Retention(RetentionPolicy.RUNTIME)
+@interface OrderedElement {
+    /**
+     * The set key of the multibinder, as a string.
+     *
+     * @return the set key of the multibinder
+     */
+    String setKey();
+
+    /**
+     * The qualifier of the identifier of the element, as a string.
+     *
+     * @return the qualifier of the identifier
+     */
+    String identifier();
+}
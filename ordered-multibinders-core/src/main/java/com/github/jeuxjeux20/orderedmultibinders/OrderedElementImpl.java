@@ -0,0 +1,54 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import java.lang.annotation.Annotation;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An implementation of @{@link OrderedElement} created at runtime,
+ * following the {@link Annotation} contract.
+ */
+final class OrderedElementImpl implements OrderedElement {
+    private final String setKey;
+    private final String identifier;
+
+    OrderedElementImpl(String setKey, String identifier) {
+        this.setKey = requireNonNull(setKey, "setKey is null");
+        this.identifier = requireNonNull(identifier, "identifier is null");
+    }
+
+    @Override
+    public String setKey() {
+        return setKey;
+    }
+
+    @Override
+    public String identifier() {
+        return identifier;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotationType() {
+        return OrderedElement.class;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof OrderedElement)) return false;
+        OrderedElement that = (OrderedElement) o;
+        return setKey.equals(that.setKey()) && identifier.equals(that.identifier());
+    }
+
+    @Override
+    public int hashCode() {
+        // As specified by Annotation.hashCode().
+        return (127 * "setKey".hashCode() ^ setKey.hashCode()) +
+               (127 * "identifier".hashCode() ^ identifier.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return "@" + OrderedElement.class.getName() + "(setKey=" + setKey + ", identifier=" + identifier + ")";
+    }
+}
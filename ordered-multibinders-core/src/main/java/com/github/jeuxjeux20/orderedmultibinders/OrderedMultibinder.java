@@ -0,0 +1,543 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.inject.Binder;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.TypeLiteral;
+import com.google.inject.binder.LinkedBindingBuilder;
+import com.google.inject.binder.ScopedBindingBuilder;
+import com.google.inject.internal.UniqueAnnotations;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Names;
+import com.google.inject.util.Types;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link Multibinder} whose elements are ordered using values given at binding time,
+ * instead of @{@link Order} annotations, so lambdas and method references can be ordered:
+ * <pre>
+ * OrderedMultibinder.newSetBinder(binder(), Handler.class)
+ *         .addBinding()
+ *         .before(SomeHandler.class)
+ *         .position(5)
+ *         .toInstance(event -&gt; log(event));
+ * </pre>
+ * Every element is linked to its own key of the multibinder's element type, qualified with an annotation
+ * private to this library, so it never collides with the elements of other sets or with other bindings.
+ * An element named using {@link ElementBuilder#named(String)} is identified by the key of the element type
+ * qualified with @{@link com.google.inject.name.Named}, which other elements reference using
+ * {@link ElementBuilder#before(Key)} and {@link ElementBuilder#after(Key)}, or @{@link Qualified}
+ * in an @{@link Order} annotation. Unnamed elements bound to a class using {@link ElementBuilder#to(Class)}
+ * are identified by this class instead.
+ * <p>
+ * The ordering values are recorded in the module, next to the element, and are used as is when the module
+ * is sorted using {@link OrderedMultibinders}: annotations on the element's class are ignored.
+ * A module using an ordered multibinder must be sorted: creating an injector with a module
+ * that hasn't been sorted fails, instead of silently ignoring the ordering values.
+ * <p>
+ * Elements can also be grouped in phases, whose order is declared once using {@link #phaseOrder(Class[])}:
+ * <pre>
+ * OrderedMultibinder&lt;Handler&gt; multibinder = OrderedMultibinder.newSetBinder(binder(), Handler.class)
+ *         .phaseOrder(Decoding.class, Validation.class, Handling.class);
+ * multibinder.addBinding().phase(Validation.class).to(SizeValidator.class);
+ * </pre>
+ *
+ * @param <T> the type of elements
+ */
+public final class OrderedMultibinder<T> {
+    private final Binder binder;
+    private final TypeLiteral<T> elementType;
+    private final Multibinder<T> multibinder;
+    private final Key<Set<T>> setKey;
+    private final @Nullable Annotation annotation;
+
+    @SuppressWarnings("unchecked")
+    private OrderedMultibinder(Binder binder, TypeLiteral<T> elementType, Multibinder<T> multibinder,
+                               @Nullable Annotation annotation) {
+        this.binder = binder.skipSources(OrderedMultibinder.class, ElementBuilder.class);
+        this.elementType = elementType;
+        this.multibinder = multibinder;
+
+        TypeLiteral<Set<T>> setType = (TypeLiteral<Set<T>>) TypeLiteral.get(Types.setOf(elementType.getType()));
+        this.setKey = annotation != null ? Key.get(setType, annotation) : Key.get(setType);
+        this.annotation = annotation;
+    }
+
+    /**
+     * Returns a new ordered multibinder that collects instances of the specified type in a {@link java.util.Set}
+     * that is itself bound with no binding annotation.
+     *
+     * @param binder the binder
+     * @param type   the type of elements
+     * @param <T>    the type of elements
+     * @return a new ordered multibinder
+     */
+    public static <T> OrderedMultibinder<T> newSetBinder(Binder binder, TypeLiteral<T> type) {
+        return new OrderedMultibinder<>(binder, type, Multibinder.newSetBinder(binder, type), null);
+    }
+
+    /**
+     * Returns a new ordered multibinder that collects instances of the specified type in a {@link java.util.Set}
+     * that is itself bound with no binding annotation.
+     *
+     * @param binder the binder
+     * @param type   the type of elements
+     * @param <T>    the type of elements
+     * @return a new ordered multibinder
+     */
+    public static <T> OrderedMultibinder<T> newSetBinder(Binder binder, Class<T> type) {
+        return newSetBinder(binder, TypeLiteral.get(type));
+    }
+
+    /**
+     * Returns a new ordered multibinder that collects instances of the specified type in a {@link java.util.Set}
+     * that is itself bound with the specified binding annotation.
+     *
+     * @param binder     the binder
+     * @param type       the type of elements
+     * @param annotation the binding annotation of the set
+     * @param <T>        the type of elements
+     * @return a new ordered multibinder
+     */
+    public static <T> OrderedMultibinder<T> newSetBinder(Binder binder, TypeLiteral<T> type, Annotation annotation) {
+        return new OrderedMultibinder<>(binder, type, Multibinder.newSetBinder(binder, type, annotation),
+                annotation);
+    }
+
+    /**
+     * Returns a new ordered multibinder that collects instances of the specified type in a {@link java.util.Set}
+     * that is itself bound with the specified binding annotation.
+     *
+     * @param binder     the binder
+     * @param type       the type of elements
+     * @param annotation the binding annotation of the set
+     * @param <T>        the type of elements
+     * @return a new ordered multibinder
+     */
+    public static <T> OrderedMultibinder<T> newSetBinder(Binder binder, Class<T> type, Annotation annotation) {
+        return newSetBinder(binder, TypeLiteral.get(type), annotation);
+    }
+
+    /**
+     * Gets the underlying multibinder.
+     *
+     * @return the underlying multibinder
+     */
+    public Multibinder<T> getMultibinder() {
+        return multibinder;
+    }
+
+    /**
+     * Declares that the specified phases are ordered as given: every element in a phase precedes
+     * every element in the next phases. This applies to all the elements of the set,
+     * including those bound using a {@link Multibinder}, with an @{@link Order} annotation.
+     * <p>
+     * Multiple orders can be declared, and are all applied.
+     *
+     * @param phases the classes identifying the phases, in order
+     * @return the same multibinder
+     * @see Order#phase()
+     */
+    @CanIgnoreReturnValue
+    public OrderedMultibinder<T> phaseOrder(Class<?>... phases) {
+        String[] phaseNames = new String[phases.length];
+        for (int i = 0; i < phases.length; i++) {
+            phaseNames[i] = requireNonNull(phases[i], "phase is null").getName();
+        }
+        return phaseOrder(phaseNames);
+    }
+
+    /**
+     * Declares that the phases with the specified names are ordered as given: every element in a phase precedes
+     * every element in the next phases.
+     *
+     * @param phaseNames the names of the phases, in order
+     * @return the same multibinder
+     * @see #phaseOrder(Class[])
+     * @see Order#phaseName()
+     */
+    @CanIgnoreReturnValue
+    public OrderedMultibinder<T> phaseOrder(String... phaseNames) {
+        for (String phaseName : phaseNames) {
+            requireNonNull(phaseName, "phaseName is null");
+        }
+
+        binder.requestInjection(new PhaseMetadata(setKey, Arrays.asList(phaseNames)));
+        return this;
+    }
+
+    /**
+     * Adds the contributions listed in the {@code META-INF/ordered-multibinders/<binary name of T>} index files
+     * of the specified class loader, with their ordering values, without loading their class.
+     * <p>
+     * Every contribution is identified by its class name, which other elements refer to using
+     * {@link Order#beforeNames()}, {@link Order#afterNames()}, or, when they are loaded,
+     * {@link Order#before()} and {@link Order#after()}. Its class is only loaded and initialized using
+     * the class loader when its element is first provisioned, and then instantiated using the injector,
+     * so contributions that are never used are never loaded. As their class isn't loaded, contributions
+     * are not matched by {@link Order#beforeSubtypesOf()} and {@link Order#afterSubtypesOf()}, and a contribution
+     * with the same class as another element throws a {@link DuplicateIdentifiersException} when sorting.
+     * <p>
+     * A class already contributed to this set, for example by another class loader sharing the same parent,
+     * is skipped: only its first contribution is added.
+     * <p>
+     * An index file lists a contribution per line: the binary name of its class, followed by its
+     * {@code before}, {@code after}, {@code phase} and {@code position} values, separated by whitespace:
+     * <pre>
+     * com.example.plugin.DecodingHandler phase=decoding before=com.example.plugin.LoggingHandler
+     * com.example.plugin.LoggingHandler after=com.example.core.SecurityHandler,com.example.core.AuditHandler position=5
+     * </pre>
+     *
+     * @param classLoader the class loader finding the index files and loading the contributions
+     * @return the same multibinder
+     * @throws java.io.UncheckedIOException when an index file cannot be read
+     * @throws IllegalArgumentException     when an index file is malformed
+     */
+    @CanIgnoreReturnValue
+    public OrderedMultibinder<T> addIndexedContributions(ClassLoader classLoader) {
+        requireNonNull(classLoader, "classLoader is null");
+
+        for (ContributionIndex.Entry entry : ContributionIndex.load(elementType.getRawType(), classLoader)) {
+            // Installed as a module, so Guice only adds a class contributed many times to this set once.
+            binder.install(new ContributionModule<>(elementType, setKey, annotation, entry, classLoader));
+        }
+        return this;
+    }
+
+    private static final class ContributionModule<T> implements Module {
+        private final TypeLiteral<T> elementType;
+        private final Key<Set<T>> setKey;
+        private final @Nullable Annotation annotation;
+        private final ContributionIndex.Entry entry;
+        private final ClassLoader classLoader;
+
+        ContributionModule(TypeLiteral<T> elementType, Key<Set<T>> setKey, @Nullable Annotation annotation,
+                           ContributionIndex.Entry entry, ClassLoader classLoader) {
+            this.elementType = elementType;
+            this.setKey = setKey;
+            this.annotation = annotation;
+            this.entry = entry;
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public void configure(Binder binder) {
+            OrderedMultibinder<T> orderedMultibinder = annotation != null ?
+                    newSetBinder(binder, elementType, annotation) :
+                    newSetBinder(binder, elementType);
+
+            ElementBuilder<T> elementBuilder = orderedMultibinder.addBinding()
+                    .beforeNames(entry.beforeNames.toArray(new String[0]))
+                    .afterNames(entry.afterNames.toArray(new String[0]))
+                    .phase(entry.phaseName)
+                    .position(entry.position);
+            elementBuilder.qualifier = new IndexedContributionImpl(entry.className);
+
+            elementBuilder.toProvider(new LazyContributionProvider<>(elementType, entry.className, classLoader));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ContributionModule)) return false;
+            ContributionModule<?> that = (ContributionModule<?>) o;
+            return setKey.equals(that.setKey) && entry.className.equals(that.entry.className);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(setKey, entry.className);
+        }
+    }
+
+    /**
+     * Returns a builder adding a new element in the set, with its ordering values.
+     *
+     * @return a builder adding a new element
+     */
+    public ElementBuilder<T> addBinding() {
+        return new ElementBuilder<>(this);
+    }
+
+    /**
+     * Adds a new element in the set, with its ordering values, using the builder methods
+     * and then one of the {@code to} methods.
+     *
+     * @param <T> the type of elements
+     */
+    public static final class ElementBuilder<T> {
+        private final OrderedMultibinder<T> orderedMultibinder;
+        private final List<Class<?>> before = new ArrayList<>();
+        private final List<Class<?>> after = new ArrayList<>();
+        private final List<String> beforeNames = new ArrayList<>();
+        private final List<String> afterNames = new ArrayList<>();
+        private final List<Qualified> beforeQualified = new ArrayList<>();
+        private final List<Qualified> afterQualified = new ArrayList<>();
+        private final List<Class<?>> beforeSubtypesOf = new ArrayList<>();
+        private final List<Class<?>> afterSubtypesOf = new ArrayList<>();
+        private Class<?> phase = void.class;
+        private String phaseName = "";
+        private int position;
+        private @Nullable Annotation qualifier;
+
+        private ElementBuilder(OrderedMultibinder<T> orderedMultibinder) {
+            this.orderedMultibinder = orderedMultibinder;
+        }
+
+        /**
+         * Identifies the element with the specified name, so it can be referenced by other elements using
+         * {@code Key.get(ElementType.class, Names.named(name))}. This key only identifies the element:
+         * the element isn't bound to it, so elements of other sets and other bindings can use the same key.
+         *
+         * @param name the name of the element
+         * @return the same builder
+         */
+        @CanIgnoreReturnValue
+        public ElementBuilder<T> named(String name) {
+            this.qualifier = Names.named(requireNonNull(name, "name is null"));
+            return this;
+        }
+
+        /**
+         * Adds classes that this element should precede.
+         *
+         * @param classes the classes that this element should precede
+         * @return the same builder
+         * @see Order#before()
+         */
+        @CanIgnoreReturnValue
+        public ElementBuilder<T> before(Class<?>... classes) {
+            addAll(before, classes);
+            return this;
+        }
+
+        /**
+         * Adds classes that this element should succeed.
+         *
+         * @param classes the classes that this element should succeed
+         * @return the same builder
+         * @see Order#after()
+         */
+        @CanIgnoreReturnValue
+        public ElementBuilder<T> after(Class<?>... classes) {
+            addAll(after, classes);
+            return this;
+        }
+
+        /**
+         * Adds the binary names of classes that this element should precede, without loading them.
+         *
+         * @param classNames the names of the classes that this element should precede
+         * @return the same builder
+         * @see Order#beforeNames()
+         */
+        @CanIgnoreReturnValue
+        public ElementBuilder<T> beforeNames(String... classNames) {
+            addAllNames(beforeNames, classNames);
+            return this;
+        }
+
+        /**
+         * Adds the binary names of classes that this element should succeed, without loading them.
+         *
+         * @param classNames the names of the classes that this element should succeed
+         * @return the same builder
+         * @see Order#afterNames()
+         */
+        @CanIgnoreReturnValue
+        public ElementBuilder<T> afterNames(String... classNames) {
+            addAllNames(afterNames, classNames);
+            return this;
+        }
+
+        /**
+         * Adds a qualified identifier that this element should precede.
+         *
+         * @param identifierKey the identifier key, qualified with @{@link com.google.inject.name.Named}
+         *                      or an annotation without attributes
+         * @return the same builder
+         * @throws IllegalArgumentException when the key's annotation can't be referenced
+         * @see Order#beforeQualified()
+         */
+        @CanIgnoreReturnValue
+        public ElementBuilder<T> before(Key<?> identifierKey) {
+            beforeQualified.add(QualifiedImpl.of(identifierKey));
+            return this;
+        }
+
+        /**
+         * Adds a qualified identifier that this element should succeed.
+         *
+         * @param identifierKey the identifier key, qualified with @{@link com.google.inject.name.Named}
+         *                      or an annotation without attributes
+         * @return the same builder
+         * @throws IllegalArgumentException when the key's annotation can't be referenced
+         * @see Order#afterQualified()
+         */
+        @CanIgnoreReturnValue
+        public ElementBuilder<T> after(Key<?> identifierKey) {
+            afterQualified.add(QualifiedImpl.of(identifierKey));
+            return this;
+        }
+
+        /**
+         * Adds supertypes whose bound subtypes this element should precede.
+         *
+         * @param supertypes the supertypes whose subtypes this element should precede
+         * @return the same builder
+         * @see Order#beforeSubtypesOf()
+         */
+        @CanIgnoreReturnValue
+        public ElementBuilder<T> beforeSubtypesOf(Class<?>... supertypes) {
+            addAll(beforeSubtypesOf, supertypes);
+            return this;
+        }
+
+        /**
+         * Adds supertypes whose bound subtypes this element should succeed.
+         *
+         * @param supertypes the supertypes whose subtypes this element should succeed
+         * @return the same builder
+         * @see Order#afterSubtypesOf()
+         */
+        @CanIgnoreReturnValue
+        public ElementBuilder<T> afterSubtypesOf(Class<?>... supertypes) {
+            addAll(afterSubtypesOf, supertypes);
+            return this;
+        }
+
+        /**
+         * Puts the element in the phase identified by the specified class.
+         *
+         * @param phase the class identifying the phase
+         * @return the same builder
+         * @see Order#phase()
+         */
+        @CanIgnoreReturnValue
+        public ElementBuilder<T> phase(Class<?> phase) {
+            this.phase = requireNonNull(phase, "phase is null");
+            this.phaseName = "";
+            return this;
+        }
+
+        /**
+         * Puts the element in the phase with the specified name.
+         *
+         * @param phaseName the name of the phase
+         * @return the same builder
+         * @see Order#phaseName()
+         */
+        @CanIgnoreReturnValue
+        public ElementBuilder<T> phase(String phaseName) {
+            this.phaseName = requireNonNull(phaseName, "phaseName is null");
+            this.phase = void.class;
+            return this;
+        }
+
+        /**
+         * Sets the position of the element when its exact position cannot be determined.
+         *
+         * @param position the position of the element
+         * @return the same builder
+         * @see Order#position()
+         */
+        @CanIgnoreReturnValue
+        public ElementBuilder<T> position(int position) {
+            this.position = position;
+            return this;
+        }
+
+        /**
+         * Adds the specified instance in the set.
+         *
+         * @param instance the instance
+         */
+        public void toInstance(T instance) {
+            bindElement(null).toInstance(instance);
+        }
+
+        /**
+         * Adds an instance of the specified class in the set.
+         * <p>
+         * Unless it is {@linkplain #named(String) named}, the element is identified by the specified class,
+         * so other elements refer to it using {@link Order#before()} and {@link Order#after()}.
+         *
+         * @param implementation the class of the instance
+         * @return a builder to set the scope of the binding
+         */
+        public ScopedBindingBuilder to(Class<? extends T> implementation) {
+            return bindElement(implementation).to(implementation);
+        }
+
+        /**
+         * Adds the instance bound to the specified key in the set.
+         *
+         * @param targetKey the key of the instance
+         * @return a builder to set the scope of the binding
+         */
+        public ScopedBindingBuilder to(Key<? extends T> targetKey) {
+            return bindElement(null).to(targetKey);
+        }
+
+        /**
+         * Adds the instance given by the specified provider in the set.
+         *
+         * @param provider the provider of the instance
+         * @return a builder to set the scope of the binding
+         */
+        public ScopedBindingBuilder toProvider(javax.inject.Provider<? extends T> provider) {
+            return bindElement(null).toProvider(provider);
+        }
+
+        private LinkedBindingBuilder<T> bindElement(@Nullable Class<? extends T> implementation) {
+            Binder binder = orderedMultibinder.binder;
+            TypeLiteral<T> elementType = orderedMultibinder.elementType;
+            Key<T> elementKey;
+            Key<?> identifierKey;
+            if (qualifier != null) {
+                // The identifier key is only used for ordering, the element is bound to a key of its set.
+                identifierKey = Key.get(elementType, qualifier);
+                elementKey = Key.get(elementType,
+                        new OrderedElementImpl(orderedMultibinder.setKey.toString(), qualifier.toString()));
+            } else {
+                elementKey = Key.get(elementType, UniqueAnnotations.create());
+                // Unnamed instances of a class are identified like the class bound using a Multibinder.
+                identifierKey = implementation != null ? Key.get(implementation) : elementKey;
+            }
+
+            Order order = new OrderImpl(
+                    before.toArray(new Class<?>[0]), after.toArray(new Class<?>[0]),
+                    beforeNames.toArray(new String[0]), afterNames.toArray(new String[0]),
+                    beforeQualified.toArray(new Qualified[0]), afterQualified.toArray(new Qualified[0]),
+                    beforeSubtypesOf.toArray(new Class<?>[0]), afterSubtypesOf.toArray(new Class<?>[0]),
+                    phase, phaseName, position);
+
+            binder.requestInjection(new OrderMetadata(orderedMultibinder.setKey, elementKey, identifierKey, order));
+            orderedMultibinder.multibinder.addBinding().to(elementKey);
+
+            return binder.bind(elementKey);
+        }
+
+        private static void addAll(List<Class<?>> list, Class<?>[] classes) {
+            for (Class<?> clazz : classes) {
+                list.add(requireNonNull(clazz, "class is null"));
+            }
+        }
+
+        private static void addAllNames(List<String> list, String[] classNames) {
+            for (String className : classNames) {
+                list.add(requireNonNull(className, "className is null"));
+            }
+        }
+    }
+}
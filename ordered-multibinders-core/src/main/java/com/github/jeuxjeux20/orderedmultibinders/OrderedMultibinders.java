@@ -1,10 +1,14 @@
 package com.github.jeuxjeux20.orderedmultibinders;
 
 import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Module;
 import com.google.inject.spi.*;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Sorts elements of {@link Module}s' multibinders according to their @{@link Order} annotation.
@@ -55,7 +59,8 @@ import java.util.Arrays;
  *         </tr>
  *         <tr>
  *             <td>{@link ProviderInstanceBinding}</td>
- *             <td>Its {@linkplain ProviderInstanceBinding#getUserSuppliedProvider() provider instance}'s class</td>
+ *             <td>Its {@linkplain ProviderInstanceBinding#getUserSuppliedProvider() provider instance}'s class,
+ *             or, for provider methods, the method's return type</td>
  *         </tr>
  *         <tr>
  *             <td>{@link LinkedKeyBinding}</td>
@@ -63,7 +68,25 @@ import java.util.Arrays;
  *         </tr>
  *     </tbody>
  * </table>
- * If multiple bindings have the same identifier, a {@link DuplicateIdentifiersException} is thrown.
+ * When a {@link LinkedKeyBinding}'s linked key has a binding annotation, the identifier is qualified
+ * with this annotation, so a class can be bound multiple times using different annotations.
+ * Qualified identifiers are referred to using {@link Order#beforeQualified()} and {@link Order#afterQualified()},
+ * and a class in {@link Order#before()} or {@link Order#after()} refers to all the qualified identifiers
+ * of this class, unless it is also bound without qualifier.
+ * <p>
+ * Provider methods, such as methods annotated with
+ * {@link com.google.inject.multibindings.ProvidesIntoSet @ProvidesIntoSet}, are qualified with
+ * {@link com.google.inject.name.Named @Named} using the method's declaring class and signature,
+ * such as {@code com.example.HandlerModule#loggingHandler()}, and use the @{@link Order}
+ * and @{@link IdentifiedAs} annotations present on the method, if any. A @{@link Qualified} identifier
+ * named with only the method's name, such as {@code loggingHandler}, refers to all the provider methods
+ * with this name.
+ * <p>
+ * If multiple bindings have the same identifier and qualifier, a {@link DuplicateIdentifiersException} is thrown.
+ * <h2>Interceptors</h2>
+ * Interceptors bound using {@link com.google.inject.Binder#bindInterceptor} are also sorted according to
+ * the @{@link Order} annotation on their class, and are identified like an {@link InstanceBinding}.
+ * Interceptors of the same class keep their registration order.
  */
 public final class OrderedMultibinders {
     private OrderedMultibinders() {
@@ -118,4 +141,56 @@ public final class OrderedMultibinders {
     public static Module sort(SortingConfiguration configuration, Module... modules) {
         return sort(configuration, Arrays.asList(modules));
     }
+
+    /**
+     * Sorts elements of the given {@link Module}s' multibinders asynchronously, using the given configuration
+     * and executor.
+     * <p>
+     * The modules are recorded in a first task, and then every multibinder is sorted in its own task.
+     * Exceptions thrown while sorting, such as {@link CycleDetectedException}, complete the future exceptionally.
+     * <p>
+     * More info about the sorting behavior is available in the {@link OrderedMultibinders} class.
+     *
+     * @param configuration the configuration to use
+     * @param executor      the executor running the tasks
+     * @param modules       the modules to sort
+     * @return a future completed with the module with sorted multibinder elements
+     */
+    public static CompletableFuture<Module> sortAsync(SortingConfiguration configuration, Executor executor,
+                                                      Iterable<? extends Module> modules) {
+        return new ModuleMultibinderSorter(modules, configuration).sortAsync(executor);
+    }
+
+    /**
+     * Sorts elements of the given {@link Module}s' multibinders asynchronously, using the given configuration
+     * and executor.
+     * <p>
+     * More info about the sorting behavior is available in the {@link OrderedMultibinders} class.
+     *
+     * @param configuration the configuration to use
+     * @param executor      the executor running the tasks
+     * @param modules       the modules to sort
+     * @return a future completed with the module with sorted multibinder elements
+     * @see #sortAsync(SortingConfiguration, Executor, Iterable)
+     */
+    public static CompletableFuture<Module> sortAsync(SortingConfiguration configuration, Executor executor,
+                                                      Module... modules) {
+        return sortAsync(configuration, executor, Arrays.asList(modules));
+    }
+
+    /**
+     * Sorts every set of modules concurrently using the given configuration, sharing the orders
+     * of multibinders with the same shape between the sets.
+     * <p>
+     * More info about the sorting behavior is available in the {@link OrderedMultibinders} class.
+     *
+     * @param configuration the configuration to use
+     * @param moduleSets    the sets of modules to sort
+     * @return the sorted module of every set of modules, in the same order
+     * @see SortSession
+     */
+    public static ImmutableList<Module> sortAll(SortingConfiguration configuration,
+                                                Collection<? extends Iterable<? extends Module>> moduleSets) {
+        return SortSession.create(configuration).sortAll(moduleSets);
+    }
 }
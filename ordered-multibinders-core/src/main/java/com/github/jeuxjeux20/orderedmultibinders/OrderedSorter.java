@@ -0,0 +1,166 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBinding;
+import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBindingTransformer;
+import com.github.jeuxjeux20.orderedmultibinders.config.DefaultPositionProvider;
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.TypeLiteral;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Sorts lists of objects or classes according to their @{@link Order} annotation, without using Guice,
+ * such as the services found by a {@link java.util.ServiceLoader}, or handlers created by hand.
+ * <p>
+ * Elements are identified like the bindings of a multibinder, using their {@link OrderedBindingTransformer}s,
+ * so the @{@link IdentifiedAs} and @{@link RedirectedByGenericParameter} annotations apply,
+ * and are positioned using the {@link SortingConfiguration}'s {@link DefaultPositionProvider}.
+ * Every element must have a different identifier, as an object's class is its identifier.
+ * <p>
+ * The ordered binding of every class is cached using a {@link ClassValue}, which doesn't prevent the class
+ * from being unloaded, and elements without constraints are returned in their order without being sorted,
+ * so sorting small lists is cheap. Parameterized types are not cached. This class is thread-safe.
+ */
+public final class OrderedSorter {
+    private static final OrderedSorter DEFAULT = create(SortingConfiguration.DEFAULT);
+
+    private final SortingConfiguration configuration;
+    private final ImmutableList<OrderedBindingTransformer> orderedBindingTransformers;
+    private final ClassValue<OrderedBinding> classOrderedBindings = new ClassValue<OrderedBinding>() {
+        @Override
+        protected OrderedBinding computeValue(Class<?> type) {
+            return createOrderedBinding(type);
+        }
+    };
+
+    private OrderedSorter(SortingConfiguration configuration,
+                          ImmutableList<OrderedBindingTransformer> orderedBindingTransformers) {
+        this.configuration = configuration;
+        this.orderedBindingTransformers = orderedBindingTransformers;
+    }
+
+    /**
+     * Returns a sorter using the default configuration and {@link OrderedBindingTransformer#ANNOTATIONS}.
+     *
+     * @return the default sorter
+     */
+    public static OrderedSorter create() {
+        return DEFAULT;
+    }
+
+    /**
+     * Creates a new sorter using the specified configuration and {@link OrderedBindingTransformer#ANNOTATIONS}.
+     *
+     * @param configuration the configuration to use
+     * @return a new sorter
+     */
+    public static OrderedSorter create(SortingConfiguration configuration) {
+        return create(configuration, ImmutableList.of(OrderedBindingTransformer.ANNOTATIONS));
+    }
+
+    /**
+     * Creates a new sorter using the specified configuration, and the specified transformers
+     * to identify the elements.
+     *
+     * @param configuration              the configuration to use
+     * @param orderedBindingTransformers the transformers applied to the ordered binding of every element
+     * @return a new sorter
+     */
+    public static OrderedSorter create(SortingConfiguration configuration,
+                                       Iterable<? extends OrderedBindingTransformer> orderedBindingTransformers) {
+        requireNonNull(configuration, "configuration is null");
+        requireNonNull(orderedBindingTransformers, "orderedBindingTransformers is null");
+
+        return new OrderedSorter(configuration, ImmutableList.copyOf(orderedBindingTransformers));
+    }
+
+    /**
+     * Sorts the specified objects, identified by their class.
+     *
+     * @param elements the objects to sort
+     * @param <T>      the type of the objects
+     * @return the sorted objects
+     * @throws DuplicateIdentifiersException     when multiple objects have the same identifier
+     * @throws CycleDetectedException            when the constraints have a cycle
+     * @throws UnableToResolveAsBindingException when a constraint cannot be resolved,
+     *                                           and the configuration doesn't ignore it
+     */
+    public <T> ImmutableList<T> sort(List<? extends T> elements) {
+        return sort(elements, Object::getClass);
+    }
+
+    /**
+     * Sorts the specified classes, identified by themselves.
+     *
+     * @param classes the classes to sort
+     * @return the sorted classes
+     * @throws DuplicateIdentifiersException     when multiple classes have the same identifier
+     * @throws CycleDetectedException            when the constraints have a cycle
+     * @throws UnableToResolveAsBindingException when a constraint cannot be resolved,
+     *                                           and the configuration doesn't ignore it
+     */
+    public ImmutableList<Class<?>> sortClasses(List<? extends Class<?>> classes) {
+        return sort(classes, Function.identity());
+    }
+
+    /**
+     * Sorts the specified elements, identified by the type given by the specified function,
+     * which can be a parameterized type, such as the type of a generic element.
+     *
+     * @param elements   the elements to sort
+     * @param identifier the function giving the type identifying every element
+     * @param <T>        the type of the elements
+     * @return the sorted elements
+     * @throws DuplicateIdentifiersException     when multiple elements have the same identifier
+     * @throws CycleDetectedException            when the constraints have a cycle
+     * @throws UnableToResolveAsBindingException when a constraint cannot be resolved,
+     *                                           and the configuration doesn't ignore it
+     */
+    public <T> ImmutableList<T> sort(List<? extends T> elements, Function<? super T, ? extends Type> identifier) {
+        requireNonNull(elements, "elements is null");
+        requireNonNull(identifier, "identifier is null");
+
+        if (elements.isEmpty()) {
+            return ImmutableList.of();
+        }
+
+        List<OrderedBinding> elementOrderedBindings = new ArrayList<>(elements.size());
+        for (T element : elements) {
+            elementOrderedBindings.add(getOrderedBinding(identifier.apply(element)));
+        }
+
+        OrderedBindingSorter sorter = new OrderedBindingSorter(elementOrderedBindings, configuration, ImmutableList.of());
+        if (sorter.isTriviallySorted()) {
+            return ImmutableList.copyOf(elements);
+        }
+
+        OrderedBindingSorter.Result sorted = sorter.sort();
+
+        ImmutableList.Builder<T> sortedElements = ImmutableList.builderWithExpectedSize(elements.size());
+        for (int index : sorted.order) {
+            sortedElements.add(elements.get(index));
+        }
+        return sortedElements.build();
+    }
+
+    private OrderedBinding getOrderedBinding(Type type) {
+        if (type instanceof Class<?>) {
+            return classOrderedBindings.get((Class<?>) type);
+        }
+        return createOrderedBinding(type);
+    }
+
+    private OrderedBinding createOrderedBinding(Type type) {
+        OrderedBinding orderedBinding = OrderedBinding.unbound(TypeLiteral.get(type));
+        for (OrderedBindingTransformer orderedBindingTransformer : orderedBindingTransformers) {
+            orderedBinding = orderedBindingTransformer.transform(orderedBinding);
+        }
+        return orderedBinding;
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.inject.Key;
+import com.google.inject.spi.Element;
+
+import java.util.List;
+
+/**
+ * The order of phases declared for a multibinder using {@link OrderedMultibinder#phaseOrder},
+ * recorded at binding time, and then read by the {@link MultibinderSorter}.
+ */
+final class PhaseMetadata extends SortingMetadata {
+    private final ImmutableList<String> phases;
+
+    PhaseMetadata(Key<?> setKey, List<String> phases) {
+        this(setKey, ImmutableList.copyOf(phases), false);
+    }
+
+    private PhaseMetadata(Key<?> setKey, ImmutableList<String> phases, boolean sorted) {
+        super(setKey, sorted);
+        this.phases = phases;
+    }
+
+    @Override
+    PhaseMetadata toSorted() {
+        return new PhaseMetadata(getSetKey(), phases, true);
+    }
+
+    @Override
+    String describe() {
+        return "The phase order " + phases + " of the OrderedMultibinder " + getSetKey();
+    }
+
+    /**
+     * Finds the phase orders declared for every multibinder, by set key, in the order they are declared.
+     *
+     * @param elements the elements to search in
+     * @return the phase orders of every multibinder, by set key
+     */
+    static ImmutableListMultimap<Key<?>, ImmutableList<String>> findAll(List<? extends Element> elements) {
+        ImmutableListMultimap.Builder<Key<?>, ImmutableList<String>> phaseOrders = ImmutableListMultimap.builder();
+        for (PhaseMetadata metadata : findAll(elements, PhaseMetadata.class)) {
+            phaseOrders.put(metadata.getSetKey(), metadata.phases);
+        }
+        return phaseOrders.build();
+    }
+}
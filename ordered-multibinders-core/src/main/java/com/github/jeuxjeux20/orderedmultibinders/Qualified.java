@@ -0,0 +1,43 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.inject.name.Named;
+
+import java.lang.annotation.*;
+
+/**
+ * References an identifier qualified with a binding annotation, in an @{@link Order} annotation.
+ * <p>
+ * For example, a binding linked to {@code Key.get(Handler.class, Names.named("first"))}
+ * is referenced using {@code @Qualified(value = Handler.class, named = "first")}.
+ *
+ * @see Order#beforeQualified()
+ * @see Order#afterQualified()
+ */
+@Documented
+@Target({})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Qualified {
+    /**
+     * Returns the class of the identifier.
+     *
+     * @return the class of the identifier
+     */
+    Class<?> value();
+
+    /**
+     * Returns the value of the @{@link Named} qualifier of the identifier,
+     * or an empty string to use {@link #annotatedWith()} instead.
+     *
+     * @return the value of the @{@link Named} qualifier, or an empty string
+     */
+    String named() default "";
+
+    /**
+     * Returns the type of the qualifier of the identifier, when {@link #named()} is empty.
+     * <p>
+     * The default value, {@link Annotation}, means that the identifier isn't qualified.
+     *
+     * @return the type of the qualifier
+     */
+    Class<? extends Annotation> annotatedWith() default Annotation.class;
+}
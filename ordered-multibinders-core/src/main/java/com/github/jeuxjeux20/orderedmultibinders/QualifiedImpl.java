@@ -0,0 +1,92 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.inject.Key;
+import com.google.inject.name.Named;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * An implementation of @{@link Qualified} created at runtime from a {@link Key},
+ * following the {@link Annotation} contract.
+ */
+final class QualifiedImpl implements Qualified {
+    private final Class<?> value;
+    private final String named;
+    private final Class<? extends Annotation> annotatedWith;
+
+    private QualifiedImpl(Class<?> value, String named, Class<? extends Annotation> annotatedWith) {
+        this.value = value;
+        this.named = named;
+        this.annotatedWith = annotatedWith;
+    }
+
+    /**
+     * Creates a @{@link Qualified} annotation referencing the specified identifier key.
+     *
+     * @param identifierKey the identifier key
+     * @return a @{@link Qualified} annotation referencing the identifier key
+     * @throws IllegalArgumentException when the key's annotation is neither @{@link Named}
+     *                                  nor an annotation without attributes
+     */
+    static Qualified of(Key<?> identifierKey) {
+        Class<?> type = identifierKey.getTypeLiteral().getRawType();
+        Annotation annotation = identifierKey.getAnnotation();
+        Class<? extends Annotation> annotationType = identifierKey.getAnnotationType();
+
+        if (annotation instanceof Named) {
+            return new QualifiedImpl(type, ((Named) annotation).value(), Annotation.class);
+        } else if (annotation instanceof javax.inject.Named) {
+            return new QualifiedImpl(type, ((javax.inject.Named) annotation).value(), Annotation.class);
+        } else if (annotationType == null) {
+            return new QualifiedImpl(type, "", Annotation.class);
+        } else if (annotation == null || annotationType.getDeclaredMethods().length == 0) {
+            return new QualifiedImpl(type, "", annotationType);
+        } else {
+            throw new IllegalArgumentException(
+                    "Only @Named keys and keys with an annotation without attributes can be referenced: " +
+                    identifierKey);
+        }
+    }
+
+    @Override
+    public Class<?> value() {
+        return value;
+    }
+
+    @Override
+    public String named() {
+        return named;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotatedWith() {
+        return annotatedWith;
+    }
+
+    @Override
+    public Class<? extends Annotation> annotationType() {
+        return Qualified.class;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Qualified)) return false;
+        Qualified that = (Qualified) o;
+        return value.equals(that.value()) && named.equals(that.named()) && annotatedWith.equals(that.annotatedWith());
+    }
+
+    @Override
+    public int hashCode() {
+        // As specified by Annotation.hashCode().
+        return (127 * "value".hashCode() ^ value.hashCode()) +
+               (127 * "named".hashCode() ^ named.hashCode()) +
+               (127 * "annotatedWith".hashCode() ^ annotatedWith.hashCode());
+    }
+
+    @Override
+    public String toString() {
+        return "@" + Qualified.class.getName() + "(value=" + value +
+               ", named=" + named + ", annotatedWith=" + annotatedWith + ")";
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.runtime.OrderedIndex;
+import com.github.jeuxjeux20.orderedmultibinders.runtime.OrderedStructure;
+import com.google.inject.Binder;
+import com.google.inject.Binding;
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.Provider;
+import com.google.inject.TypeLiteral;
+import com.google.inject.internal.UniqueAnnotations;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.InstanceBinding;
+import com.google.inject.spi.ProviderInstanceBinding;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The bindings giving access to the structure and the index of sorted multibinders at runtime.
+ * <p>
+ * Modules sorted separately can contribute to the same multibinder and be installed in the same injector,
+ * so the structure of a multibinder is recorded in an instance binding with a unique annotation,
+ * and its structure and index keys are bound by a {@linkplain #createModule(Key) module} equal to the modules
+ * of the same multibinder, which Guice only installs once. When a multibinder has been sorted in separate modules,
+ * its structure and its index cannot be provided, as its elements have not been sorted together.
+ */
+final class RuntimeBindings {
+    private RuntimeBindings() {
+    }
+
+    /**
+     * Records the structure of the specified sorted multibinder.
+     *
+     * @param binder    the binder
+     * @param setKey    the set key of the multibinder
+     * @param structure the structure of the multibinder
+     */
+    static void recordStructure(Binder binder, Key<? extends Set<?>> setKey, OrderedStructure<?> structure) {
+        binder.bind(SortedStructure.class)
+                .annotatedWith(UniqueAnnotations.create())
+                .toInstance(new SortedStructure(setKey, structure));
+    }
+
+    /**
+     * Creates a module binding the {@link OrderedStructure} and the {@link OrderedIndex} of the specified multibinder,
+     * which is equal to the other modules created for the same multibinder.
+     *
+     * @param setKey the set key of the multibinder
+     * @return the module
+     */
+    static Module createModule(Key<? extends Set<?>> setKey) {
+        return new RuntimeModule<>(setKey);
+    }
+
+    /**
+     * Returns whether or not the specified element has been bound by this class,
+     * and must be removed before sorting a module again.
+     *
+     * @param element the element
+     * @return {@code true} if the element has been bound by this class, otherwise {@code false}
+     */
+    static boolean isRuntimeBinding(Element element) {
+        if (element instanceof InstanceBinding<?>) {
+            return ((InstanceBinding<?>) element).getInstance() instanceof SortedStructure;
+        }
+        if (element instanceof ProviderInstanceBinding<?>) {
+            Object provider = ((ProviderInstanceBinding<?>) element).getUserSuppliedProvider();
+            return provider instanceof StructureProvider || provider instanceof IndexProvider;
+        }
+        return false;
+    }
+
+    private static final class SortedStructure {
+        final Key<?> setKey;
+        final OrderedStructure<?> structure;
+
+        SortedStructure(Key<?> setKey, OrderedStructure<?> structure) {
+            this.setKey = setKey;
+            this.structure = structure;
+        }
+    }
+
+    private static final class RuntimeModule<T> implements Module {
+        private final Key<Set<T>> setKey;
+
+        @SuppressWarnings("unchecked")
+        RuntimeModule(Key<? extends Set<?>> setKey) {
+            this.setKey = (Key<Set<T>>) setKey;
+        }
+
+        @Override
+        public void configure(Binder binder) {
+            Key<OrderedStructure<T>> structureKey = OrderedStructure.keyFor(setKey);
+
+            binder.bind(structureKey).toProvider(new StructureProvider<>(setKey));
+            binder.bind(OrderedIndex.keyFor(setKey)).toProvider(new IndexProvider<>(setKey, structureKey));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof RuntimeModule<?> && setKey.equals(((RuntimeModule<?>) o).setKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return setKey.hashCode();
+        }
+    }
+
+    private static final class StructureProvider<T> implements Provider<OrderedStructure<T>> {
+        private final Key<Set<T>> setKey;
+        private @Inject Injector injector;
+        private volatile @Nullable OrderedStructure<T> structure;
+
+        StructureProvider(Key<Set<T>> setKey) {
+            this.setKey = setKey;
+        }
+
+        @Override
+        public OrderedStructure<T> get() {
+            OrderedStructure<T> structure = this.structure;
+            if (structure == null) {
+                this.structure = structure = findStructure();
+            }
+            return structure;
+        }
+
+        @SuppressWarnings("unchecked")
+        private OrderedStructure<T> findStructure() {
+            List<OrderedStructure<?>> structures = new ArrayList<>(1);
+            for (Binding<SortedStructure> binding : injector.findBindingsByType(TypeLiteral.get(SortedStructure.class))) {
+                SortedStructure sortedStructure = binding.getProvider().get();
+                if (sortedStructure.setKey.equals(setKey)) {
+                    structures.add(sortedStructure.structure);
+                }
+            }
+
+            if (structures.size() != 1) {
+                throw new IllegalStateException("Cannot provide the structure of " + setKey + ": " +
+                                                "it has been sorted in " + structures.size() + " separate modules, " +
+                                                "sort them together using OrderedMultibinders.sort(modules).");
+            }
+            return (OrderedStructure<T>) structures.get(0);
+        }
+    }
+
+    private static final class IndexProvider<T> implements Provider<OrderedIndex<T>> {
+        private final Key<Set<T>> setKey;
+        private final Key<OrderedStructure<T>> structureKey;
+        private @Inject Injector injector;
+        private volatile @Nullable OrderedIndex<T> index;
+
+        IndexProvider(Key<Set<T>> setKey, Key<OrderedStructure<T>> structureKey) {
+            this.setKey = setKey;
+            this.structureKey = structureKey;
+        }
+
+        @Override
+        public OrderedIndex<T> get() {
+            OrderedIndex<T> index = this.index;
+            if (index == null) {
+                this.index = index =
+                        new OrderedIndex<>(injector.getInstance(setKey), injector.getInstance(structureKey));
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.google.inject.Module;
+
+import java.lang.annotation.*;
+
+/**
+ * Specifies that this {@link Module} isn't thread-safe, so it is always recorded on the thread sorting the modules,
+ * even when modules are recorded in parallel (see {@link SortingConfiguration#getRecordingExecutor()}).
+ * <p>
+ * Modules annotated with @{@link SequentiallyRecorded} are recorded one after another,
+ * in the order they have been given.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SequentiallyRecorded {
+}
@@ -0,0 +1,144 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.github.jeuxjeux20.orderedmultibinders.runtime.OrderedStructure;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Binding;
+import com.google.inject.Key;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A thread-safe cache of the orders of multibinders, by their shape: the identifier, @{@link Order} annotation
+ * and position of every element, in the multibinder's order, the order of the multibinder's phases,
+ * and the configuration sorting it.
+ * <p>
+ * Multibinders with the same shape are always sorted the same way, so the order of their elements
+ * and their {@link OrderedStructure} are computed only once, within a single sort
+ * or across the sorts of a {@link SortSession}.
+ *
+ * @see SortSession
+ */
+final class SortCache {
+    private final ConcurrentMap<Shape, CachedOrder> orders = new ConcurrentHashMap<>();
+
+    @Nullable CachedOrder get(Shape shape) {
+        return orders.get(shape);
+    }
+
+    /**
+     * Caches the order of a shape, unless another one has been cached concurrently.
+     *
+     * @param shape the shape
+     * @param order the order of the shape
+     * @return the order cached for the shape, which is the given one if none was cached before
+     */
+    CachedOrder put(Shape shape, CachedOrder order) {
+        CachedOrder previousOrder = orders.putIfAbsent(shape, order);
+        return previousOrder != null ? previousOrder : order;
+    }
+
+    int size() {
+        return orders.size();
+    }
+
+    /**
+     * The shape of a multibinder, which determines the order of its elements.
+     */
+    static final class Shape {
+        private final ImmutableList<ShapeElement> elements;
+        private final ImmutableList<ImmutableList<String>> phaseOrders;
+        // Compared by identity, which is enough for multibinders sorted using the same configuration.
+        private final SortingConfiguration configuration;
+        private final int hashCode;
+
+        Shape(List<ShapeElement> elements, List<ImmutableList<String>> phaseOrders,
+              SortingConfiguration configuration) {
+            this.elements = ImmutableList.copyOf(elements);
+            this.phaseOrders = ImmutableList.copyOf(phaseOrders);
+            this.configuration = configuration;
+            this.hashCode = Objects.hash(this.elements, this.phaseOrders, System.identityHashCode(configuration));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Shape that = (Shape) o;
+            return hashCode == that.hashCode && configuration == that.configuration &&
+                   elements.equals(that.elements) && phaseOrders.equals(that.phaseOrders);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * An element of a {@link Shape}.
+     */
+    static final class ShapeElement {
+        private final Key<?> identifierKey;
+        private final @Nullable Order order;
+        private final int position;
+
+        ShapeElement(Key<?> identifierKey, @Nullable Order order, int position) {
+            this.identifierKey = identifierKey;
+            this.order = order;
+            this.position = position;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ShapeElement that = (ShapeElement) o;
+            return position == that.position &&
+                   identifierKey.equals(that.identifierKey) &&
+                   Objects.equals(order, that.order);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(identifierKey, order, position);
+        }
+    }
+
+    /**
+     * The order of a multibinder with a given {@link Shape}.
+     */
+    static final class CachedOrder {
+        private final int[] sortedIndexes;
+        final OrderedStructure<?> structure;
+
+        /**
+         * Creates a new cached order.
+         *
+         * @param sortedIndexes the index of every element in the multibinder, in the sorted order
+         * @param structure     the structure of the sorted multibinder
+         */
+        CachedOrder(int[] sortedIndexes, OrderedStructure<?> structure) {
+            this.sortedIndexes = sortedIndexes;
+            this.structure = structure;
+        }
+
+        /**
+         * Sorts the specified bindings, which have the shape of this order.
+         *
+         * @param bindings the bindings of the multibinder, in the multibinder's order
+         * @return the sorted bindings
+         */
+        List<Binding<?>> apply(List<Binding<?>> bindings) {
+            ImmutableList.Builder<Binding<?>> sortedBindings = ImmutableList.builderWithExpectedSize(bindings.size());
+            for (int index : sortedIndexes) {
+                sortedBindings.add(bindings.get(index));
+            }
+            return sortedBindings.build();
+        }
+    }
+}
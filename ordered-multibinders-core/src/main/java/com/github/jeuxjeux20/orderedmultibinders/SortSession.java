@@ -0,0 +1,152 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.github.jeuxjeux20.orderedmultibinders.runtime.OrderedStructure;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Module;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Sorts many sets of modules using the same configuration, such as the modules of many injectors
+ * created from mostly identical modules, sharing the orders of their multibinders.
+ * <p>
+ * The order of a multibinder only depends on its shape: the identifier, @{@link Order} annotation and position
+ * of every element, in the multibinder's order. Multibinders with the same shape are only sorted once
+ * per session, and share the same {@link OrderedStructure}, so the sorting time grows with the number
+ * of different multibinder shapes, rather than with the number of module sets.
+ * <p>
+ * This class is thread-safe, and finding a cached order doesn't lock anything.
+ * However, orders are cached for the whole lifetime of the session.
+ *
+ * @see OrderedMultibinders#sortAll(SortingConfiguration, Collection)
+ */
+public final class SortSession {
+    private final SortingConfiguration configuration;
+    private final SortCache cache = new SortCache();
+
+    private SortSession(SortingConfiguration configuration) {
+        this.configuration = requireNonNull(configuration, "configuration is null");
+    }
+
+    /**
+     * Creates a new session using the default configuration.
+     *
+     * @return a new session
+     */
+    public static SortSession create() {
+        return create(SortingConfiguration.DEFAULT);
+    }
+
+    /**
+     * Creates a new session using the specified configuration.
+     *
+     * @param configuration the configuration to use
+     * @return a new session
+     */
+    public static SortSession create(SortingConfiguration configuration) {
+        return new SortSession(configuration);
+    }
+
+    /**
+     * Sorts elements of the given {@link Module}s' multibinders, reusing the orders found by this session.
+     * <p>
+     * More info about the sorting behavior is available in the {@link OrderedMultibinders} class.
+     *
+     * @param modules the modules to sort
+     * @return the module with sorted multibinder elements
+     */
+    public Module sort(Iterable<? extends Module> modules) {
+        return new ModuleMultibinderSorter(modules, configuration, cache).sort();
+    }
+
+    /**
+     * Sorts elements of the given {@link Module}s' multibinders, reusing the orders found by this session.
+     * <p>
+     * More info about the sorting behavior is available in the {@link OrderedMultibinders} class.
+     *
+     * @param modules the modules to sort
+     * @return the module with sorted multibinder elements
+     */
+    public Module sort(Module... modules) {
+        return sort(Arrays.asList(modules));
+    }
+
+    /**
+     * Sorts elements of the given {@link Module}s' multibinders asynchronously, reusing the orders found
+     * by this session.
+     *
+     * @param modules  the modules to sort
+     * @param executor the executor running the tasks
+     * @return a future completed with the module with sorted multibinder elements
+     * @see OrderedMultibinders#sortAsync(SortingConfiguration, Executor, Iterable)
+     */
+    public CompletableFuture<Module> sortAsync(Iterable<? extends Module> modules, Executor executor) {
+        return new ModuleMultibinderSorter(modules, configuration, cache).sortAsync(executor);
+    }
+
+    /**
+     * Sorts every set of modules concurrently, using the common {@link ForkJoinPool}.
+     *
+     * @param moduleSets the sets of modules to sort
+     * @return the sorted module of every set of modules, in the same order
+     * @see #sortAll(Collection, Executor)
+     */
+    public ImmutableList<Module> sortAll(Collection<? extends Iterable<? extends Module>> moduleSets) {
+        return sortAll(moduleSets, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts every set of modules concurrently, using the specified executor, as if {@link #sort(Iterable)}
+     * was called with every set of modules.
+     * <p>
+     * If sorting a set of modules fails, its exception is thrown once all the sets have been sorted.
+     *
+     * @param moduleSets the sets of modules to sort
+     * @param executor   the executor sorting the sets of modules
+     * @return the sorted module of every set of modules, in the same order
+     */
+    public ImmutableList<Module> sortAll(Collection<? extends Iterable<? extends Module>> moduleSets,
+                                         Executor executor) {
+        requireNonNull(executor, "executor is null");
+
+        List<CompletableFuture<Module>> sortedModules = new ArrayList<>(moduleSets.size());
+        for (Iterable<? extends Module> modules : moduleSets) {
+            sortedModules.add(sortAsync(modules, executor));
+        }
+
+        CompletableFuture.allOf(sortedModules.toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).join();
+
+        ImmutableList.Builder<Module> result = ImmutableList.builderWithExpectedSize(sortedModules.size());
+        for (CompletableFuture<Module> sortedModule : sortedModules) {
+            result.add(CompletableFutures.join(sortedModule));
+        }
+        return result.build();
+    }
+
+    /**
+     * Gets the number of different multibinder shapes whose order has been cached by this session.
+     *
+     * @return the number of cached orders
+     */
+    public int getCachedOrderCount() {
+        return cache.size();
+    }
+
+    /**
+     * Gets the configuration used by this session.
+     *
+     * @return the configuration
+     */
+    public SortingConfiguration getConfiguration() {
+        return configuration;
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.inject.Inject;
+import com.google.inject.Key;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
+import com.google.inject.spi.InjectionRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Metadata recorded by an {@link OrderedMultibinder} at binding time, and then read when sorting the module.
+ * <p>
+ * The metadata is recorded as an injection request, which doesn't bind anything in the injector.
+ * Metadata of a module that hasn't been sorted fails the creation of the injector, as its elements
+ * would not be in the expected order; sorting a module replaces it with sorted metadata,
+ * which is kept so the sorted module can be sorted again.
+ */
+abstract class SortingMetadata {
+    private final Key<?> setKey;
+    private final boolean sorted;
+
+    SortingMetadata(Key<?> setKey, boolean sorted) {
+        this.setKey = setKey;
+        this.sorted = sorted;
+    }
+
+    /**
+     * Gets the set key of the multibinder this metadata belongs to.
+     *
+     * @return the set key of the multibinder
+     */
+    Key<?> getSetKey() {
+        return setKey;
+    }
+
+    /**
+     * Returns a copy of this metadata, marked as sorted.
+     *
+     * @return a sorted copy of this metadata
+     */
+    abstract SortingMetadata toSorted();
+
+    /**
+     * Describes the multibinder or element this metadata belongs to, in the error given when it hasn't been sorted.
+     *
+     * @return a description of the multibinder or element
+     */
+    abstract String describe();
+
+    @Inject
+    void checkSorted() {
+        if (!sorted) {
+            throw new IllegalStateException(describe() + " has not been sorted: install its module using " +
+                                            "OrderedMultibinders.sort(...), without filtering its multibinder out, " +
+                                            "or its order will not apply.");
+        }
+    }
+
+    /**
+     * Finds all the metadata of the specified type, in the order they have been recorded.
+     *
+     * @param elements     the elements to search in
+     * @param metadataType the type of metadata
+     * @param <M>          the type of metadata
+     * @return the metadata
+     */
+    static <M extends SortingMetadata> List<M> findAll(List<? extends Element> elements, Class<M> metadataType) {
+        List<M> metadata = new ArrayList<>();
+        for (Element element : elements) {
+            if (element instanceof InjectionRequest<?>) {
+                Object instance = ((InjectionRequest<?>) element).getInstance();
+                if (metadataType.isInstance(instance)) {
+                    metadata.add(metadataType.cast(instance));
+                }
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * Replaces the metadata of the specified multibinders in the specified elements with sorted metadata,
+     * keeping their source.
+     * <p>
+     * The metadata of other multibinders, such as filtered multibinders, is kept unsorted,
+     * so their ordering values aren't silently ignored.
+     *
+     * @param elements      the elements, which are modified
+     * @param sortedSetKeys the set keys of the multibinders that have been sorted
+     */
+    static void markSorted(List<Element> elements, Set<? extends Key<?>> sortedSetKeys) {
+        List<Integer> positions = new ArrayList<>();
+        for (int i = 0; i < elements.size(); i++) {
+            Element element = elements.get(i);
+            if (element instanceof InjectionRequest<?>) {
+                Object instance = ((InjectionRequest<?>) element).getInstance();
+                if (instance instanceof SortingMetadata &&
+                    sortedSetKeys.contains(((SortingMetadata) instance).getSetKey())) {
+                    positions.add(i);
+                }
+            }
+        }
+        if (positions.isEmpty()) {
+            return;
+        }
+
+        // Recorded at once, as creating a binder for every element is costly.
+        List<Element> sortedElements = Elements.getElements(binder -> {
+            for (int position : positions) {
+                InjectionRequest<?> request = (InjectionRequest<?>) elements.get(position);
+                SortingMetadata metadata = (SortingMetadata) request.getInstance();
+
+                binder.withSource(request.getSource()).requestInjection(metadata.toSorted());
+            }
+        });
+        for (int i = 0; i < positions.size(); i++) {
+            elements.set(positions.get(i), sortedElements.get(i));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+/**
+ * Thrown when a binding couldn't be resolved
+ * from a class or a class name of the @{@link Order} annotation.
+ *
+ * @see UnableToResolveClassAsBindingException
+ * @see UnableToResolveClassNameAsBindingException
+ */
+public abstract class UnableToResolveAsBindingException extends RuntimeException {
+    protected UnableToResolveAsBindingException(String message) {
+        super(message);
+    }
+
+    protected UnableToResolveAsBindingException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    protected UnableToResolveAsBindingException(Throwable cause) {
+        super(cause);
+    }
+
+    /**
+     * Gets the name of the class that couldn't be resolved.
+     *
+     * @return the name of the class that couldn't be resolved
+     */
+    public abstract String getUnresolvedClassName();
+}
@@ -4,7 +4,7 @@ package com.github.jeuxjeux20.orderedmultibinders;
  * Thrown when a binding couldn't be resolved
  * from the class of the @{@link Order} annotation.
  */
-public class UnableToResolveClassAsBindingException extends RuntimeException {
+public class UnableToResolveClassAsBindingException extends UnableToResolveAsBindingException {
     private final Class<?> unresolvedClass;
 
     public UnableToResolveClassAsBindingException(Class<?> unresolvedClass) {
@@ -30,4 +30,9 @@ public class UnableToResolveClassAsBindingException extends RuntimeException {
     public Class<?> getUnresolvedClass() {
         return unresolvedClass;
     }
+
+    @Override
+    public String getUnresolvedClassName() {
+        return unresolvedClass.getName();
+    }
 }
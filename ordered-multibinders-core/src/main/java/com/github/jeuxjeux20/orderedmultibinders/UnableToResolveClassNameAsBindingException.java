@@ -0,0 +1,24 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+/**
+ * Thrown when a binding couldn't be resolved from a class referenced by its name
+ * (see {@link Order#beforeNames()} and {@link Order#afterNames()}), which hasn't been loaded.
+ */
+public class UnableToResolveClassNameAsBindingException extends UnableToResolveAsBindingException {
+    private final String unresolvedClassName;
+
+    public UnableToResolveClassNameAsBindingException(String unresolvedClassName) {
+        super("Cannot resolve class named '" + unresolvedClassName + "' as a binding.");
+        this.unresolvedClassName = unresolvedClassName;
+    }
+
+    public UnableToResolveClassNameAsBindingException(String message, String unresolvedClassName) {
+        super(message);
+        this.unresolvedClassName = unresolvedClassName;
+    }
+
+    @Override
+    public String getUnresolvedClassName() {
+        return unresolvedClassName;
+    }
+}
@@ -20,18 +20,22 @@ import static java.util.Objects.requireNonNull;
 /**
  * Represents an ordered binding with an identifier, its actual binding and its @{@link Order} annotation.
  * <p>
+ * The identifier can be qualified with a binding annotation, so bindings of the same class
+ * can be told apart (see {@link #getIdentifierKey()}).
+ * <p>
  * This is an immutable class, and a builder is available to create a new instance
  * or create a new object based off another instance's values
  * (using {@link #builder(OrderedBinding)} or {@link #change(Consumer)}).
  * <p>
- * Two ordered bindings are considered equal if their identifier is the same (see {@link #equals(Object)}).
+ * Two ordered bindings are considered equal if their identifier and its qualifier are the same
+ * (see {@link #equals(Object)}).
  */
 public final class OrderedBinding {
     private static final Binding<?> NULL_BINDING
             = new LinkedBindingImpl<>("OrderedBinding_NULL", Key.get(Void.class), Scoping.UNSCOPED, Key.get(Void.class));
 
     private final Binding<?> binding;
-    private final TypeLiteral<?> identifier;
+    private final Key<?> identifierKey;
     private final @Nullable Order order;
 
     /**
@@ -55,7 +59,21 @@ public final class OrderedBinding {
      * @param order      the order of the binding, which may be {@code null}
      */
     public OrderedBinding(TypeLiteral<?> identifier, Binding<?> binding, @Nullable Order order) {
-        this.identifier = requireNonNull(identifier, "identifier is null");
+        this(Key.get(requireNonNull(identifier, "identifier is null")), binding, order);
+    }
+
+    /**
+     * Constructs a new {@link OrderedBinding} instance with
+     * the specified identifier key, binding, and order (the latter may be {@code null}).
+     * <p>
+     * The key's type is the identifier, and its annotation, if any, qualifies the identifier.
+     *
+     * @param identifierKey the identifier key
+     * @param binding       the binding
+     * @param order         the order of the binding, which may be {@code null}
+     */
+    public OrderedBinding(Key<?> identifierKey, Binding<?> binding, @Nullable Order order) {
+        this.identifierKey = requireNonNull(identifierKey, "identifierKey is null");
         this.binding = requireNonNull(binding, "binding is null");
         this.order = order;
     }
@@ -120,6 +138,22 @@ public final class OrderedBinding {
         return fromType(TypeLiteral.get(clazz), binding);
     }
 
+    /**
+     * Creates a new ordered binding of an element which isn't bound using Guice, such as
+     * the elements sorted by an {@link com.github.jeuxjeux20.orderedmultibinders.OrderedSorter OrderedSorter},
+     * using the specified identifier and its @{@link Order} annotation, if there isn't any, the order will
+     * be {@code null}.
+     * <p>
+     * Its {@linkplain #getBinding() binding} is a placeholder, which isn't bound to anything.
+     *
+     * @param identifier the identifier, also used to retrieve the @{@link Order} annotation.
+     * @return an ordered binding with the specified identifier, and, if present, the identifier's
+     * @{@link Order} annotation
+     */
+    public static OrderedBinding unbound(TypeLiteral<?> identifier) {
+        return fromType(identifier, NULL_BINDING);
+    }
+
     /**
      * Creates an equality token, which should only be used in scenarios such as {@link Map#get(Object)},
      * or even {@link Set#contains(Object)}.
@@ -132,6 +166,18 @@ public final class OrderedBinding {
         return new OrderedBinding(identifier, NULL_BINDING, null);
     }
 
+    /**
+     * Creates an equality token, which should only be used in scenarios such as {@link Map#get(Object)},
+     * or even {@link Set#contains(Object)}.
+     *
+     * @param identifierKey the identifier key
+     * @return an equality token {@link OrderedBinding}, with the specified
+     * identifier key, a dummy binding and a null order
+     */
+    public static OrderedBinding equalityToken(Key<?> identifierKey) {
+        return new OrderedBinding(identifierKey, NULL_BINDING, null);
+    }
+
     /**
      * Gets the identifier that identifies a binding.
      * <p>
@@ -141,7 +187,30 @@ public final class OrderedBinding {
      * @return the identifier that identifies a binding
      */
     public TypeLiteral<?> getIdentifier() {
-        return identifier;
+        return identifierKey.getTypeLiteral();
+    }
+
+    /**
+     * Gets the identifier key, whose type is the {@linkplain #getIdentifier() identifier}, and whose annotation,
+     * if any, is the qualifier of the identifier.
+     * <p>
+     * Bindings linked to an annotated key, such as
+     * {@code addBinding().to(Key.get(Handler.class, Names.named("first")))},
+     * are qualified with the key's annotation, so a single class can be bound many times.
+     *
+     * @return the identifier key
+     */
+    public Key<?> getIdentifierKey() {
+        return identifierKey;
+    }
+
+    /**
+     * Returns whether or not the identifier is qualified with a binding annotation.
+     *
+     * @return {@code true} if the identifier is qualified, otherwise {@code false}
+     */
+    public boolean isQualified() {
+        return identifierKey.getAnnotationType() != null;
     }
 
     /**
@@ -185,7 +254,7 @@ public final class OrderedBinding {
      * Returns {@code true} if the specified object meets these requirements:
      * <ul>
      *     <li>it is an instance of {@link OrderedBinding}</li>
-     *     <li>both instances have an equal identifier</li>
+     *     <li>both instances have an equal identifier key</li>
      * </ul>
      *
      * @param o the object to test for equality
@@ -196,23 +265,23 @@ public final class OrderedBinding {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         OrderedBinding that = (OrderedBinding) o;
-        return Objects.equal(identifier, that.identifier);
+        return Objects.equal(identifierKey, that.identifierKey);
     }
 
     /**
-     * Returns the hash code of the identifier.
+     * Returns the hash code of the identifier key.
      *
-     * @return the hash code of the identifier
+     * @return the hash code of the identifier key
      */
     @Override
     public int hashCode() {
-        return Objects.hashCode(identifier);
+        return Objects.hashCode(identifierKey);
     }
 
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
-                .add("identifier", identifier)
+                .add("identifier", identifierKey)
                 .add("order", order)
                 .add("binding", binding)
                 .toString();
@@ -222,7 +291,7 @@ public final class OrderedBinding {
      * The builder for {@link OrderedBinding}.
      */
     public static class Builder {
-        private TypeLiteral<?> type;
+        private Key<?> identifierKey;
         private Binding<?> binding;
         private @Nullable Order order;
 
@@ -244,32 +313,44 @@ public final class OrderedBinding {
          * @param orderedBinding the ordered binding to copy the properties from
          */
         public Builder(OrderedBinding orderedBinding) {
-            this.type = orderedBinding.identifier;
+            this.identifierKey = orderedBinding.identifierKey;
             this.binding = orderedBinding.binding;
             this.order = orderedBinding.order;
         }
 
         /**
-         * Sets the identifier to the specified class, wrapped using {@link TypeLiteral#get(Class)}.
+         * Sets the identifier to the specified class, wrapped using {@link TypeLiteral#get(Class)},
+         * keeping the current qualifier.
          *
          * @param clazz the class to set as a identifier
          * @return the same builder
          */
         @CanIgnoreReturnValue
         public Builder identifier(Class<?> clazz) {
-            this.type = TypeLiteral.get(requireNonNull(clazz, "clazz is null"));
-            return this;
+            return identifier(TypeLiteral.get(requireNonNull(clazz, "clazz is null")));
         }
 
         /**
-         * Sets the identifier to the specified one.
+         * Sets the identifier to the specified one, keeping the current qualifier.
          *
          * @param type the identifier
          * @return the same builder
          */
         @CanIgnoreReturnValue
         public Builder identifier(TypeLiteral<?> type) {
-            this.type = requireNonNull(type, "identifier is null");
+            this.identifierKey = identifierKey.ofType(requireNonNull(type, "identifier is null"));
+            return this;
+        }
+
+        /**
+         * Sets the identifier key to the specified one, which sets both the identifier and its qualifier.
+         *
+         * @param identifierKey the identifier key
+         * @return the same builder
+         */
+        @CanIgnoreReturnValue
+        public Builder identifierKey(Key<?> identifierKey) {
+            this.identifierKey = requireNonNull(identifierKey, "identifierKey is null");
             return this;
         }
 
@@ -303,7 +384,7 @@ public final class OrderedBinding {
          * @return an instance of {@link OrderedBinding} with the values of this builder
          */
         public OrderedBinding build() {
-            return new OrderedBinding(type, binding, order);
+            return new OrderedBinding(identifierKey, binding, order);
         }
     }
 }
@@ -6,6 +6,9 @@ import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBinding;
 /**
  * Gives a default position value for an {@link OrderedBinding} when it has no @{@link Order}
  * annotation or when its {@link Order#position()} value is 0.
+ * <p>
+ * Elements without any constraint keep their relative order in the multibinder, unless
+ * this provider gives them a position other than 0.
  */
 public interface DefaultPositionProvider {
     /**
@@ -16,11 +19,14 @@ public interface DefaultPositionProvider {
      * Tries to put the binding closer to its order constraints with the following behavior:
      * <ul>
      *     <li>When there is no @{@link Order} annotation, returns 0.</li>
-     *     <li>When {@link Order#after()} and {@link Order#before()} are both not empty or both empty
-     *     returns 0.</li>
-     *     <li>When only {@link Order#before()} is specified, returns 1.</li>
-     *     <li>When only {@link Order#after()} is specified, returns -1.</li>
+     *     <li>When there are both before and after constraints, or none of them, returns 0.</li>
+     *     <li>When there are only before constraints, returns 1.</li>
+     *     <li>When there are only after constraints, returns -1.</li>
      * </ul>
+     * Before constraints are {@link Order#before()}, {@link Order#beforeNames()},
+     * {@link Order#beforeQualified()} and {@link Order#beforeSubtypesOf()}, and after constraints are
+     * {@link Order#after()}, {@link Order#afterNames()}, {@link Order#afterQualified()}
+     * and {@link Order#afterSubtypesOf()}.
      */
     DefaultPositionProvider CLOSEST = binding -> {
         Order order = binding.getOrder();
@@ -28,10 +34,14 @@ public interface DefaultPositionProvider {
             return 0;
         }
 
-        if ((order.before().length != 0 && order.after().length != 0) ||
-            (order.before().length == 0 && order.after().length == 0)) {
+        boolean hasBefore = order.before().length != 0 || order.beforeNames().length != 0 ||
+                            order.beforeQualified().length != 0 || order.beforeSubtypesOf().length != 0;
+        boolean hasAfter = order.after().length != 0 || order.afterNames().length != 0 ||
+                           order.afterQualified().length != 0 || order.afterSubtypesOf().length != 0;
+
+        if (hasBefore == hasAfter) {
             return 0;
-        } else if (order.before().length != 0) {
+        } else if (hasBefore) {
             return 1;
         } else {
             return -1;
@@ -2,8 +2,18 @@ package com.github.jeuxjeux20.orderedmultibinders.config;
 
 import com.github.jeuxjeux20.orderedmultibinders.Order;
 import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBinding;
+import com.github.jeuxjeux20.orderedmultibinders.engine.SortingEngine;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Key;
+import com.google.inject.multibindings.MultibinderBinding;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 
 /**
  * Defines the configuration for sorting elements.
@@ -22,15 +32,34 @@ public final class SortingConfiguration {
 
     private final DefaultPositionProvider defaultPosition;
     private final UnresolvableClassHandling unresolvableClassHandling;
+    private final @Nullable Executor recordingExecutor;
+    private final boolean compactSources;
+    private final boolean sortingComponentsInParallel;
+    private final SortingEngine sortingEngine;
+    private final Predicate<? super MultibinderBinding<?>> multibinderFilter;
+    private final ImmutableMap<Key<?>, SortingConfiguration> multibinderConfigurations;
 
     private SortingConfiguration() {
-        this(DEFAULT_DEFAULT_POSITION, DEFAULT_UNRESOLVABLE_CLASS_HANDLING);
+        this(DEFAULT_DEFAULT_POSITION, DEFAULT_UNRESOLVABLE_CLASS_HANDLING, null, false, false, SortingEngine.GRAPH,
+                multibinder -> true, ImmutableMap.of());
     }
 
     private SortingConfiguration(DefaultPositionProvider defaultPosition,
-                                 UnresolvableClassHandling unresolvableClassHandling) {
+                                 UnresolvableClassHandling unresolvableClassHandling,
+                                 @Nullable Executor recordingExecutor,
+                                 boolean compactSources,
+                                 boolean sortingComponentsInParallel,
+                                 SortingEngine sortingEngine,
+                                 Predicate<? super MultibinderBinding<?>> multibinderFilter,
+                                 ImmutableMap<Key<?>, SortingConfiguration> multibinderConfigurations) {
         this.defaultPosition = defaultPosition;
         this.unresolvableClassHandling = unresolvableClassHandling;
+        this.recordingExecutor = recordingExecutor;
+        this.compactSources = compactSources;
+        this.sortingComponentsInParallel = sortingComponentsInParallel;
+        this.sortingEngine = sortingEngine;
+        this.multibinderFilter = multibinderFilter;
+        this.multibinderConfigurations = multibinderConfigurations;
     }
 
     /**
@@ -74,9 +103,132 @@ public final class SortingConfiguration {
         return unresolvableClassHandling;
     }
 
+    /**
+     * Gets the executor recording the given modules in parallel, or {@code null} if they are recorded sequentially.
+     * <p>
+     * When present, every module given to sort is recorded in its own task, and the recorded elements
+     * are then concatenated in the order of the modules, which gives the same elements
+     * as recording them sequentially. Modules annotated with
+     * @{@link com.github.jeuxjeux20.orderedmultibinders.SequentiallyRecorded} are always recorded
+     * on the thread sorting the modules.
+     * <p>
+     * Guice only installs equal modules once, so when equal modules are installed by modules recorded
+     * in different tasks, or when a module registers a method scanner, which applies to the modules installed
+     * after it, all the modules are recorded again sequentially, and are then configured twice.
+     * <p>
+     * The default value is {@code null}.
+     *
+     * @return the executor recording modules in parallel, or {@code null} if they are recorded sequentially
+     */
+    public @Nullable Executor getRecordingExecutor() {
+        return recordingExecutor;
+    }
+
+    /**
+     * Gets whether or not the sources of the sorted module's elements are compacted.
+     * <p>
+     * When enabled, the {@link com.google.inject.spi.ElementSource} of every element, which contains
+     * the modules installing it and the sources it has been recorded with, is replaced by a new one that only
+     * keeps its declaring source, such as the module's class and the line of the binding.
+     * Each element still has its own source, but equal declaring sources are replaced with the same instance.
+     * This reduces the memory retained by the injector, but errors only show the declaring source of the elements.
+     * <p>
+     * Errors found while sorting always show the full sources.
+     * <p>
+     * The default value is {@code false}.
+     *
+     * @return {@code true} if the sources are compacted, otherwise {@code false}
+     */
+    public boolean isCompactSources() {
+        return compactSources;
+    }
+
+    /**
+     * Gets whether or not the independent groups of elements of a multibinder are sorted in parallel.
+     * <p>
+     * When enabled, the elements of a multibinder are split in groups of elements linked by their
+     * constraints (including the implicit constraints keeping unconstrained elements in their order),
+     * every group is sorted in a {@link java.util.concurrent.ForkJoinTask} using the {@linkplain #getSortingEngine()
+     * sorting engine}, and the groups are then merged (see {@link SortingEngine#parallelComponents}).
+     * The result is always the same as sorting all the elements at once.
+     * <p>
+     * This speeds up sorting multibinders with many elements constrained in small groups,
+     * and the {@link DefaultPositionProvider} must be thread-safe.
+     * <p>
+     * The default value is {@code false}.
+     *
+     * @return {@code true} if groups of elements are sorted in parallel, otherwise {@code false}
+     */
+    public boolean isSortingComponentsInParallel() {
+        return sortingComponentsInParallel;
+    }
+
+    /**
+     * Gets the engine sorting the elements of every multibinder, once their constraints have been resolved.
+     * <p>
+     * Other engines can be tried against the reference engine using {@link SortingEngine#verifying}.
+     * <p>
+     * The default value is {@link SortingEngine#GRAPH}.
+     *
+     * @return the sorting engine
+     */
+    public SortingEngine getSortingEngine() {
+        return sortingEngine;
+    }
+
+    /**
+     * Gets the filter selecting the multibinders to sort. Multibinders rejected by the filter keep
+     * the order of their elements, and their {@link com.github.jeuxjeux20.orderedmultibinders.runtime.OrderedStructure}
+     * and {@link com.github.jeuxjeux20.orderedmultibinders.runtime.OrderedIndex} aren't bound.
+     * Rejecting a multibinder with ordering values recorded by an
+     * {@link com.github.jeuxjeux20.orderedmultibinders.OrderedMultibinder} fails the creation of the injector,
+     * as these values would be ignored.
+     * <p>
+     * The default value accepts every multibinder.
+     *
+     * @return the filter selecting the multibinders to sort
+     */
+    public Predicate<? super MultibinderBinding<?>> getMultibinderFilter() {
+        return multibinderFilter;
+    }
+
+    /**
+     * Gets the configurations used instead of this configuration to sort specific multibinders, by set key.
+     * <p>
+     * Only the values applying to a single multibinder are used from these configurations:
+     * the {@linkplain #getDefaultPosition() default position}, the
+     * {@linkplain #getUnresolvableClassHandling() unresolvable class handling},
+     * the {@linkplain #getSortingEngine() sorting engine}, and
+     * {@linkplain #isSortingComponentsInParallel() whether or not components are sorted in parallel}.
+     * <p>
+     * The default value is an empty map.
+     *
+     * @return the configurations of specific multibinders, by set key
+     */
+    public ImmutableMap<Key<?>, SortingConfiguration> getMultibinderConfigurations() {
+        return multibinderConfigurations;
+    }
+
+    /**
+     * Gets the configuration sorting the multibinder with the specified set key, which is either
+     * its {@linkplain #getMultibinderConfigurations() specific configuration}, or this configuration.
+     *
+     * @param setKey the set key of the multibinder
+     * @return the configuration sorting the multibinder
+     */
+    public SortingConfiguration forMultibinder(Key<?> setKey) {
+        return multibinderConfigurations.getOrDefault(setKey, this);
+    }
+
     public static class Builder {
         private DefaultPositionProvider defaultPositionProvider;
         private UnresolvableClassHandling unresolvableClassHandling;
+        private @Nullable Executor recordingExecutor;
+        private boolean compactSources;
+        private boolean sortingComponentsInParallel;
+        private SortingEngine sortingEngine;
+        private Predicate<? super MultibinderBinding<?>> multibinderFilter;
+        private final Map<Key<?>, SortingConfiguration> multibinderConfigurations;
 
         public Builder() {
             this(DEFAULT);
@@ -85,6 +237,12 @@ public final class SortingConfiguration {
         public Builder(SortingConfiguration configuration) {
             this.defaultPositionProvider = configuration.defaultPosition;
             this.unresolvableClassHandling = configuration.unresolvableClassHandling;
+            this.recordingExecutor = configuration.recordingExecutor;
+            this.compactSources = configuration.compactSources;
+            this.sortingComponentsInParallel = configuration.sortingComponentsInParallel;
+            this.sortingEngine = configuration.sortingEngine;
+            this.multibinderFilter = configuration.multibinderFilter;
+            this.multibinderConfigurations = new HashMap<>(configuration.multibinderConfigurations);
         }
 
         /**
@@ -112,13 +270,92 @@ public final class SortingConfiguration {
             return this;
         }
 
+        /**
+         * Sets the executor recording modules in parallel, or {@code null} to record them sequentially.
+         *
+         * @param recordingExecutor the executor recording modules in parallel, which may be {@code null}
+         * @return the same builder
+         * @see SortingConfiguration#getRecordingExecutor()
+         */
+        public Builder recordingExecutor(@Nullable Executor recordingExecutor) {
+            this.recordingExecutor = recordingExecutor;
+            return this;
+        }
+
+        /**
+         * Sets whether or not the sources of the sorted module's elements are compacted.
+         *
+         * @param compactSources {@code true} to compact the sources, otherwise {@code false}
+         * @return the same builder
+         * @see SortingConfiguration#isCompactSources()
+         */
+        public Builder compactSources(boolean compactSources) {
+            this.compactSources = compactSources;
+            return this;
+        }
+
+        /**
+         * Sets whether or not the independent groups of elements of a multibinder are sorted in parallel.
+         *
+         * @param sortingComponentsInParallel {@code true} to sort groups of elements in parallel,
+         *                                    otherwise {@code false}
+         * @return the same builder
+         * @see SortingConfiguration#isSortingComponentsInParallel()
+         */
+        public Builder sortingComponentsInParallel(boolean sortingComponentsInParallel) {
+            this.sortingComponentsInParallel = sortingComponentsInParallel;
+            return this;
+        }
+
+        /**
+         * Sets the engine sorting the elements of every multibinder.
+         *
+         * @param sortingEngine the sorting engine
+         * @return the same builder
+         * @throws NullPointerException when the given value is null
+         * @see SortingConfiguration#getSortingEngine()
+         */
+        public Builder sortingEngine(SortingEngine sortingEngine) {
+            this.sortingEngine = Objects.requireNonNull(sortingEngine);
+            return this;
+        }
+
+        /**
+         * Sets the filter selecting the multibinders to sort.
+         *
+         * @param multibinderFilter the filter selecting the multibinders to sort
+         * @return the same builder
+         * @throws NullPointerException when the given value is null
+         * @see SortingConfiguration#getMultibinderFilter()
+         */
+        public Builder multibinderFilter(Predicate<? super MultibinderBinding<?>> multibinderFilter) {
+            this.multibinderFilter = Objects.requireNonNull(multibinderFilter);
+            return this;
+        }
+
+        /**
+         * Sets the configuration used to sort the multibinder with the specified set key.
+         *
+         * @param setKey        the set key of the multibinder
+         * @param configuration the configuration sorting the multibinder
+         * @return the same builder
+         * @throws NullPointerException when one of the given values is null
+         * @see SortingConfiguration#getMultibinderConfigurations()
+         */
+        public Builder multibinderConfiguration(Key<? extends Set<?>> setKey, SortingConfiguration configuration) {
+            multibinderConfigurations.put(Objects.requireNonNull(setKey), Objects.requireNonNull(configuration));
+            return this;
+        }
+
         /**
          * Builds a configuration using the values this builder has.
          *
          * @return a {@link SortingConfiguration} with the values of this builder
          */
         public SortingConfiguration build() {
-            return new SortingConfiguration(defaultPositionProvider, unresolvableClassHandling);
+            return new SortingConfiguration(defaultPositionProvider, unresolvableClassHandling,
+                    recordingExecutor, compactSources, sortingComponentsInParallel, sortingEngine,
+                    multibinderFilter, ImmutableMap.copyOf(multibinderConfigurations));
         }
     }
 }
@@ -1,7 +1,7 @@
 package com.github.jeuxjeux20.orderedmultibinders.config;
 
 import com.github.jeuxjeux20.orderedmultibinders.Order;
-import com.github.jeuxjeux20.orderedmultibinders.UnableToResolveClassAsBindingException;
+import com.github.jeuxjeux20.orderedmultibinders.UnableToResolveAsBindingException;
 
 /**
  * Represents the behavior when a class in @{@link Order} can't be resolved as a binding.
@@ -12,7 +12,7 @@ public enum UnresolvableClassHandling {
      */
     IGNORE,
     /**
-     * Throws a {@link UnableToResolveClassAsBindingException}.
+     * Throws a {@link UnableToResolveAsBindingException}.
      */
     THROW
 }
@@ -0,0 +1,198 @@
+package com.github.jeuxjeux20.orderedmultibinders.engine;
+
+import com.github.jeuxjeux20.orderedmultibinders.CycleDetectedException;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Sorts the weakly connected components of a problem (including implicit edges) in parallel,
+ * using {@link ForkJoinTask}s, and then merges their orders.
+ * <p>
+ * The problem is sorted by always taking the smallest element among the elements whose predecessors
+ * have been taken. Elements of other components never change which elements of a component
+ * can be taken, so each component is sorted in the same order as in the whole problem, and the smallest
+ * element among the next element of every component is the one that the whole problem would take.
+ * Components keep the order of their elements, so comparing their indexes gives the same result.
+ * <p>
+ * When a cycle is found in a component, the whole problem is sorted by the engine, which throws the cycle
+ * that would have been detected first.
+ *
+ * @see SortingEngine#parallelComponents
+ */
+final class ComponentSortingEngine implements SortingEngine {
+    private final SortingEngine engine;
+
+    ComponentSortingEngine(SortingEngine engine) {
+        this.engine = engine;
+    }
+
+    @Override
+    public int[] sort(SortingProblem problem) {
+        if (problem.size() < 2) {
+            return engine.sort(problem);
+        }
+
+        // The index of every element in its component.
+        int[] localIndexes = new int[problem.size()];
+        List<Component> components = findComponents(problem, localIndexes);
+
+        List<ForkJoinTask<Component>> tasks = new ArrayList<>();
+        for (Component component : components) {
+            if (component.edges.isEmpty()) {
+                component.sortedElements = toArray(component.elements);
+            } else {
+                tasks.add(ForkJoinTask.adapt(() -> component.sort(engine, problem, localIndexes), component));
+            }
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        for (Component component : components) {
+            if (component.failure instanceof CycleDetectedException) {
+                // Only the whole problem tells which cycle is detected first.
+                return engine.sort(problem);
+            } else if (component.failure != null) {
+                throw component.failure;
+            }
+        }
+
+        return merge(problem, components);
+    }
+
+    private static List<Component> findComponents(SortingProblem problem, int[] localIndexes) {
+        int size = problem.size();
+        int[] parents = new int[size];
+        int[] sizes = new int[size];
+        for (int i = 0; i < size; i++) {
+            parents[i] = i;
+            sizes[i] = 1;
+        }
+
+        for (int i = 0; i < problem.getEdgeCount(); i++) {
+            int sourceRoot = findRoot(parents, problem.getEdgeSource(i));
+            int targetRoot = findRoot(parents, problem.getEdgeTarget(i));
+            if (sourceRoot == targetRoot) {
+                continue;
+            }
+
+            // Union by size, to keep the trees flat.
+            if (sizes[sourceRoot] < sizes[targetRoot]) {
+                int swap = sourceRoot;
+                sourceRoot = targetRoot;
+                targetRoot = swap;
+            }
+            parents[targetRoot] = sourceRoot;
+            sizes[sourceRoot] += sizes[targetRoot];
+        }
+
+        // Components are ordered by their first element, and keep the order of the elements and edges.
+        Map<Integer, Component> componentsByRoot = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            List<Integer> elements = componentsByRoot.computeIfAbsent(findRoot(parents, i), root -> new Component())
+                    .elements;
+            localIndexes[i] = elements.size();
+            elements.add(i);
+        }
+        for (int i = 0; i < problem.getEdgeCount(); i++) {
+            componentsByRoot.get(findRoot(parents, problem.getEdgeSource(i))).edges.add(i);
+        }
+
+        return new ArrayList<>(componentsByRoot.values());
+    }
+
+    private static int findRoot(int[] parents, int index) {
+        while (parents[index] != index) {
+            // Path halving.
+            parents[index] = parents[parents[index]];
+            index = parents[index];
+        }
+        return index;
+    }
+
+    private static int[] merge(SortingProblem problem, List<Component> components) {
+        PriorityQueue<ComponentCursor> cursors = new PriorityQueue<>(components.size(),
+                (a, b) -> problem.compare(a.current(), b.current()));
+        for (Component component : components) {
+            cursors.add(new ComponentCursor(component.sortedElements));
+        }
+
+        int[] order = new int[problem.size()];
+        int index = 0;
+        while (!cursors.isEmpty()) {
+            ComponentCursor cursor = cursors.poll();
+            order[index++] = cursor.current();
+
+            if (cursor.next()) {
+                cursors.add(cursor);
+            }
+        }
+        return order;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @Override
+    public String toString() {
+        return "SortingEngine.parallelComponents(" + engine + ")";
+    }
+
+    private static final class Component {
+        final List<Integer> elements = new ArrayList<>();
+        final List<Integer> edges = new ArrayList<>();
+        int[] sortedElements;
+        @Nullable RuntimeException failure;
+
+        void sort(SortingEngine engine, SortingProblem problem, int[] localIndexes) {
+            SortingProblem.Builder builder = SortingProblem.builder();
+            for (int element : elements) {
+                if (problem.isBarrier(element)) {
+                    builder.addBarrier(problem.getDescription(element));
+                } else {
+                    builder.addElement(problem.getOrderedBinding(element), problem.getPosition(element));
+                }
+            }
+            for (int edge : edges) {
+                builder.addEdge(localIndexes[problem.getEdgeSource(edge)], localIndexes[problem.getEdgeTarget(edge)],
+                        problem.isEdgeExplicit(edge));
+            }
+
+            int[] localOrder;
+            try {
+                localOrder = engine.sort(builder.build());
+            } catch (RuntimeException e) {
+                this.failure = e;
+                return;
+            }
+
+            int[] sortedElements = new int[localOrder.length];
+            for (int i = 0; i < localOrder.length; i++) {
+                sortedElements[i] = elements.get(localOrder[i]);
+            }
+            this.sortedElements = sortedElements;
+        }
+    }
+
+    private static final class ComponentCursor {
+        private final int[] elements;
+        private int index;
+
+        ComponentCursor(int[] elements) {
+            this.elements = elements;
+        }
+
+        int current() {
+            return elements[index];
+        }
+
+        boolean next() {
+            return ++index < elements.length;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.jeuxjeux20.orderedmultibinders.engine;
+
+import org.jgrapht.graph.DefaultEdge;
+import org.jgrapht.graph.DirectedAcyclicGraph;
+import org.jgrapht.traverse.TopologicalOrderIterator;
+
+/**
+ * The reference {@link SortingEngine}, using a JGraphT {@link DirectedAcyclicGraph}.
+ */
+final class GraphSortingEngine implements SortingEngine {
+    @Override
+    public int[] sort(SortingProblem problem) {
+        DirectedAcyclicGraph<Integer, DefaultEdge> graph = new DirectedAcyclicGraph<>(DefaultEdge.class);
+        for (int i = 0; i < problem.size(); i++) {
+            graph.addVertex(i);
+        }
+
+        for (int i = 0; i < problem.getEdgeCount(); i++) {
+            int source = problem.getEdgeSource(i);
+            int target = problem.getEdgeTarget(i);
+            try {
+                graph.addEdge(source, target);
+            } catch (IllegalArgumentException e) {
+                // Thrown when the edge would create a cycle, or is a loop.
+                throw problem.cycleDetected(source, target);
+            }
+        }
+
+        TopologicalOrderIterator<Integer, DefaultEdge> iterator = new TopologicalOrderIterator<>(graph, problem::compare);
+
+        int[] order = new int[problem.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = iterator.next();
+        }
+        return order;
+    }
+
+    @Override
+    public String toString() {
+        return "SortingEngine.GRAPH";
+    }
+}
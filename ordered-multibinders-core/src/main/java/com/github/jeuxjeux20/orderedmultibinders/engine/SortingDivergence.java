@@ -0,0 +1,96 @@
+package com.github.jeuxjeux20.orderedmultibinders.engine;
+
+import com.google.common.base.MoreObjects;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * A difference between the results of a reference {@link SortingEngine} and a candidate engine,
+ * found by an engine created using {@link SortingEngine#verifying}.
+ * <p>
+ * Every result is either an order or an exception.
+ */
+public final class SortingDivergence {
+    private final SortingProblem problem;
+    private final SortingEngine candidate;
+    private final @Nullable int[] referenceOrder;
+    private final @Nullable RuntimeException referenceException;
+    private final @Nullable int[] candidateOrder;
+    private final @Nullable RuntimeException candidateException;
+
+    SortingDivergence(SortingProblem problem, SortingEngine candidate,
+                      @Nullable int[] referenceOrder, @Nullable RuntimeException referenceException,
+                      @Nullable int[] candidateOrder, @Nullable RuntimeException candidateException) {
+        this.problem = problem;
+        this.candidate = candidate;
+        this.referenceOrder = referenceOrder;
+        this.referenceException = referenceException;
+        this.candidateOrder = candidateOrder;
+        this.candidateException = candidateException;
+    }
+
+    /**
+     * Gets the problem sorted by both engines.
+     *
+     * @return the sorted problem
+     */
+    public SortingProblem getProblem() {
+        return problem;
+    }
+
+    /**
+     * Gets the candidate engine.
+     *
+     * @return the candidate engine
+     */
+    public SortingEngine getCandidate() {
+        return candidate;
+    }
+
+    /**
+     * Gets the order given by the reference engine, or {@code null} if it has thrown an exception.
+     *
+     * @return the reference order, or {@code null} if there isn't any
+     */
+    public @Nullable int[] getReferenceOrder() {
+        return referenceOrder == null ? null : referenceOrder.clone();
+    }
+
+    /**
+     * Gets the exception thrown by the reference engine, or {@code null} if it has given an order.
+     *
+     * @return the reference exception, or {@code null} if there isn't any
+     */
+    public @Nullable RuntimeException getReferenceException() {
+        return referenceException;
+    }
+
+    /**
+     * Gets the order given by the candidate engine, or {@code null} if it has thrown an exception.
+     *
+     * @return the candidate order, or {@code null} if there isn't any
+     */
+    public @Nullable int[] getCandidateOrder() {
+        return candidateOrder == null ? null : candidateOrder.clone();
+    }
+
+    /**
+     * Gets the exception thrown by the candidate engine, or {@code null} if it has given an order.
+     *
+     * @return the candidate exception, or {@code null} if there isn't any
+     */
+    public @Nullable RuntimeException getCandidateException() {
+        return candidateException;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("problem", problem)
+                .add("candidate", candidate)
+                .add("reference", referenceOrder != null ? Arrays.toString(referenceOrder) : referenceException)
+                .add("result", candidateOrder != null ? Arrays.toString(candidateOrder) : candidateException)
+                .toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.jeuxjeux20.orderedmultibinders.engine;
+
+import com.github.jeuxjeux20.orderedmultibinders.CycleDetectedException;
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Sorts the elements of a multibinder, given as a {@link SortingProblem}.
+ * <p>
+ * The order of the elements is the one obtained by always taking, among the elements whose predecessors
+ * (through the problem's edges) have been taken, the smallest one according to {@link SortingProblem#compare}.
+ * When the edges contain a cycle, the engine throws the {@link CycleDetectedException} created using
+ * {@link SortingProblem#cycleDetected} for the first edge, in the problem's order, that closes a cycle
+ * with the edges before it.
+ * <p>
+ * The engine is chosen using {@link SortingConfiguration#getSortingEngine()}, and must be thread-safe.
+ * {@link #GRAPH} is the reference implementation: other engines should give the same results,
+ * which can be checked using {@link #verifying}.
+ */
+@FunctionalInterface
+public interface SortingEngine {
+    /**
+     * The reference engine, which adds the edges one by one to a directed acyclic graph, detecting cycles
+     * as soon as they appear, and then iterates the graph in topological order.
+     */
+    SortingEngine GRAPH = new GraphSortingEngine();
+
+    /**
+     * Sorts the elements of the specified problem.
+     *
+     * @param problem the problem to sort
+     * @return the indexes of the elements, including barriers, in the sorted order
+     * @throws CycleDetectedException when the problem's edges contain a cycle
+     */
+    int[] sort(SortingProblem problem);
+
+    /**
+     * Returns an engine splitting problems in groups of elements linked by edges, sorting every group
+     * in a {@link java.util.concurrent.ForkJoinTask} using the specified engine, and merging the orders
+     * of the groups.
+     * <p>
+     * When a cycle is found in one of the groups, the whole problem is sorted again using the specified engine,
+     * so the thrown exception is the same.
+     *
+     * @param engine the engine sorting every group
+     * @return an engine sorting groups in parallel
+     * @see SortingConfiguration#isSortingComponentsInParallel()
+     */
+    static SortingEngine parallelComponents(SortingEngine engine) {
+        return new ComponentSortingEngine(requireNonNull(engine, "engine is null"));
+    }
+
+    /**
+     * Returns an engine always giving the results of the reference engine, and which, on a sampled fraction
+     * of the problems, also runs the candidate engine and reports any difference between their results,
+     * including the thrown exceptions, to the listener.
+     * <p>
+     * Exceptions thrown by the candidate engine are only reported. The listener is called on the thread sorting
+     * the problem.
+     *
+     * @param reference  the engine whose results are used
+     * @param candidate  the engine to verify
+     * @param sampleRate the fraction of problems also sorted by the candidate, between 0 and 1
+     * @param listener   the listener receiving the divergences
+     * @return an engine verifying the candidate engine
+     * @throws IllegalArgumentException when the sample rate isn't between 0 and 1
+     */
+    static SortingEngine verifying(SortingEngine reference, SortingEngine candidate, double sampleRate,
+                                   Consumer<? super SortingDivergence> listener) {
+        return new VerifyingSortingEngine(reference, candidate, sampleRate, listener);
+    }
+}
@@ -0,0 +1,328 @@
+package com.github.jeuxjeux20.orderedmultibinders.engine;
+
+import com.github.jeuxjeux20.orderedmultibinders.CycleDetectedException;
+import com.github.jeuxjeux20.orderedmultibinders.Order;
+import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBinding;
+import com.google.common.base.MoreObjects;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.inject.Key;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The elements of a multibinder to sort using a {@link SortingEngine}, with their resolved position
+ * and the constraints between them.
+ * <p>
+ * Elements are referred to by their index in the multibinder. Constraints are edges going from an element
+ * to an element that must come after it: the implicit edges, keeping the elements without constraints
+ * in their order, come first, followed by the explicit edges from @{@link Order} annotations,
+ * in the order they are declared. An edge is only present once.
+ * <p>
+ * A problem can also contain barriers, which aren't elements of the multibinder, but order the elements
+ * going to them before the elements coming from them, such as the elements of two phases, using an edge
+ * per element instead of an edge per pair of elements. Barriers come before any element when they can,
+ * so they never change the order of the elements, and are sorted like elements.
+ */
+public final class SortingProblem {
+    // Barriers have no ordered binding, and elements have no barrier description.
+    private final List<OrderedBinding> orderedBindings;
+    private final String[] barrierDescriptions;
+    private final int[] positions;
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final boolean[] explicitEdges;
+
+    private SortingProblem(Builder builder) {
+        this.orderedBindings = Collections.unmodifiableList(new ArrayList<>(builder.orderedBindings));
+        this.barrierDescriptions = builder.barrierDescriptions.toArray(new String[0]);
+        this.positions = builder.positions.stream().mapToInt(Integer::intValue).toArray();
+
+        int edgeCount = builder.edges.size();
+        this.edgeSources = new int[edgeCount];
+        this.edgeTargets = new int[edgeCount];
+        this.explicitEdges = new boolean[edgeCount];
+        for (int i = 0; i < edgeCount; i++) {
+            long edge = builder.edges.get(i);
+            edgeSources[i] = (int) (edge >>> 32);
+            edgeTargets[i] = (int) edge;
+            explicitEdges[i] = builder.explicitEdges.get(i);
+        }
+    }
+
+    /**
+     * Creates a new builder of a problem without elements.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the number of elements, including barriers.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return orderedBindings.size();
+    }
+
+    /**
+     * Gets the {@link OrderedBinding} of the element at the specified index, or {@code null} if it is a barrier.
+     *
+     * @param index the index of the element
+     * @return the ordered binding of the element, or {@code null} if it is a barrier
+     */
+    public @Nullable OrderedBinding getOrderedBinding(int index) {
+        return orderedBindings.get(index);
+    }
+
+    /**
+     * Gets whether or not the element at the specified index is a barrier.
+     *
+     * @param index the index of the element
+     * @return {@code true} if the element is a barrier, otherwise {@code false}
+     */
+    public boolean isBarrier(int index) {
+        return barrierDescriptions[index] != null;
+    }
+
+    /**
+     * Gets the description of the element at the specified index, as used in exceptions:
+     * its identifier, or the description of the barrier.
+     *
+     * @param index the index of the element
+     * @return the description of the element
+     */
+    public String getDescription(int index) {
+        String barrierDescription = barrierDescriptions[index];
+        if (barrierDescription != null) {
+            return barrierDescription;
+        }
+
+        OrderedBinding orderedBinding = orderedBindings.get(index);
+        Key<?> identifierKey = orderedBinding.getIdentifierKey();
+        if (identifierKey.getAnnotation() != null) {
+            return orderedBinding.getIdentifier() + " (" + identifierKey.getAnnotation() + ")";
+        } else if (identifierKey.getAnnotationType() != null) {
+            return orderedBinding.getIdentifier() + " (@" + identifierKey.getAnnotationType().getName() + ")";
+        } else {
+            return orderedBinding.getIdentifier().toString();
+        }
+    }
+
+    /**
+     * Gets the resolved position of the element at the specified index, which is either
+     * its {@link Order#position()} or the configuration's default position, or 0 for barriers.
+     *
+     * @param index the index of the element
+     * @return the position of the element
+     */
+    public int getPosition(int index) {
+        return positions[index];
+    }
+
+    /**
+     * Gets the number of edges.
+     *
+     * @return the number of edges
+     */
+    public int getEdgeCount() {
+        return edgeSources.length;
+    }
+
+    /**
+     * Gets the index of the element that must come first for the edge at the specified index.
+     *
+     * @param edge the index of the edge
+     * @return the index of the edge's source element
+     */
+    public int getEdgeSource(int edge) {
+        return edgeSources[edge];
+    }
+
+    /**
+     * Gets the index of the element that must come last for the edge at the specified index.
+     *
+     * @param edge the index of the edge
+     * @return the index of the edge's target element
+     */
+    public int getEdgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    /**
+     * Gets whether or not the edge at the specified index comes from an @{@link Order} annotation,
+     * rather than from the order of elements without constraints.
+     *
+     * @param edge the index of the edge
+     * @return {@code true} if the edge is explicit, otherwise {@code false}
+     */
+    public boolean isEdgeExplicit(int edge) {
+        return explicitEdges[edge];
+    }
+
+    /**
+     * Compares two elements, with barriers first, and then by position and by index, which decides
+     * which element comes first when no edge orders them.
+     *
+     * @param a the index of the first element
+     * @param b the index of the second element
+     * @return a negative number, zero, or a positive number when the first element comes
+     * before, is, or comes after the second element
+     */
+    public int compare(int a, int b) {
+        boolean barrierA = isBarrier(a);
+        if (barrierA != isBarrier(b)) {
+            return barrierA ? -1 : 1;
+        }
+
+        int positionComparison = Integer.compare(positions[a], positions[b]);
+        if (positionComparison != 0) {
+            return positionComparison;
+        } else {
+            return Integer.compare(a, b);
+        }
+    }
+
+    /**
+     * Creates the exception thrown when the edge between the specified elements closes a cycle.
+     *
+     * @param source the index of the edge's source element
+     * @param target the index of the edge's target element
+     * @return the exception describing the cycle
+     */
+    public CycleDetectedException cycleDetected(int source, int target) {
+        return new CycleDetectedException(
+                "Cycle detected between " + getDescription(source) + " and " + getDescription(target) + ".");
+    }
+
+    /**
+     * Checks that the specified order contains the index of every element once, and that every edge's source
+     * comes before its target.
+     *
+     * @param order the indexes of the elements, in the sorted order
+     * @throws IllegalArgumentException when the order is invalid
+     */
+    public void checkOrder(int[] order) {
+        requireNonNull(order, "order is null");
+        if (order.length != size()) {
+            throw new IllegalArgumentException("Expected " + size() + " elements, got " + order.length + ".");
+        }
+
+        int[] sortedPositions = new int[size()];
+        Arrays.fill(sortedPositions, -1);
+        for (int i = 0; i < order.length; i++) {
+            int element = order[i];
+            if (element < 0 || element >= size() || sortedPositions[element] != -1) {
+                throw new IllegalArgumentException("Invalid or duplicate element " + element + " at index " + i + ".");
+            }
+            sortedPositions[element] = i;
+        }
+
+        for (int i = 0; i < getEdgeCount(); i++) {
+            if (sortedPositions[edgeSources[i]] > sortedPositions[edgeTargets[i]]) {
+                throw new IllegalArgumentException(
+                        "Element " + edgeSources[i] + " must come before element " + edgeTargets[i] + ".");
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("size", size())
+                .add("edgeCount", getEdgeCount())
+                .toString();
+    }
+
+    /**
+     * Builds a {@link SortingProblem}, by adding its elements, and then its barriers and edges.
+     */
+    public static final class Builder {
+        private final List<OrderedBinding> orderedBindings = new ArrayList<>();
+        private final List<String> barrierDescriptions = new ArrayList<>();
+        private final List<Integer> positions = new ArrayList<>();
+        private final List<Long> edges = new ArrayList<>();
+        private final List<Boolean> explicitEdges = new ArrayList<>();
+        private final Set<Long> edgeSet = new HashSet<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds an element, whose index is the number of elements added before it.
+         *
+         * @param orderedBinding the ordered binding of the element
+         * @param position       the resolved position of the element
+         * @return the same builder
+         */
+        @CanIgnoreReturnValue
+        public Builder addElement(OrderedBinding orderedBinding, int position) {
+            orderedBindings.add(requireNonNull(orderedBinding, "orderedBinding is null"));
+            barrierDescriptions.add(null);
+            positions.add(position);
+            return this;
+        }
+
+        /**
+         * Adds a barrier, whose index is the number of elements added before it.
+         *
+         * @param description the description of the barrier, used in exceptions
+         * @return the same builder
+         */
+        @CanIgnoreReturnValue
+        public Builder addBarrier(String description) {
+            orderedBindings.add(null);
+            barrierDescriptions.add(requireNonNull(description, "description is null"));
+            positions.add(0);
+            return this;
+        }
+
+        /**
+         * Adds an edge between two elements, unless there is already an edge between them.
+         *
+         * @param source   the index of the element that must come first
+         * @param target   the index of the element that must come last
+         * @param explicit whether or not the edge comes from an @{@link Order} annotation
+         * @return the same builder
+         * @throws IndexOutOfBoundsException when one of the elements hasn't been added
+         */
+        @CanIgnoreReturnValue
+        public Builder addEdge(int source, int target, boolean explicit) {
+            checkElement(source);
+            checkElement(target);
+
+            long edge = ((long) source << 32) | target;
+            if (edgeSet.add(edge)) {
+                edges.add(edge);
+                explicitEdges.add(explicit);
+            }
+            return this;
+        }
+
+        private void checkElement(int index) {
+            if (index < 0 || index >= orderedBindings.size()) {
+                throw new IndexOutOfBoundsException(
+                        "Element " + index + " out of " + orderedBindings.size() + " elements.");
+            }
+        }
+
+        /**
+         * Builds a problem using the elements and edges of this builder.
+         *
+         * @return a new {@link SortingProblem}
+         */
+        public SortingProblem build() {
+            return new SortingProblem(this);
+        }
+    }
+}
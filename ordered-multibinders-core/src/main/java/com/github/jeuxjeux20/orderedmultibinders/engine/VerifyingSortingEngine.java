@@ -0,0 +1,80 @@
+package com.github.jeuxjeux20.orderedmultibinders.engine;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link SortingEngine} comparing the results of a candidate engine with a reference engine.
+ *
+ * @see SortingEngine#verifying
+ */
+final class VerifyingSortingEngine implements SortingEngine {
+    private final SortingEngine reference;
+    private final SortingEngine candidate;
+    private final double sampleRate;
+    private final Consumer<? super SortingDivergence> listener;
+
+    VerifyingSortingEngine(SortingEngine reference, SortingEngine candidate, double sampleRate,
+                           Consumer<? super SortingDivergence> listener) {
+        if (!(sampleRate >= 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("The sample rate must be between 0 and 1, got " + sampleRate + ".");
+        }
+
+        this.reference = requireNonNull(reference, "reference is null");
+        this.candidate = requireNonNull(candidate, "candidate is null");
+        this.sampleRate = sampleRate;
+        this.listener = requireNonNull(listener, "listener is null");
+    }
+
+    @Override
+    public int[] sort(SortingProblem problem) {
+        if (sampleRate == 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return reference.sort(problem);
+        }
+
+        int[] referenceOrder = null;
+        RuntimeException referenceException = null;
+        try {
+            referenceOrder = reference.sort(problem);
+        } catch (RuntimeException e) {
+            referenceException = e;
+        }
+
+        int[] candidateOrder = null;
+        RuntimeException candidateException = null;
+        try {
+            candidateOrder = candidate.sort(problem);
+        } catch (RuntimeException e) {
+            candidateException = e;
+        }
+
+        if (!Arrays.equals(referenceOrder, candidateOrder) ||
+            !isSameException(referenceException, candidateException)) {
+            listener.accept(new SortingDivergence(problem, candidate,
+                    referenceOrder, referenceException, candidateOrder, candidateException));
+        }
+
+        if (referenceException != null) {
+            throw referenceException;
+        }
+        return referenceOrder;
+    }
+
+    private static boolean isSameException(@Nullable RuntimeException a, @Nullable RuntimeException b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getClass() == b.getClass() && Objects.equals(a.getMessage(), b.getMessage());
+    }
+
+    @Override
+    public String toString() {
+        return "SortingEngine.verifying(" + reference + ", " + candidate + ", " + sampleRate + ")";
+    }
+}
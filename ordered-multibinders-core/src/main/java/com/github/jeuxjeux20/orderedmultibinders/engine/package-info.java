@@ -0,0 +1,4 @@
+/**
+ * Contains stuff for plugging in the algorithm ordering the elements of multibinders.
+ */
+package com.github.jeuxjeux20.orderedmultibinders.engine;
@@ -35,7 +35,13 @@ class DefaultBindingTargetTypeFinder
 
     @Override
     public TypeLiteral<?> visit(ProviderInstanceBinding<?> providerInstanceBinding) {
-        return TypeLiteral.get(providerInstanceBinding.getUserSuppliedProvider().getClass());
+        Object provider = providerInstanceBinding.getUserSuppliedProvider();
+
+        // Provider methods all share the same provider class, use the method's return type instead.
+        if (provider instanceof ProvidesMethodBinding<?>) {
+            return ((ProvidesMethodBinding<?>) provider).getKey().getTypeLiteral();
+        }
+        return TypeLiteral.get(provider.getClass());
     }
 
     @Override
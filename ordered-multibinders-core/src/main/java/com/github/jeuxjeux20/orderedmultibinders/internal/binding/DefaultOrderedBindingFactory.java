@@ -1,12 +1,20 @@
 package com.github.jeuxjeux20.orderedmultibinders.internal.binding;
 
+import com.github.jeuxjeux20.orderedmultibinders.IdentifiedAs;
+import com.github.jeuxjeux20.orderedmultibinders.Order;
 import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBinding;
 import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBindingTransformer;
 import com.google.common.collect.ImmutableList;
 import com.google.inject.Binding;
+import com.google.inject.Key;
 import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+import com.google.inject.spi.LinkedKeyBinding;
+import com.google.inject.spi.ProviderInstanceBinding;
+import com.google.inject.spi.ProvidesMethodBinding;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.Method;
 import java.util.List;
 
 class DefaultOrderedBindingFactory implements OrderedBindingFactory {
@@ -29,11 +37,61 @@ class DefaultOrderedBindingFactory implements OrderedBindingFactory {
 
         OrderedBinding orderedBinding = OrderedBinding.fromType(bindingTargetType, binding);
 
+        Key<?> qualifiedKey = findQualifiedKey(binding);
+        if (qualifiedKey != null) {
+            orderedBinding = orderedBinding.change(its -> its.identifierKey(qualifiedKey));
+        }
+
+        Method providerMethod = findProviderMethod(binding);
+        if (providerMethod != null) {
+            orderedBinding = applyProviderMethod(orderedBinding, providerMethod);
+        }
+
         orderedBinding = applyAllTransformers(orderedBinding);
 
         return orderedBinding;
     }
 
+    private static @Nullable Key<?> findQualifiedKey(Binding<?> binding) {
+        // Bindings linked to an annotated key are qualified, so a class can be bound multiple times.
+        if (binding instanceof LinkedKeyBinding<?>) {
+            Key<?> linkedKey = ((LinkedKeyBinding<?>) binding).getLinkedKey();
+            if (linkedKey.getAnnotationType() != null) {
+                return linkedKey;
+            }
+        }
+        return null;
+    }
+
+    private static @Nullable Method findProviderMethod(Binding<?> binding) {
+        if (binding instanceof ProviderInstanceBinding<?>) {
+            Object provider = ((ProviderInstanceBinding<?>) binding).getUserSuppliedProvider();
+            if (provider instanceof ProvidesMethodBinding<?>) {
+                return ((ProvidesMethodBinding<?>) provider).getMethod();
+            }
+        }
+        return null;
+    }
+
+    private static OrderedBinding applyProviderMethod(OrderedBinding orderedBinding, Method method) {
+        // Every provider method returning the same type would have the same identifier,
+        // so they are qualified using the method's declaring class and signature,
+        // unless they are identified using @IdentifiedAs.
+        IdentifiedAs identifiedAs = method.getAnnotation(IdentifiedAs.class);
+        Key<?> identifierKey = identifiedAs != null ?
+                Key.get(identifiedAs.value()) :
+                Key.get(orderedBinding.getIdentifier(), Names.named(ProviderMethodIdentifiers.getName(method)));
+
+        Order methodOrder = method.getAnnotation(Order.class);
+
+        return orderedBinding.change(its -> {
+            its.identifierKey(identifierKey);
+            if (methodOrder != null) {
+                its.order(methodOrder);
+            }
+        });
+    }
+
     private OrderedBinding applyAllTransformers(OrderedBinding orderedBinding) {
         for (OrderedBindingTransformer orderedBindingTransformer : orderedBindingTransformers) {
             orderedBinding = orderedBindingTransformer.transform(orderedBinding);
@@ -12,7 +12,9 @@ import org.jetbrains.annotations.Nullable;
  * The default implementation of this interface finds
  * the type using the given {@link BindingTargetTypeFinder}, returns {@code null}
  * if the type couldn't be found, else, it then creates the ordered binding using
- * {@link OrderedBinding#fromType(Class, Binding)},
+ * {@link OrderedBinding#fromType(Class, Binding)}, qualifies it with the linked key's annotation, if any,
+ * applies the @{@link com.github.jeuxjeux20.orderedmultibinders.IdentifiedAs} and
+ * @{@link com.github.jeuxjeux20.orderedmultibinders.Order} annotations of provider methods,
  * and runs all the given {@link OrderedBindingTransformer} on the result.
  */
 public interface OrderedBindingFactory {
@@ -0,0 +1,45 @@
+package com.github.jeuxjeux20.orderedmultibinders.internal.binding;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.StringJoiner;
+
+/**
+ * Names the identifiers of provider methods, using their declaring class and their signature,
+ * such as {@code com.example.HandlerModule#loggingHandler(java.lang.String)}, so provider methods
+ * of different modules, or overloaded provider methods, have different identifiers.
+ */
+public final class ProviderMethodIdentifiers {
+    private ProviderMethodIdentifiers() {
+    }
+
+    /**
+     * Returns the name of the identifier of the specified provider method.
+     *
+     * @param method the provider method
+     * @return the name of the identifier
+     */
+    public static String getName(Method method) {
+        StringJoiner parameters = new StringJoiner(",", "(", ")");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            parameters.add(parameterType.getTypeName());
+        }
+        return method.getDeclaringClass().getName() + "#" + method.getName() + parameters;
+    }
+
+    /**
+     * Returns the name of the method of the specified identifier name, if it identifies a provider method.
+     *
+     * @param name the name of the identifier
+     * @return the name of the method, or {@code null} if the name doesn't identify a provider method
+     */
+    public static @Nullable String getMethodName(String name) {
+        int separator = name.lastIndexOf('#');
+        int parameters = name.indexOf('(', separator);
+        if (separator == -1 || parameters == -1 || !name.endsWith(")")) {
+            return null;
+        }
+        return name.substring(separator + 1, parameters);
+    }
+}
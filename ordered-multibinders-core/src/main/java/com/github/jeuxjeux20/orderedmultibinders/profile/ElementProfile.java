@@ -0,0 +1,233 @@
+package com.github.jeuxjeux20.orderedmultibinders.profile;
+
+import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBinding;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * An immutable snapshot of the measured cost and short-circuit rate of elements,
+ * stored by identifier key (see {@link OrderedBinding#getIdentifierKey()}).
+ * <p>
+ * A profile can be saved to and loaded from a file using {@link #save(Path)} and {@link #load(Path)}.
+ *
+ * @see ElementProfiler
+ * @see ProfiledDefaultPositionProvider
+ */
+public final class ElementProfile {
+    /**
+     * A profile without any entry.
+     */
+    public static final ElementProfile EMPTY = new ElementProfile(ImmutableMap.of());
+
+    private final ImmutableMap<String, Entry> entries;
+
+    ElementProfile(Map<String, Entry> entries) {
+        this.entries = ImmutableMap.copyOf(entries);
+    }
+
+    /**
+     * Loads a profile from the specified file, previously written using {@link #save(Path)}.
+     *
+     * @param file the file to load the profile from
+     * @return the loaded profile
+     * @throws IOException when the file couldn't be read
+     * @throws IllegalArgumentException when the file has an invalid entry
+     */
+    public static ElementProfile load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+
+        Map<String, Entry> entries = new HashMap<>();
+        for (String identifier : properties.stringPropertyNames()) {
+            entries.put(identifier, Entry.parse(identifier, properties.getProperty(identifier)));
+        }
+
+        return new ElementProfile(entries);
+    }
+
+    /**
+     * Saves this profile to the specified file, replacing its contents.
+     *
+     * @param file the file to save this profile to
+     * @throws IOException when the file couldn't be written
+     */
+    public void save(Path file) throws IOException {
+        Properties properties = new Properties();
+        entries.forEach((identifier, entry) -> properties.setProperty(identifier, entry.format()));
+
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(writer, "OrderedMultibinders element profile");
+        }
+    }
+
+    /**
+     * Returns a new profile with the entries of this profile and the other one, where
+     * the measures of entries with the same identifier are added together.
+     *
+     * @param other the other profile
+     * @return a profile with the entries of both profiles
+     */
+    public ElementProfile merge(ElementProfile other) {
+        Map<String, Entry> merged = new HashMap<>(entries);
+        other.entries.forEach((identifier, entry) -> merged.merge(identifier, entry, Entry::plus));
+
+        return new ElementProfile(merged);
+    }
+
+    /**
+     * Gets the entry of the specified identifier, or {@code null} if there isn't any.
+     *
+     * @param identifier the identifier
+     * @return the entry of the identifier, or {@code null} if there isn't any
+     */
+    public @Nullable Entry getEntry(TypeLiteral<?> identifier) {
+        return getEntry(Key.get(identifier));
+    }
+
+    /**
+     * Gets the entry of the specified identifier key, or {@code null} if there isn't any.
+     *
+     * @param identifierKey the identifier key
+     * @return the entry of the identifier key, or {@code null} if there isn't any
+     */
+    public @Nullable Entry getEntry(Key<?> identifierKey) {
+        return entries.get(getName(identifierKey));
+    }
+
+    /**
+     * Gets the name of the entries of the specified identifier key: the identifier
+     * if the key isn't qualified, so profiles of unqualified elements keep the same names,
+     * or the key itself otherwise.
+     *
+     * @param identifierKey the identifier key
+     * @return the name of the entries of the identifier key
+     */
+    static String getName(Key<?> identifierKey) {
+        return identifierKey.getAnnotationType() == null
+                ? identifierKey.getTypeLiteral().toString()
+                : identifierKey.toString();
+    }
+
+    /**
+     * Gets all the entries of this profile, by identifier.
+     *
+     * @return all the entries of this profile
+     */
+    public ImmutableMap<String, Entry> getEntries() {
+        return entries;
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("entries", entries)
+                .toString();
+    }
+
+    /**
+     * The measures of an element.
+     */
+    public static final class Entry {
+        private final long invocations;
+        private final long totalNanos;
+        private final long shortCircuits;
+
+        /**
+         * Constructs a new {@link Entry} with the specified measures.
+         *
+         * @param invocations   the number of invocations
+         * @param totalNanos    the total time spent in all invocations, in nanoseconds
+         * @param shortCircuits the number of invocations that short-circuited the chain
+         * @throws IllegalArgumentException when a value is negative, or when there are
+         *                                  more short-circuits than invocations
+         */
+        public Entry(long invocations, long totalNanos, long shortCircuits) {
+            if (invocations < 0 || totalNanos < 0 || shortCircuits < 0 || shortCircuits > invocations) {
+                throw new IllegalArgumentException("Invalid measures: " + invocations + " invocations, " +
+                                                   totalNanos + " ns, " + shortCircuits + " short-circuits.");
+            }
+            this.invocations = invocations;
+            this.totalNanos = totalNanos;
+            this.shortCircuits = shortCircuits;
+        }
+
+        private static Entry parse(String identifier, String value) {
+            String[] parts = value.split(",");
+            try {
+                if (parts.length == 3) {
+                    return new Entry(Long.parseLong(parts[0].trim()),
+                            Long.parseLong(parts[1].trim()),
+                            Long.parseLong(parts[2].trim()));
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid profile entry for " + identifier + ": " + value, e);
+            }
+            throw new IllegalArgumentException("Invalid profile entry for " + identifier + ": " + value);
+        }
+
+        private String format() {
+            return invocations + "," + totalNanos + "," + shortCircuits;
+        }
+
+        private Entry plus(Entry other) {
+            return new Entry(invocations + other.invocations,
+                    totalNanos + other.totalNanos,
+                    shortCircuits + other.shortCircuits);
+        }
+
+        public long getInvocations() {
+            return invocations;
+        }
+
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        public long getShortCircuits() {
+            return shortCircuits;
+        }
+
+        /**
+         * Gets the mean time of an invocation, in nanoseconds, or 0 if there are no invocations.
+         *
+         * @return the mean time of an invocation, in nanoseconds
+         */
+        public double getMeanNanos() {
+            return invocations == 0 ? 0 : (double) totalNanos / invocations;
+        }
+
+        /**
+         * Gets the rate of invocations that short-circuited the chain, between 0 and 1,
+         * or 0 if there are no invocations.
+         *
+         * @return the rate of invocations that short-circuited the chain
+         */
+        public double getShortCircuitRate() {
+            return invocations == 0 ? 0 : (double) shortCircuits / invocations;
+        }
+
+        @Override
+        public String toString() {
+            return MoreObjects.toStringHelper(this)
+                    .add("invocations", invocations)
+                    .add("totalNanos", totalNanos)
+                    .add("shortCircuits", shortCircuits)
+                    .toString();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.jeuxjeux20.orderedmultibinders.profile;
+
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the invocation time and short-circuit rate of elements at runtime.
+ * <p>
+ * Elements are recorded by identifier key, which is their class unless they are
+ * identified differently (using @{@link com.github.jeuxjeux20.orderedmultibinders.IdentifiedAs} for example),
+ * qualified with the annotation of their binding, if any.
+ * <p>
+ * This class is thread-safe, recording only contends with other threads recording the same element.
+ * <p>
+ * <b>Example: </b>
+ * <pre>
+ * long start = System.nanoTime();
+ * boolean handled = handler.handle(request);
+ * profiler.record(handler.getClass(), System.nanoTime() - start, handled);
+ * </pre>
+ *
+ * @see ElementProfile
+ */
+public final class ElementProfiler {
+    private final ConcurrentHashMap<String, Measures> measures = new ConcurrentHashMap<>();
+
+    /**
+     * Records an invocation of the element with the specified identifier.
+     *
+     * @param identifier     the identifier of the element
+     * @param nanos          the time the invocation took, in nanoseconds
+     * @param shortCircuited whether or not the element stopped the chain
+     */
+    public void record(TypeLiteral<?> identifier, long nanos, boolean shortCircuited) {
+        record(Key.get(identifier), nanos, shortCircuited);
+    }
+
+    /**
+     * Records an invocation of the element with the specified identifier key,
+     * such as an element bound to a named key.
+     *
+     * @param identifierKey  the identifier key of the element
+     * @param nanos          the time the invocation took, in nanoseconds
+     * @param shortCircuited whether or not the element stopped the chain
+     * @see com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBinding#getIdentifierKey()
+     */
+    public void record(Key<?> identifierKey, long nanos, boolean shortCircuited) {
+        record(ElementProfile.getName(identifierKey), nanos, shortCircuited);
+    }
+
+    /**
+     * Records an invocation of the element with the specified class as an identifier.
+     *
+     * @param identifier     the identifier of the element, as a class
+     * @param nanos          the time the invocation took, in nanoseconds
+     * @param shortCircuited whether or not the element stopped the chain
+     */
+    public void record(Class<?> identifier, long nanos, boolean shortCircuited) {
+        record(TypeLiteral.get(identifier), nanos, shortCircuited);
+    }
+
+    private void record(String identifier, long nanos, boolean shortCircuited) {
+        Measures elementMeasures = measures.computeIfAbsent(identifier, k -> new Measures());
+
+        elementMeasures.invocations.increment();
+        elementMeasures.totalNanos.add(Math.max(nanos, 0));
+        if (shortCircuited) {
+            elementMeasures.shortCircuits.increment();
+        }
+    }
+
+    /**
+     * Creates a snapshot of everything that has been recorded.
+     *
+     * @return a profile with everything that has been recorded
+     */
+    public ElementProfile snapshot() {
+        Map<String, ElementProfile.Entry> entries = new HashMap<>();
+
+        measures.forEach((identifier, elementMeasures) -> {
+            // Sums aren't atomic snapshots, so make sure there are never more short-circuits than invocations.
+            long shortCircuits = elementMeasures.shortCircuits.sum();
+            long totalNanos = elementMeasures.totalNanos.sum();
+            long invocations = elementMeasures.invocations.sum();
+
+            entries.put(identifier,
+                    new ElementProfile.Entry(invocations, totalNanos, Math.min(shortCircuits, invocations)));
+        });
+
+        return new ElementProfile(entries);
+    }
+
+    /**
+     * Removes everything that has been recorded.
+     */
+    public void reset() {
+        measures.clear();
+    }
+
+    private static final class Measures {
+        final LongAdder invocations = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder shortCircuits = new LongAdder();
+    }
+}
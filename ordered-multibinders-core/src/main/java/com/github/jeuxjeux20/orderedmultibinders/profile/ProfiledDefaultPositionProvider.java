@@ -0,0 +1,101 @@
+package com.github.jeuxjeux20.orderedmultibinders.profile;
+
+import com.github.jeuxjeux20.orderedmultibinders.Order;
+import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBinding;
+import com.github.jeuxjeux20.orderedmultibinders.config.DefaultPositionProvider;
+import com.google.common.collect.ImmutableMap;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A {@link DefaultPositionProvider} that positions elements using an {@link ElementProfile},
+ * so a chain of elements has the lowest expected cost.
+ * <p>
+ * Every profiled element is ranked using its mean cost divided by its short-circuit rate,
+ * so cheap elements that often stop the chain come first, and elements that never
+ * stop the chain come last. Profiled elements are then given a negative position
+ * following their rank, which puts them before elements without a position.
+ * <p>
+ * Elements that aren't in the profile, or that have never been invoked, get their position
+ * from the fallback provider.
+ * <p>
+ * Note that, as with any {@link DefaultPositionProvider}, this is only used to break ties:
+ * the constraints of @{@link Order} annotations are always respected.
+ */
+public final class ProfiledDefaultPositionProvider implements DefaultPositionProvider {
+    private final ImmutableMap<String, Integer> positions;
+    private final DefaultPositionProvider fallback;
+
+    /**
+     * Constructs a new {@link ProfiledDefaultPositionProvider} using the specified profile, and
+     * {@link DefaultPositionProvider#CLOSEST} for elements that aren't profiled.
+     *
+     * @param profile the profile
+     */
+    public ProfiledDefaultPositionProvider(ElementProfile profile) {
+        this(profile, DefaultPositionProvider.CLOSEST);
+    }
+
+    /**
+     * Constructs a new {@link ProfiledDefaultPositionProvider} using the specified profile,
+     * and the specified fallback for elements that aren't profiled.
+     *
+     * @param profile  the profile
+     * @param fallback the provider used for elements that aren't profiled
+     */
+    public ProfiledDefaultPositionProvider(ElementProfile profile, DefaultPositionProvider fallback) {
+        this.positions = computePositions(requireNonNull(profile, "profile is null"));
+        this.fallback = requireNonNull(fallback, "fallback is null");
+    }
+
+    /**
+     * Creates a new {@link ProfiledDefaultPositionProvider} using the profile in the specified file.
+     *
+     * @param profileFile the profile file, written using {@link ElementProfile#save(Path)}
+     * @return a provider using the profile of the file
+     * @throws IOException when the file couldn't be read
+     */
+    public static ProfiledDefaultPositionProvider load(Path profileFile) throws IOException {
+        return new ProfiledDefaultPositionProvider(ElementProfile.load(profileFile));
+    }
+
+    private static ImmutableMap<String, Integer> computePositions(ElementProfile profile) {
+        List<Map.Entry<String, ElementProfile.Entry>> entries = new ArrayList<>();
+        for (Map.Entry<String, ElementProfile.Entry> entry : profile.getEntries().entrySet()) {
+            if (entry.getValue().getInvocations() > 0) {
+                entries.add(entry);
+            }
+        }
+
+        entries.sort(Comparator
+                .comparingDouble((Map.Entry<String, ElementProfile.Entry> e) -> rank(e.getValue()))
+                .thenComparingDouble(e -> e.getValue().getMeanNanos())
+                .thenComparing(Map.Entry::getKey));
+
+        ImmutableMap.Builder<String, Integer> builder = ImmutableMap.builder();
+        for (int i = 0; i < entries.size(); i++) {
+            builder.put(entries.get(i).getKey(), i - entries.size());
+        }
+        return builder.build();
+    }
+
+    private static double rank(ElementProfile.Entry entry) {
+        double shortCircuitRate = entry.getShortCircuitRate();
+
+        return shortCircuitRate == 0 ? Double.POSITIVE_INFINITY : entry.getMeanNanos() / shortCircuitRate;
+    }
+
+    @Override
+    public int get(OrderedBinding binding) {
+        Integer position = positions.get(ElementProfile.getName(binding.getIdentifierKey()));
+
+        return position != null ? position : fallback.get(binding);
+    }
+}
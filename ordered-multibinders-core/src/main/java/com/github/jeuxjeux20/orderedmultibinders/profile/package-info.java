@@ -0,0 +1,4 @@
+/**
+ * Contains stuff for profiling elements and positioning them using the measured profile.
+ */
+package com.github.jeuxjeux20.orderedmultibinders.profile;
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded lock-free queue supporting multiple producers and consumers, using a ring buffer where
+ * every slot has a sequence number telling whether it can be written or read.
+ *
+ * @param <E> the type of elements
+ */
+final class BoundedQueue<E> {
+    private final Object[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong enqueuePosition = new AtomicLong();
+    private final AtomicLong dequeuePosition = new AtomicLong();
+
+    BoundedQueue(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+
+        this.buffer = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    boolean offer(E element) {
+        long position = enqueuePosition.get();
+        int index;
+        while (true) {
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (enqueuePosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = enqueuePosition.get();
+            } else if (difference < 0) {
+                return false; // The slot still holds an element from the previous lap: the queue is full.
+            } else {
+                position = enqueuePosition.get();
+            }
+        }
+
+        buffer[index] = element;
+        // Publishes the element to the consumer reading this sequence.
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Nullable E poll() {
+        long position = dequeuePosition.get();
+        int index;
+        while (true) {
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+
+            if (difference == 0) {
+                if (dequeuePosition.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = dequeuePosition.get();
+            } else if (difference < 0) {
+                return null; // The slot hasn't been written yet: the queue is empty.
+            } else {
+                position = dequeuePosition.get();
+            }
+        }
+
+        E element = (E) buffer[index];
+        buffer[index] = null;
+        // Frees the slot for the producer of the next lap.
+        sequences.lazySet(index, position + mask + 1);
+        return element;
+    }
+
+    boolean isEmpty() {
+        return dequeuePosition.get() >= enqueuePosition.get();
+    }
+
+    boolean isFull() {
+        return enqueuePosition.get() - dequeuePosition.get() >= buffer.length;
+    }
+
+    int capacity() {
+        return buffer.length;
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.github.jeuxjeux20.orderedmultibinders.Order;
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.Multibinder;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Invokes the elements of a sorted {@link Multibinder} in order, skipping optional elements under load.
+ * <p>
+ * Elements are optional when their identifier is annotated with @{@link Sheddable}.
+ * Before every invocation, the {@link LoadSignal} gives a cutoff, and optional elements with a shed priority
+ * greater than or equal to the cutoff are skipped.
+ * <p>
+ * However, an optional element is never skipped when a mandatory element is ordered after it using @{@link Order}
+ * (directly or through other elements), as the mandatory element might depend on it.
+ *
+ * @param <T> the type of elements
+ */
+public final class LoadSheddingInvoker<T> {
+    private final ImmutableList<T> elements;
+    private final boolean[] sheddable;
+    private final int[] priorities;
+    private final LoadSignal loadSignal;
+
+    private LoadSheddingInvoker(Builder<T> builder) {
+        this.elements = builder.elements;
+        this.loadSignal = builder.loadSignal;
+
+        OrderedStructure<T> structure = builder.structure;
+        int size = structure.size();
+        this.sheddable = new boolean[size];
+        this.priorities = new int[size];
+
+        for (int i = 0; i < size; i++) {
+            Sheddable annotation = getAnnotation(structure.getIdentifier(i));
+            if (annotation != null) {
+                sheddable[i] = true;
+                priorities[i] = annotation.priority();
+            }
+        }
+
+        // Successors always come after their predecessors, so going backwards
+        // protects all the predecessors of a mandatory element in a single pass.
+        for (int i = size - 1; i >= 0; i--) {
+            if (!sheddable[i]) {
+                for (int predecessor : structure.explicitPredecessorsUnsafe(i)) {
+                    sheddable[predecessor] = false;
+                }
+            }
+        }
+    }
+
+    private static @Nullable Sheddable getAnnotation(TypeLiteral<?> identifier) {
+        return identifier.getRawType().getAnnotation(Sheddable.class);
+    }
+
+    /**
+     * Creates a new builder invoking the specified elements, which are the elements of a multibinder
+     * with the specified structure.
+     *
+     * @param elements  the elements, in the sorted order
+     * @param structure the structure of the elements
+     * @param <T>       the type of elements
+     * @return a new builder
+     * @throws IllegalArgumentException when the elements don't match the structure
+     */
+    public static <T> Builder<T> builder(Iterable<? extends T> elements, OrderedStructure<T> structure) {
+        return new Builder<>(elements, structure);
+    }
+
+    /**
+     * Runs the specified action on every element that isn't skipped with the current cutoff, in order.
+     *
+     * @param action the action to run on every element
+     * @return the number of skipped elements
+     */
+    @CanIgnoreReturnValue
+    public int invoke(Consumer<? super T> action) {
+        int cutoff = loadSignal.getCutoff();
+        if (cutoff == Integer.MAX_VALUE) {
+            elements.forEach(action);
+            return 0;
+        }
+
+        int skipped = 0;
+        for (int i = 0; i < elements.size(); i++) {
+            if (isSkipped(i, cutoff)) {
+                skipped++;
+            } else {
+                action.accept(elements.get(i));
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * Returns whether or not the element at the specified index can be skipped.
+     * <p>
+     * This is {@code false} for mandatory elements, and for optional elements
+     * a mandatory element is explicitly ordered after.
+     *
+     * @param index the index of the element
+     * @return {@code true} if the element can be skipped, otherwise {@code false}
+     */
+    public boolean isSheddable(int index) {
+        return sheddable[index];
+    }
+
+    private boolean isSkipped(int index, int cutoff) {
+        return sheddable[index] && priorities[index] >= cutoff;
+    }
+
+    /**
+     * The builder for {@link LoadSheddingInvoker}.
+     *
+     * @param <T> the type of elements
+     */
+    public static final class Builder<T> {
+        private final ImmutableList<T> elements;
+        private final OrderedStructure<T> structure;
+        private LoadSignal loadSignal = LoadSignal.NONE;
+
+        private Builder(Iterable<? extends T> elements, OrderedStructure<T> structure) {
+            requireNonNull(structure, "structure is null").checkElements(elements);
+
+            this.elements = ImmutableList.copyOf(elements);
+            this.structure = structure;
+        }
+
+        /**
+         * Sets the load signal giving the cutoff before every invocation.
+         * <p>
+         * The default value is {@link LoadSignal#NONE}, which never skips any element.
+         *
+         * @param loadSignal the load signal
+         * @return the same builder
+         */
+        @CanIgnoreReturnValue
+        public Builder<T> loadSignal(LoadSignal loadSignal) {
+            this.loadSignal = requireNonNull(loadSignal, "loadSignal is null");
+            return this;
+        }
+
+        /**
+         * Builds an invoker using the values of this builder.
+         *
+         * @return a {@link LoadSheddingInvoker} with the values of this builder
+         */
+        public LoadSheddingInvoker<T> build() {
+            return new LoadSheddingInvoker<>(this);
+        }
+    }
+}
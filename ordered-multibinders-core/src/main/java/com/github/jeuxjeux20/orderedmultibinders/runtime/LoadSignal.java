@@ -0,0 +1,26 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+/**
+ * Tells a {@link LoadSheddingInvoker} which optional elements to skip, depending on the current load,
+ * such as the depth of a queue or an average latency.
+ *
+ * @see LoadSheddingInvoker
+ */
+@FunctionalInterface
+public interface LoadSignal {
+    /**
+     * A load signal never skipping any element.
+     */
+    LoadSignal NONE = () -> Integer.MAX_VALUE;
+
+    /**
+     * Returns the cutoff: optional elements with a {@linkplain Sheddable#priority() shed priority}
+     * greater than or equal to this value are skipped.
+     * <p>
+     * This is called before every invocation, so it should be cheap to compute.
+     * {@link Integer#MAX_VALUE} skips no element.
+     *
+     * @return the cutoff
+     */
+    int getCutoff();
+}
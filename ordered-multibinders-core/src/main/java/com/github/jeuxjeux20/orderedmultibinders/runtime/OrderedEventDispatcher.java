@@ -0,0 +1,124 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.github.jeuxjeux20.orderedmultibinders.Order;
+import com.github.jeuxjeux20.orderedmultibinders.OrderedMultibinders;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.google.inject.multibindings.Multibinder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Dispatches events to the {@link OrderedEventListener}s of a sorted {@link Multibinder},
+ * in the order of the multibinder.
+ * <p>
+ * The listeners receiving a specific event class are computed once and cached in an array, so
+ * dispatching doesn't allocate anything nor check the type of every listener.
+ * <p>
+ * This class can be injected when the multibinder of {@code OrderedEventListener<?>} is
+ * sorted using {@link OrderedMultibinders}, so @{@link Order} annotations
+ * decide which listeners come first:
+ * <pre>
+ * Multibinder.newSetBinder(binder(), new TypeLiteral&lt;OrderedEventListener&lt;?&gt;&gt;() {})
+ *         .addBinding().to(SomeListener.class);
+ * </pre>
+ */
+@Singleton
+public final class OrderedEventDispatcher {
+    private static final OrderedEventListener<?>[] NO_LISTENERS = new OrderedEventListener<?>[0];
+
+    private final ImmutableList<OrderedEventListener<?>> listeners;
+    private volatile ListenerTable listenerTable;
+
+    /**
+     * Constructs a new {@link OrderedEventDispatcher} dispatching events to the specified listeners,
+     * in their iteration order.
+     *
+     * @param listeners the listeners
+     */
+    @Inject
+    public OrderedEventDispatcher(Set<OrderedEventListener<?>> listeners) {
+        this((Iterable<OrderedEventListener<?>>) listeners);
+    }
+
+    private OrderedEventDispatcher(Iterable<? extends OrderedEventListener<?>> listeners) {
+        this.listeners = ImmutableList.copyOf(listeners);
+        this.listenerTable = new ListenerTable(this.listeners);
+    }
+
+    /**
+     * Creates a new {@link OrderedEventDispatcher} dispatching events to the specified listeners,
+     * in their iteration order.
+     *
+     * @param listeners the listeners
+     * @return a dispatcher dispatching events to the specified listeners
+     */
+    public static OrderedEventDispatcher of(Iterable<? extends OrderedEventListener<?>> listeners) {
+        return new OrderedEventDispatcher(listeners);
+    }
+
+    /**
+     * Dispatches the specified event to every listener receiving its class, in order.
+     *
+     * @param event the event to dispatch
+     */
+    @SuppressWarnings("unchecked")
+    public void dispatch(Object event) {
+        OrderedEventListener<Object>[] eventListeners =
+                (OrderedEventListener<Object>[]) listenerTable.get(event.getClass());
+
+        for (OrderedEventListener<Object> listener : eventListeners) {
+            listener.onEvent(event);
+        }
+    }
+
+    /**
+     * Gets the listeners receiving the specified event class, in order.
+     *
+     * @param eventClass the event class
+     * @return the listeners receiving the specified event class
+     */
+    public List<OrderedEventListener<?>> getListeners(Class<?> eventClass) {
+        return ImmutableList.copyOf(listenerTable.get(eventClass));
+    }
+
+    /**
+     * Gets all the listeners, in order.
+     *
+     * @return all the listeners
+     */
+    public ImmutableList<OrderedEventListener<?>> getListeners() {
+        return listeners;
+    }
+
+    /**
+     * Clears the cached listeners of every event class, they will be computed again
+     * on the next dispatch.
+     */
+    public void invalidate() {
+        listenerTable = new ListenerTable(listeners);
+    }
+
+    private static final class ListenerTable extends ClassValue<OrderedEventListener<?>[]> {
+        private final ImmutableList<OrderedEventListener<?>> listeners;
+
+        ListenerTable(ImmutableList<OrderedEventListener<?>> listeners) {
+            this.listeners = listeners;
+        }
+
+        @Override
+        protected OrderedEventListener<?>[] computeValue(Class<?> eventClass) {
+            List<OrderedEventListener<?>> eventListeners = new ArrayList<>();
+            for (OrderedEventListener<?> listener : listeners) {
+                if (listener.getEventType().isAssignableFrom(eventClass)) {
+                    eventListeners.add(listener);
+                }
+            }
+
+            return eventListeners.isEmpty() ? NO_LISTENERS : eventListeners.toArray(NO_LISTENERS);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+/**
+ * A listener of events of a specific type, dispatched by an {@link OrderedEventDispatcher}.
+ *
+ * @param <E> the type of events this listener receives
+ * @see OrderedEventDispatcher
+ */
+public interface OrderedEventListener<E> {
+    /**
+     * Returns the type of events this listener receives, which includes its subclasses.
+     * <p>
+     * This value should never change, as it is cached by the {@link OrderedEventDispatcher}.
+     *
+     * @return the type of events this listener receives
+     */
+    Class<E> getEventType();
+
+    /**
+     * Handles the specified event.
+     *
+     * @param event the event
+     */
+    void onEvent(E event);
+}
@@ -0,0 +1,224 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.github.jeuxjeux20.orderedmultibinders.OrderedMultibinders;
+import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBinding;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.util.Types;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An index of the elements of a sorted {@link Multibinder} by their identifier
+ * (see {@link OrderedBinding#getIdentifierKey()}), giving elements, positions, and the elements before or after
+ * another one in constant time.
+ * <p>
+ * Methods taking a class or a {@link TypeLiteral} look up unqualified identifiers, and methods taking
+ * a {@link Key} look up identifiers qualified with the key's annotation.
+ * <p>
+ * {@link OrderedMultibinders} binds a singleton index for every multibinder it sorts,
+ * using the set key's annotation, so it can be injected
+ * along with the set (such as {@code OrderedIndex<Handler>} for a {@code Set<Handler>}).
+ *
+ * @param <T> the type of the multibinder's elements
+ */
+public final class OrderedIndex<T> {
+    private final ImmutableList<T> elements;
+    private final OrderedStructure<T> structure;
+    private final ImmutableMap<Key<?>, Integer> indexes;
+
+    /**
+     * Constructs a new {@link OrderedIndex} of the specified elements, which are the elements of a multibinder
+     * with the specified structure.
+     *
+     * @param elements  the elements, in the sorted order
+     * @param structure the structure of the elements
+     * @throws IllegalArgumentException when the elements don't match the structure
+     */
+    public OrderedIndex(Iterable<? extends T> elements, OrderedStructure<T> structure) {
+        requireNonNull(structure, "structure is null").checkElements(elements);
+
+        this.elements = ImmutableList.copyOf(elements);
+        this.structure = structure;
+
+        ImmutableMap.Builder<Key<?>, Integer> indexesBuilder = ImmutableMap.builder();
+        for (int i = 0; i < structure.size(); i++) {
+            indexesBuilder.put(structure.getIdentifierKey(i), i);
+        }
+        this.indexes = indexesBuilder.build();
+    }
+
+    /**
+     * Returns the key of the index of the multibinder with the specified set key.
+     *
+     * @param setKey the set key of the multibinder
+     * @param <T>    the type of the multibinder's elements
+     * @return the key of the multibinder's index
+     * @throws IllegalArgumentException when the key isn't a key of a set
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Key<OrderedIndex<T>> keyFor(Key<? extends Set<T>> setKey) {
+        return (Key<OrderedIndex<T>>) setKey.ofType(
+                Types.newParameterizedType(OrderedIndex.class, OrderedStructure.getElementType(setKey)));
+    }
+
+    /**
+     * Gets the index of the element with the specified identifier key, or -1 if there isn't any.
+     *
+     * @param identifierKey the identifier key
+     * @return the index of the element, or -1 if there isn't any
+     */
+    public int indexOf(Key<?> identifierKey) {
+        Integer index = indexes.get(identifierKey);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Gets the index of the element with the specified identifier, or -1 if there isn't any.
+     *
+     * @param identifier the identifier
+     * @return the index of the element, or -1 if there isn't any
+     */
+    public int indexOf(TypeLiteral<?> identifier) {
+        return indexOf(Key.get(identifier));
+    }
+
+    /**
+     * Gets the index of the element with the specified identifier, or -1 if there isn't any.
+     *
+     * @param identifier the identifier, as a class
+     * @return the index of the element, or -1 if there isn't any
+     */
+    public int indexOf(Class<?> identifier) {
+        return indexOf(TypeLiteral.get(identifier));
+    }
+
+    /**
+     * Gets the element with the specified identifier, or {@code null} if there isn't any.
+     *
+     * @param identifier the identifier
+     * @return the element with the specified identifier, or {@code null} if there isn't any
+     */
+    public @Nullable T get(TypeLiteral<?> identifier) {
+        return get(Key.get(identifier));
+    }
+
+    /**
+     * Gets the element with the specified identifier key, or {@code null} if there isn't any.
+     *
+     * @param identifierKey the identifier key
+     * @return the element with the specified identifier key, or {@code null} if there isn't any
+     */
+    public @Nullable T get(Key<?> identifierKey) {
+        int index = indexOf(identifierKey);
+        return index == -1 ? null : elements.get(index);
+    }
+
+    /**
+     * Gets the element with the specified identifier, or {@code null} if there isn't any.
+     *
+     * @param identifier the identifier, as a class
+     * @return the element with the specified identifier, or {@code null} if there isn't any
+     */
+    public @Nullable T get(Class<?> identifier) {
+        return get(TypeLiteral.get(identifier));
+    }
+
+    /**
+     * Gets the elements coming before the element with the specified identifier, in order.
+     *
+     * @param identifier the identifier
+     * @return the elements before the element with the specified identifier
+     * @throws IllegalArgumentException when there isn't any element with the specified identifier
+     */
+    public ImmutableList<T> before(TypeLiteral<?> identifier) {
+        return before(Key.get(identifier));
+    }
+
+    /**
+     * Gets the elements coming before the element with the specified identifier key, in order.
+     *
+     * @param identifierKey the identifier key
+     * @return the elements before the element with the specified identifier key
+     * @throws IllegalArgumentException when there isn't any element with the specified identifier key
+     */
+    public ImmutableList<T> before(Key<?> identifierKey) {
+        return elements.subList(0, requireIndex(identifierKey));
+    }
+
+    /**
+     * Gets the elements coming before the element with the specified identifier, in order.
+     *
+     * @param identifier the identifier, as a class
+     * @return the elements before the element with the specified identifier
+     * @throws IllegalArgumentException when there isn't any element with the specified identifier
+     */
+    public ImmutableList<T> before(Class<?> identifier) {
+        return before(TypeLiteral.get(identifier));
+    }
+
+    /**
+     * Gets the elements coming after the element with the specified identifier, in order.
+     *
+     * @param identifier the identifier
+     * @return the elements after the element with the specified identifier
+     * @throws IllegalArgumentException when there isn't any element with the specified identifier
+     */
+    public ImmutableList<T> after(TypeLiteral<?> identifier) {
+        return after(Key.get(identifier));
+    }
+
+    /**
+     * Gets the elements coming after the element with the specified identifier key, in order.
+     *
+     * @param identifierKey the identifier key
+     * @return the elements after the element with the specified identifier key
+     * @throws IllegalArgumentException when there isn't any element with the specified identifier key
+     */
+    public ImmutableList<T> after(Key<?> identifierKey) {
+        return elements.subList(requireIndex(identifierKey) + 1, elements.size());
+    }
+
+    /**
+     * Gets the elements coming after the element with the specified identifier, in order.
+     *
+     * @param identifier the identifier, as a class
+     * @return the elements after the element with the specified identifier
+     * @throws IllegalArgumentException when there isn't any element with the specified identifier
+     */
+    public ImmutableList<T> after(Class<?> identifier) {
+        return after(TypeLiteral.get(identifier));
+    }
+
+    /**
+     * Gets all the elements, in order.
+     *
+     * @return all the elements
+     */
+    public ImmutableList<T> getElements() {
+        return elements;
+    }
+
+    /**
+     * Gets the structure of the elements.
+     *
+     * @return the structure of the elements
+     */
+    public OrderedStructure<T> getStructure() {
+        return structure;
+    }
+
+    private int requireIndex(Key<?> identifierKey) {
+        int index = indexOf(identifierKey);
+        if (index == -1) {
+            throw new IllegalArgumentException("No element is identified by " + identifierKey + ".");
+        }
+        return index;
+    }
+}
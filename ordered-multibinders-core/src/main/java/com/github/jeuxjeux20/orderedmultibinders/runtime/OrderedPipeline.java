@@ -0,0 +1,502 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.github.jeuxjeux20.orderedmultibinders.Order;
+import com.github.jeuxjeux20.orderedmultibinders.OrderedMultibinders;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.inject.multibindings.Multibinder;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Processes items through the {@link OrderedStage}s of a sorted {@link Multibinder}, with every stage
+ * (or group of consecutive stages) running on its own worker thread.
+ * <p>
+ * Workers are connected by bounded lock-free queues: when a queue is full, the previous worker
+ * (or the thread submitting items) waits until there is some space, so a slow stage slows down
+ * the whole pipeline instead of accumulating items. Idle workers, and threads waiting for some space,
+ * briefly spin and then park until they are signalled.
+ * <p>
+ * Every worker processes the items of its queue in order, so items leave the pipeline in the order
+ * they were submitted. Stages returning a {@linkplain OrderedStage#getMaxBatchSize() maximum batch size}
+ * greater than 1 receive the items available in their queue in batches.
+ * <p>
+ * The stages are used in their iteration order, so, when the multibinder is sorted
+ * using {@link OrderedMultibinders}, @{@link Order} annotations decide which stages come first:
+ * <pre>
+ * OrderedPipeline&lt;Message&gt; pipeline = OrderedPipeline.builder(stages) // A Set&lt;OrderedStage&lt;Message&gt;&gt;
+ *         .sink(messages::add)
+ *         .build();
+ * pipeline.submit(message);
+ * </pre>
+ *
+ * @param <T> the type of items
+ */
+public final class OrderedPipeline<T> implements AutoCloseable {
+    private static final int SPINS_BEFORE_PARKING = 100;
+    private static final ThreadFactory DEFAULT_THREAD_FACTORY = new ThreadFactoryBuilder()
+            .setNameFormat("ordered-pipeline-worker-%d")
+            .setDaemon(true)
+            .build();
+
+    private final ImmutableList<Worker<T>> workers;
+    private final Worker<T> input;
+    private volatile boolean closed;
+
+    private OrderedPipeline(Builder<T> builder) {
+        List<List<OrderedStage<T>>> groups = Lists.partition(builder.stages, builder.stagesPerWorker);
+        List<Worker<T>> reversedWorkers = new ArrayList<>();
+
+        Worker<T> next = null;
+        // Create workers from the last one, as every worker needs its successor.
+        for (List<OrderedStage<T>> group : Lists.reverse(groups)) {
+            next = new Worker<>(group, builder.queueCapacity, next, builder.sink, builder.errorHandler);
+            reversedWorkers.add(next);
+        }
+
+        this.workers = ImmutableList.copyOf(Lists.reverse(reversedWorkers));
+        this.input = this.workers.get(0);
+
+        for (Worker<T> worker : this.workers) {
+            worker.thread = builder.threadFactory.newThread(worker);
+        }
+        for (Worker<T> worker : this.workers) {
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Creates a new builder processing items through the specified stages, in their iteration order.
+     *
+     * @param stages the stages, in order
+     * @param <T>    the type of items
+     * @return a new builder
+     */
+    public static <T> Builder<T> builder(Iterable<? extends OrderedStage<T>> stages) {
+        return new Builder<>(stages);
+    }
+
+    /**
+     * Submits the specified item to the pipeline, waiting until there is some space in the first queue.
+     *
+     * @param item the item
+     * @throws IllegalStateException when the pipeline is closed
+     */
+    public void submit(T item) {
+        requireNonNull(item, "item is null");
+
+        if (closed) {
+            throw new IllegalStateException("The pipeline is closed.");
+        }
+
+        input.put(item);
+    }
+
+    /**
+     * Submits the specified item to the pipeline, unless the first queue is full.
+     *
+     * @param item the item
+     * @return {@code true} if the item has been submitted, {@code false} if the first queue is full
+     * @throws IllegalStateException when the pipeline is closed
+     */
+    public boolean trySubmit(T item) {
+        requireNonNull(item, "item is null");
+        if (closed) {
+            throw new IllegalStateException("The pipeline is closed.");
+        }
+
+        return input.tryPut(item);
+    }
+
+    /**
+     * Gets the number of workers.
+     *
+     * @return the number of workers
+     */
+    public int getWorkerCount() {
+        return workers.size();
+    }
+
+    /**
+     * Closes this pipeline, and waits for the submitted items to go through every stage.
+     * <p>
+     * Submitting items concurrently with this method might lose them.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        input.finishUpstream();
+
+        boolean interrupted = false;
+        for (Worker<T> worker : workers) {
+            while (true) {
+                try {
+                    worker.thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Worker<T> implements Runnable {
+        final BoundedQueue<T> queue;
+        volatile boolean upstreamDone;
+        Thread thread;
+
+        private volatile boolean waitingForItems;
+        private final Queue<Thread> threadsWaitingForSpace = new ConcurrentLinkedQueue<>();
+
+        private final ImmutableList<OrderedStage<T>> stages;
+        private final Worker<T> next;
+        private final Consumer<? super T> sink;
+        private final BiConsumer<? super T, ? super Throwable> errorHandler;
+        private final Batch<T> batch;
+
+        Worker(List<OrderedStage<T>> stages, int queueCapacity, Worker<T> next,
+               Consumer<? super T> sink, BiConsumer<? super T, ? super Throwable> errorHandler) {
+            this.stages = ImmutableList.copyOf(stages);
+            this.queue = new BoundedQueue<>(queueCapacity);
+            this.next = next;
+            this.sink = sink;
+            this.errorHandler = errorHandler;
+
+            int maxBatchSize = 1;
+            for (OrderedStage<T> stage : stages) {
+                maxBatchSize = Math.max(maxBatchSize, stage.getMaxBatchSize());
+            }
+            this.batch = new Batch<>(Math.min(maxBatchSize, queue.capacity()));
+        }
+
+        @Override
+        public void run() {
+            try {
+                int idleCount = 0;
+                while (true) {
+                    // Read the flag before polling, so items submitted before closing are never missed.
+                    boolean done = upstreamDone;
+
+                    if (fillBatch()) {
+                        idleCount = 0;
+                        processBatch();
+                    } else if (done && queue.isEmpty()) {
+                        break;
+                    } else {
+                        idleCount = awaitItems(idleCount);
+                    }
+                }
+            } finally {
+                // Even if the worker fails, the next one must finish, so the pipeline can be closed.
+                if (next != null) {
+                    next.finishUpstream();
+                }
+            }
+        }
+
+        void put(T item) {
+            int idleCount = 0;
+            while (!queue.offer(item)) {
+                idleCount = awaitSpace(idleCount);
+            }
+            signalItems();
+        }
+
+        boolean tryPut(T item) {
+            if (queue.offer(item)) {
+                signalItems();
+                return true;
+            }
+            return false;
+        }
+
+        void finishUpstream() {
+            upstreamDone = true;
+            signalItems();
+        }
+
+        private void signalItems() {
+            if (waitingForItems) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        private int awaitItems(int idleCount) {
+            if (idleCount < SPINS_BEFORE_PARKING) {
+                Thread.yield();
+            } else {
+                // Check again after publishing the flag, so an item offered meanwhile always signals this worker.
+                waitingForItems = true;
+                if (queue.isEmpty() && !upstreamDone) {
+                    LockSupport.park(this);
+                }
+                waitingForItems = false;
+            }
+            return idleCount + 1;
+        }
+
+        private int awaitSpace(int idleCount) {
+            if (idleCount < SPINS_BEFORE_PARKING) {
+                Thread.yield();
+            } else {
+                Thread currentThread = Thread.currentThread();
+                threadsWaitingForSpace.add(currentThread);
+                if (queue.isFull()) {
+                    LockSupport.park(this);
+                }
+                threadsWaitingForSpace.remove(currentThread);
+            }
+            return idleCount + 1;
+        }
+
+        private boolean fillBatch() {
+            batch.size = 0;
+            T item;
+            while (batch.size < batch.items.length && (item = queue.poll()) != null) {
+                batch.items[batch.size++] = item;
+            }
+
+            if (batch.size != 0 && !threadsWaitingForSpace.isEmpty()) {
+                for (Thread waitingThread : threadsWaitingForSpace) {
+                    LockSupport.unpark(waitingThread);
+                }
+            }
+            return batch.size != 0;
+        }
+
+        private void processBatch() {
+            int emitted = 0;
+            try {
+                for (OrderedStage<T> stage : stages) {
+                    if (stage.getMaxBatchSize() > 1) {
+                        processInBatches(stage);
+                    } else {
+                        for (int i = 0; i < batch.size; i++) {
+                            batch.set(i, stage.process(batch.get(i)));
+                        }
+                    }
+                }
+                while (emitted < batch.size) {
+                    emit(batch.get(emitted));
+                    emitted++;
+                }
+            } catch (Throwable e) {
+                // Items already given to the next worker or to the sink didn't fail.
+                for (int i = emitted; i < batch.size; i++) {
+                    handleError(batch.get(i), e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+
+        private void handleError(T item, Throwable e) {
+            try {
+                errorHandler.accept(item, e);
+            } catch (Throwable handlerException) {
+                handlerException.addSuppressed(e);
+                Thread currentThread = Thread.currentThread();
+                currentThread.getUncaughtExceptionHandler().uncaughtException(currentThread, handlerException);
+            }
+        }
+
+        private void processInBatches(OrderedStage<T> stage) {
+            int stageBatchSize = stage.getMaxBatchSize();
+            if (stageBatchSize >= batch.size) {
+                stage.processBatch(batch);
+            } else {
+                for (int start = 0; start < batch.size; start += stageBatchSize) {
+                    stage.processBatch(batch.subList(start, Math.min(batch.size, start + stageBatchSize)));
+                }
+            }
+        }
+
+        private void emit(T item) {
+            if (next == null) {
+                sink.accept(item);
+            } else {
+                next.put(item);
+            }
+        }
+    }
+
+    private static final class Batch<T> extends AbstractList<T> implements RandomAccess {
+        final Object[] items;
+        int size;
+
+        Batch(int capacity) {
+            this.items = new Object[capacity];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T get(int index) {
+            checkIndex(index);
+            return (T) items[index];
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public T set(int index, T element) {
+            checkIndex(index);
+            T previous = (T) items[index];
+            items[index] = requireNonNull(element, "element is null");
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            for (int i = 0; i < size; i++) {
+                items[i] = null;
+            }
+            size = 0;
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+            }
+        }
+    }
+
+    /**
+     * The builder for {@link OrderedPipeline}.
+     *
+     * @param <T> the type of items
+     */
+    public static final class Builder<T> {
+        private final ImmutableList<OrderedStage<T>> stages;
+        private Consumer<? super T> sink = item -> {};
+        private BiConsumer<? super T, ? super Throwable> errorHandler = (item, e) -> {
+            Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        };
+        private ThreadFactory threadFactory = DEFAULT_THREAD_FACTORY;
+        private int queueCapacity = 1024;
+        private int stagesPerWorker = 1;
+
+        private Builder(Iterable<? extends OrderedStage<T>> stages) {
+            this.stages = ImmutableList.copyOf(requireNonNull(stages, "stages is null"));
+            if (this.stages.isEmpty()) {
+                throw new IllegalArgumentException("There are no stages.");
+            }
+        }
+
+        /**
+         * Sets the consumer receiving the items going out of the last stage, on the last worker's thread.
+         * <p>
+         * By default, items are discarded.
+         *
+         * @param sink the consumer receiving the processed items
+         * @return the same builder
+         */
+        @CanIgnoreReturnValue
+        public Builder<T> sink(Consumer<? super T> sink) {
+            this.sink = requireNonNull(sink, "sink is null");
+            return this;
+        }
+
+        /**
+         * Sets the handler receiving the items that failed to be processed, with the exception thrown.
+         * When a stage fails to process a batch, every item of the batch fails, except the ones already given
+         * to the next stage or to the sink.
+         * <p>
+         * Exceptions thrown by the handler are given to the worker's uncaught exception handler,
+         * and don't stop the worker.
+         * <p>
+         * By default, the exception is given to the worker's uncaught exception handler.
+         *
+         * @param errorHandler the handler receiving failed items
+         * @return the same builder
+         */
+        @CanIgnoreReturnValue
+        public Builder<T> errorHandler(BiConsumer<? super T, ? super Throwable> errorHandler) {
+            this.errorHandler = requireNonNull(errorHandler, "errorHandler is null");
+            return this;
+        }
+
+        /**
+         * Sets the thread factory creating the worker threads.
+         * <p>
+         * By default, workers run on daemon threads, so a pipeline that isn't closed doesn't prevent
+         * the JVM from exiting.
+         *
+         * @param threadFactory the thread factory
+         * @return the same builder
+         */
+        @CanIgnoreReturnValue
+        public Builder<T> threadFactory(ThreadFactory threadFactory) {
+            this.threadFactory = requireNonNull(threadFactory, "threadFactory is null");
+            return this;
+        }
+
+        /**
+         * Sets the capacity of every queue, which is rounded up to a power of two.
+         * <p>
+         * The default value is 1024.
+         *
+         * @param queueCapacity the capacity of every queue
+         * @return the same builder
+         * @throws IllegalArgumentException when the value isn't positive
+         */
+        @CanIgnoreReturnValue
+        public Builder<T> queueCapacity(int queueCapacity) {
+            if (queueCapacity < 1) {
+                throw new IllegalArgumentException("queueCapacity must be positive: " + queueCapacity);
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Sets the number of consecutive stages running on the same worker.
+         * <p>
+         * The default value is 1, so every stage has its own worker.
+         *
+         * @param stagesPerWorker the number of consecutive stages running on the same worker
+         * @return the same builder
+         * @throws IllegalArgumentException when the value isn't positive
+         */
+        @CanIgnoreReturnValue
+        public Builder<T> stagesPerWorker(int stagesPerWorker) {
+            if (stagesPerWorker < 1) {
+                throw new IllegalArgumentException("stagesPerWorker must be positive: " + stagesPerWorker);
+            }
+            this.stagesPerWorker = stagesPerWorker;
+            return this;
+        }
+
+        /**
+         * Builds a pipeline using the values of this builder, and starts its workers.
+         *
+         * @return an {@link OrderedPipeline} with the values of this builder
+         */
+        public OrderedPipeline<T> build() {
+            return new OrderedPipeline<>(this);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.github.jeuxjeux20.orderedmultibinders.RedirectedByGenericParameter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.inject.multibindings.Multibinder;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Selects the first element of a sorted {@link Multibinder} supporting a specific key,
+ * such as the first factory supporting a type.
+ * <p>
+ * The selected element of every key is memoized in a bounded cache, which doesn't lock on reads,
+ * so only the first selection of a key goes through all the elements.
+ * <p>
+ * When elements are associated with an exact key (such as factories of a specific type,
+ * using @{@link RedirectedByGenericParameter}), the selected elements of these keys
+ * are computed upfront using {@link Builder#exactKey(Function)}.
+ *
+ * @param <K> the type of keys
+ * @param <T> the type of elements
+ */
+public final class OrderedSelector<K, T> {
+    /**
+     * The default maximum number of keys whose selected element is memoized.
+     */
+    public static final long DEFAULT_MAXIMUM_CACHE_SIZE = 1024;
+
+    private final ImmutableList<T> elements;
+    private final BiPredicate<? super T, ? super K> supports;
+    private final ImmutableMap<K, T> precomputed;
+    private final Cache<K, Optional<T>> cache;
+
+    private OrderedSelector(Builder<K, T> builder) {
+        this.elements = builder.elements;
+        this.supports = builder.supports;
+        this.precomputed = precompute(builder.exactKey);
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(builder.maximumCacheSize)
+                .build();
+    }
+
+    /**
+     * Creates a new builder selecting from the specified elements in their iteration order,
+     * using the specified predicate to know whether or not an element supports a key.
+     *
+     * @param elements the elements, in order
+     * @param supports the predicate returning whether or not an element supports a key
+     * @param <K>      the type of keys
+     * @param <T>      the type of elements
+     * @return a new builder
+     */
+    public static <K, T> Builder<K, T> builder(Iterable<? extends T> elements,
+                                               BiPredicate<? super T, ? super K> supports) {
+        return new Builder<>(elements, supports);
+    }
+
+    /**
+     * Creates a new {@link OrderedSelector} selecting from the specified elements in their iteration order,
+     * using the specified predicate to know whether or not an element supports a key.
+     *
+     * @param elements the elements, in order
+     * @param supports the predicate returning whether or not an element supports a key
+     * @param <K>      the type of keys
+     * @param <T>      the type of elements
+     * @return a new selector
+     */
+    public static <K, T> OrderedSelector<K, T> of(Iterable<? extends T> elements,
+                                                  BiPredicate<? super T, ? super K> supports) {
+        return OrderedSelector.<K, T>builder(elements, supports).build();
+    }
+
+    private ImmutableMap<K, T> precompute(@Nullable Function<? super T, ? extends K> exactKey) {
+        if (exactKey == null) {
+            return ImmutableMap.of();
+        }
+
+        Map<K, T> selected = new HashMap<>();
+        for (T element : elements) {
+            K key = exactKey.apply(element);
+
+            if (key != null && !selected.containsKey(key)) {
+                // Another element might come first and support this key.
+                T selectedElement = scan(key);
+                if (selectedElement != null) {
+                    selected.put(key, selectedElement);
+                }
+            }
+        }
+        return ImmutableMap.copyOf(selected);
+    }
+
+    /**
+     * Selects the first element supporting the specified key, or returns {@code null} if there isn't any.
+     *
+     * @param key the key
+     * @return the first element supporting the key, or {@code null} if there isn't any
+     */
+    public @Nullable T select(K key) {
+        return find(key).orElse(null);
+    }
+
+    /**
+     * Finds the first element supporting the specified key.
+     *
+     * @param key the key
+     * @return the first element supporting the key, or an empty optional if there isn't any
+     */
+    public Optional<T> find(K key) {
+        requireNonNull(key, "key is null");
+
+        T precomputedElement = precomputed.get(key);
+        if (precomputedElement != null) {
+            return Optional.of(precomputedElement);
+        }
+
+        Optional<T> cachedElement = cache.getIfPresent(key);
+        if (cachedElement != null) {
+            return cachedElement;
+        }
+
+        // Concurrent selections of the same key scan the elements multiple times,
+        // but always give the same result.
+        Optional<T> element = Optional.ofNullable(scan(key));
+        cache.put(key, element);
+        return element;
+    }
+
+    private @Nullable T scan(K key) {
+        for (T element : elements) {
+            if (supports.test(element, key)) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets all the elements, in order.
+     *
+     * @return all the elements
+     */
+    public ImmutableList<T> getElements() {
+        return elements;
+    }
+
+    /**
+     * Removes all the memoized selections, except the precomputed ones.
+     */
+    public void invalidate() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * The builder for {@link OrderedSelector}.
+     *
+     * @param <K> the type of keys
+     * @param <T> the type of elements
+     */
+    public static final class Builder<K, T> {
+        private final ImmutableList<T> elements;
+        private final BiPredicate<? super T, ? super K> supports;
+        private @Nullable Function<? super T, ? extends K> exactKey;
+        private long maximumCacheSize = DEFAULT_MAXIMUM_CACHE_SIZE;
+
+        private Builder(Iterable<? extends T> elements, BiPredicate<? super T, ? super K> supports) {
+            this.elements = ImmutableList.copyOf(requireNonNull(elements, "elements is null"));
+            this.supports = requireNonNull(supports, "supports is null");
+        }
+
+        /**
+         * Sets the function returning the exact key of an element, or {@code null} if it has none,
+         * used to compute the selected element of these keys upfront.
+         *
+         * @param exactKey the function returning the exact key of an element, or {@code null}
+         * @return the same builder
+         */
+        @CanIgnoreReturnValue
+        public Builder<K, T> exactKey(Function<? super T, ? extends K> exactKey) {
+            this.exactKey = requireNonNull(exactKey, "exactKey is null");
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of keys whose selected element is memoized, excluding
+         * the precomputed ones.
+         * <p>
+         * The default value is {@link OrderedSelector#DEFAULT_MAXIMUM_CACHE_SIZE}.
+         *
+         * @param maximumCacheSize the maximum number of memoized keys
+         * @return the same builder
+         * @throws IllegalArgumentException when the value is negative
+         */
+        @CanIgnoreReturnValue
+        public Builder<K, T> maximumCacheSize(long maximumCacheSize) {
+            if (maximumCacheSize < 0) {
+                throw new IllegalArgumentException("maximumCacheSize is negative: " + maximumCacheSize);
+            }
+            this.maximumCacheSize = maximumCacheSize;
+            return this;
+        }
+
+        /**
+         * Builds a selector using the values of this builder.
+         *
+         * @return an {@link OrderedSelector} with the values of this builder
+         */
+        public OrderedSelector<K, T> build() {
+            return new OrderedSelector<>(this);
+        }
+    }
+}
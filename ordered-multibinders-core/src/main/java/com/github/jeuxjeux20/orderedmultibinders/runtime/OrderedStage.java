@@ -0,0 +1,48 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import java.util.List;
+
+/**
+ * A stage of an {@link OrderedPipeline}, processing items one by one, or in batches.
+ *
+ * @param <T> the type of items
+ * @see OrderedPipeline
+ */
+public interface OrderedStage<T> {
+    /**
+     * Processes the specified item, and returns the item given to the next stage,
+     * which is usually the same item.
+     *
+     * @param item the item
+     * @return the item given to the next stage
+     */
+    T process(T item);
+
+    /**
+     * Returns the maximum number of items this stage processes at once using {@link #processBatch(List)}.
+     * <p>
+     * By default, this returns 1, so items are processed one by one. Stages opt in to micro-batching
+     * by returning a greater value.
+     *
+     * @return the maximum number of items processed at once
+     */
+    default int getMaxBatchSize() {
+        return 1;
+    }
+
+    /**
+     * Processes the specified batch of items, in order, and replaces them
+     * with the items given to the next stage.
+     * <p>
+     * The list is backed by an array reused for the next batches, so it shouldn't be kept after this method returns.
+     * <p>
+     * By default, this calls {@link #process(Object)} on every item.
+     *
+     * @param items the items, which can be replaced using {@link List#set(int, Object)}
+     */
+    default void processBatch(List<T> items) {
+        for (int i = 0; i < items.size(); i++) {
+            items.set(i, process(items.get(i)));
+        }
+    }
+}
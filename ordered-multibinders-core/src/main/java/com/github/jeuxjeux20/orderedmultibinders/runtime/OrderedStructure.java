@@ -0,0 +1,180 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.github.jeuxjeux20.orderedmultibinders.Order;
+import com.github.jeuxjeux20.orderedmultibinders.OrderedMultibinders;
+import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBinding;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.util.Types;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The structure of a sorted {@link Multibinder}: the identifiers of its elements in the sorted order,
+ * and the explicit constraints (from @{@link Order} annotations) between them.
+ * <p>
+ * Elements are referred to by their index in the sorted order, which is also their
+ * index in the multibinder's set.
+ * <p>
+ * {@link OrderedMultibinders} binds the structure of every multibinder it sorts,
+ * using the set key's annotation, so it can be injected
+ * along with the set (such as {@code OrderedStructure<Handler>} for a {@code Set<Handler>}).
+ *
+ * @param <T> the type of the multibinder's elements
+ */
+public final class OrderedStructure<T> {
+    private final ImmutableList<Key<?>> identifierKeys;
+    private final int[][] explicitPredecessors;
+
+    /**
+     * Constructs a new {@link OrderedStructure} with the specified identifier keys, in the sorted order,
+     * and the explicit predecessors of every element, by index.
+     *
+     * @param identifierKeys       the identifier keys of the elements, in the sorted order
+     * @param explicitPredecessors the indexes of the elements explicitly ordered before every element
+     * @throws IllegalArgumentException when there isn't the same number of identifiers and predecessor arrays,
+     *                                  or when a predecessor doesn't come before its successor
+     */
+    public OrderedStructure(List<? extends Key<?>> identifierKeys, int[][] explicitPredecessors) {
+        this.identifierKeys = ImmutableList.copyOf(identifierKeys);
+        this.explicitPredecessors = new int[explicitPredecessors.length][];
+
+        if (identifierKeys.size() != explicitPredecessors.length) {
+            throw new IllegalArgumentException("There are " + identifierKeys.size() + " identifiers but " +
+                                               explicitPredecessors.length + " predecessor arrays.");
+        }
+
+        for (int i = 0; i < explicitPredecessors.length; i++) {
+            int[] predecessors = explicitPredecessors[i].clone();
+
+            for (int predecessor : predecessors) {
+                if (predecessor < 0 || predecessor >= i) {
+                    throw new IllegalArgumentException(
+                            "Invalid predecessor " + predecessor + " for element at index " + i + ".");
+                }
+            }
+            this.explicitPredecessors[i] = predecessors;
+        }
+    }
+
+    /**
+     * Returns the key of the structure of the multibinder with the specified set key.
+     *
+     * @param setKey the set key of the multibinder
+     * @param <T>    the type of the multibinder's elements
+     * @return the key of the multibinder's structure
+     * @throws IllegalArgumentException when the key isn't a key of a set
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Key<OrderedStructure<T>> keyFor(Key<? extends Set<T>> setKey) {
+        return (Key<OrderedStructure<T>>) setKey.ofType(
+                Types.newParameterizedType(OrderedStructure.class, getElementType(setKey)));
+    }
+
+    static Type getElementType(Key<?> setKey) {
+        Type setType = setKey.getTypeLiteral().getType();
+        if (!(setType instanceof ParameterizedType) || setKey.getTypeLiteral().getRawType() != Set.class) {
+            throw new IllegalArgumentException("Not a set key: " + setKey);
+        }
+        return ((ParameterizedType) setType).getActualTypeArguments()[0];
+    }
+
+    /**
+     * Gets the number of elements.
+     *
+     * @return the number of elements
+     */
+    public int size() {
+        return identifierKeys.size();
+    }
+
+    /**
+     * Gets the identifiers of the elements in the sorted order (see {@link OrderedBinding#getIdentifier()}).
+     *
+     * @return the identifiers of the elements
+     */
+    public ImmutableList<TypeLiteral<?>> getIdentifiers() {
+        return identifierKeys.stream().map(Key::getTypeLiteral).collect(ImmutableList.toImmutableList());
+    }
+
+    /**
+     * Gets the identifier keys of the elements in the sorted order, which include their qualifier
+     * (see {@link OrderedBinding#getIdentifierKey()}).
+     *
+     * @return the identifier keys of the elements
+     */
+    public ImmutableList<Key<?>> getIdentifierKeys() {
+        return identifierKeys;
+    }
+
+    /**
+     * Gets the identifier of the element at the specified index.
+     *
+     * @param index the index of the element
+     * @return the identifier of the element
+     */
+    public TypeLiteral<?> getIdentifier(int index) {
+        return identifierKeys.get(index).getTypeLiteral();
+    }
+
+    /**
+     * Gets the identifier key of the element at the specified index.
+     *
+     * @param index the index of the element
+     * @return the identifier key of the element
+     */
+    public Key<?> getIdentifierKey(int index) {
+        return identifierKeys.get(index);
+    }
+
+    /**
+     * Gets the indexes of the elements that must come before the element at the specified index,
+     * because of an explicit constraint.
+     *
+     * @param index the index of the element
+     * @return the indexes of the elements explicitly ordered before this element
+     */
+    public int[] getExplicitPredecessors(int index) {
+        return explicitPredecessors[index].clone();
+    }
+
+    int[] explicitPredecessorsUnsafe(int index) {
+        return explicitPredecessors[index];
+    }
+
+    /**
+     * Checks that the specified elements are the elements of this structure.
+     *
+     * @param elements the elements
+     * @throws IllegalArgumentException when there isn't the same number of elements in this structure
+     */
+    void checkElements(Iterable<?> elements) {
+        int count = 0;
+        for (Object ignored : requireNonNull(elements, "elements is null")) {
+            count++;
+        }
+
+        if (count != size()) {
+            throw new IllegalArgumentException(
+                    "Expected " + size() + " elements, got " + count + ". " +
+                    "Are duplicates permitted in the multibinder?");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this)
+                .add("identifiers", identifierKeys)
+                .add("explicitPredecessors", Arrays.deepToString(explicitPredecessors))
+                .toString();
+    }
+}
@@ -0,0 +1,191 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.multibindings.Multibinder;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Enables and disables the elements of a sorted {@link Multibinder} at runtime, without sorting them again.
+ * <p>
+ * Every element has an index, which is its position in the sorted order, and a bit telling whether or not
+ * it is enabled. Toggling an element only changes its bit, and reading the enabled elements
+ * doesn't lock nor allocate anything.
+ * <p>
+ * The list of enabled elements returned by {@link #getEnabled()} is computed once after the elements have been
+ * toggled, and then shared by every reader until the next toggle.
+ * <p>
+ * Toggling elements concurrently with reads is safe, but a reader might see only some of the toggles
+ * made while it is iterating.
+ *
+ * @param <T> the type of elements
+ */
+public final class OrderedToggles<T> {
+    private final ImmutableList<T> elements;
+    private final ImmutableMap<T, Integer> indexes;
+    private final AtomicLongArray enabledBits;
+    private final AtomicLong version = new AtomicLong();
+    private volatile EnabledElements<T> enabledElements;
+
+    private OrderedToggles(Iterable<? extends T> elements) {
+        this.elements = ImmutableList.copyOf(requireNonNull(elements, "elements is null"));
+
+        ImmutableMap.Builder<T, Integer> indexesBuilder = ImmutableMap.builder();
+        for (int i = 0; i < this.elements.size(); i++) {
+            indexesBuilder.put(this.elements.get(i), i);
+        }
+        this.indexes = indexesBuilder.build();
+
+        this.enabledBits = new AtomicLongArray((this.elements.size() + 63) >>> 6);
+        for (int i = 0; i < this.elements.size(); i++) {
+            enabledBits.set(i >>> 6, enabledBits.get(i >>> 6) | 1L << i);
+        }
+        this.enabledElements = new EnabledElements<>(0, this.elements);
+    }
+
+    /**
+     * Creates a new {@link OrderedToggles} with the specified elements, in their iteration order,
+     * which are all enabled.
+     *
+     * @param elements the elements, in order
+     * @param <T>      the type of elements
+     * @return a new {@link OrderedToggles} with all the elements enabled
+     * @throws IllegalArgumentException when there are duplicate elements
+     */
+    public static <T> OrderedToggles<T> of(Iterable<? extends T> elements) {
+        return new OrderedToggles<>(elements);
+    }
+
+    /**
+     * Gets the index of the specified element, or -1 if it isn't one of the elements.
+     *
+     * @param element the element
+     * @return the index of the element, or -1 if it isn't one of the elements
+     */
+    public int indexOf(Object element) {
+        Integer index = indexes.get(element);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Enables or disables the element at the specified index.
+     *
+     * @param index   the index of the element
+     * @param enabled whether or not the element is enabled
+     * @return {@code true} if the element has been toggled, {@code false} if it was already in this state
+     */
+    public boolean setEnabled(int index, boolean enabled) {
+        checkIndex(index);
+
+        int word = index >>> 6;
+        long bit = 1L << index;
+        while (true) {
+            long bits = enabledBits.get(word);
+            long newBits = enabled ? bits | bit : bits & ~bit;
+
+            if (bits == newBits) {
+                return false;
+            }
+            if (enabledBits.compareAndSet(word, bits, newBits)) {
+                // Increment the version after changing the bits, so the enabled elements are computed again.
+                version.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Enables or disables the specified element.
+     *
+     * @param element the element
+     * @param enabled whether or not the element is enabled
+     * @return {@code true} if the element has been toggled, {@code false} if it was already in this state
+     * @throws IllegalArgumentException when the element isn't one of the elements
+     */
+    public boolean setEnabled(T element, boolean enabled) {
+        int index = indexOf(element);
+        if (index == -1) {
+            throw new IllegalArgumentException("Unknown element: " + element);
+        }
+        return setEnabled(index, enabled);
+    }
+
+    /**
+     * Returns whether or not the element at the specified index is enabled.
+     *
+     * @param index the index of the element
+     * @return {@code true} if the element is enabled, otherwise {@code false}
+     */
+    public boolean isEnabled(int index) {
+        checkIndex(index);
+        return (enabledBits.get(index >>> 6) & 1L << index) != 0;
+    }
+
+    /**
+     * Runs the specified action on every enabled element, in order.
+     *
+     * @param action the action to run on every enabled element
+     */
+    public void forEachEnabled(Consumer<? super T> action) {
+        for (int word = 0; word < enabledBits.length(); word++) {
+            long bits = enabledBits.get(word);
+
+            while (bits != 0) {
+                int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                action.accept(elements.get(index));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Gets the enabled elements, in order.
+     *
+     * @return the enabled elements
+     */
+    public ImmutableList<T> getEnabled() {
+        EnabledElements<T> current = enabledElements;
+        // Read the version before the bits, so a toggle happening meanwhile
+        // makes the next call compute the elements again.
+        long currentVersion = version.get();
+
+        if (current.version != currentVersion) {
+            ImmutableList.Builder<T> builder = ImmutableList.builder();
+            forEachEnabled(builder::add);
+
+            current = new EnabledElements<>(currentVersion, builder.build());
+            enabledElements = current;
+        }
+        return current.elements;
+    }
+
+    /**
+     * Gets all the elements, enabled or not, in order.
+     *
+     * @return all the elements
+     */
+    public ImmutableList<T> getElements() {
+        return elements;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= elements.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + elements.size());
+        }
+    }
+
+    private static final class EnabledElements<T> {
+        final long version;
+        final ImmutableList<T> elements;
+
+        EnabledElements(long version, ImmutableList<T> elements) {
+            this.version = version;
+            this.elements = elements;
+        }
+    }
+}
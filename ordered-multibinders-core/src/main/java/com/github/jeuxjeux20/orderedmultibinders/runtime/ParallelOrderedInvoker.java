@@ -0,0 +1,259 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.github.jeuxjeux20.orderedmultibinders.Order;
+import com.google.common.collect.ImmutableList;
+import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import com.google.inject.multibindings.Multibinder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Invokes the elements of a sorted {@link Multibinder}, running elements that don't depend on each other
+ * in parallel.
+ * <p>
+ * Elements are grouped in levels using the explicit constraints of their {@link OrderedStructure}: an element
+ * is in the level following the one of its last explicit predecessor. Elements of a level don't have any explicit
+ * constraint between them, so they are run in parallel, and all of them complete before the next level starts.
+ * <p>
+ * Running elements in parallel has a cost, so a level is only run in parallel when the sum of the estimated
+ * costs of its elements reaches the fan-out threshold. Other levels run on the calling thread, in the sorted order.
+ * <p>
+ * Note that only explicit constraints (from @{@link Order} annotations) are kept,
+ * the relative order of unconstrained elements isn't.
+ *
+ * @param <T> the type of elements
+ */
+public final class ParallelOrderedInvoker<T> {
+    private final ImmutableList<T> elements;
+    private final int[][] levels;
+    private final boolean[] parallelLevels;
+    private final Executor executor;
+
+    private ParallelOrderedInvoker(Builder<T> builder) {
+        this.elements = builder.elements;
+        this.levels = computeLevels(builder.structure);
+        this.executor = builder.executor;
+
+        this.parallelLevels = new boolean[levels.length];
+        for (int i = 0; i < levels.length; i++) {
+            long cost = 0;
+            for (int index : levels[i]) {
+                cost += builder.cost.applyAsLong(elements.get(index));
+            }
+            parallelLevels[i] = levels[i].length > 1 && cost >= builder.fanOutThreshold;
+        }
+    }
+
+    /**
+     * Creates a new builder invoking the specified elements, which are the elements of a multibinder
+     * with the specified structure.
+     *
+     * @param elements  the elements, in the sorted order
+     * @param structure the structure of the elements
+     * @param <T>       the type of elements
+     * @return a new builder
+     * @throws IllegalArgumentException when the elements don't match the structure
+     */
+    public static <T> Builder<T> builder(Iterable<? extends T> elements, OrderedStructure<T> structure) {
+        return new Builder<>(elements, structure);
+    }
+
+    private static int[][] computeLevels(OrderedStructure<?> structure) {
+        int[] elementLevels = new int[structure.size()];
+        int levelCount = 0;
+
+        for (int i = 0; i < elementLevels.length; i++) {
+            // Predecessors always come first, so their level is already known.
+            int level = 0;
+            for (int predecessor : structure.explicitPredecessorsUnsafe(i)) {
+                level = Math.max(level, elementLevels[predecessor] + 1);
+            }
+            elementLevels[i] = level;
+            levelCount = Math.max(levelCount, level + 1);
+        }
+
+        List<List<Integer>> levels = new ArrayList<>();
+        for (int i = 0; i < levelCount; i++) {
+            levels.add(new ArrayList<>());
+        }
+        for (int i = 0; i < elementLevels.length; i++) {
+            levels.get(elementLevels[i]).add(i);
+        }
+
+        return levels.stream()
+                .map(level -> level.stream().mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+    }
+
+    /**
+     * Runs the specified action on every element, level by level.
+     * <p>
+     * When the action fails on some elements, the rest of the level still completes, but the following
+     * levels don't run, and the first failure is thrown, with the other ones suppressed.
+     *
+     * @param action the action to run on every element
+     * @throws CompletionException when the action threw a checked exception
+     */
+    public void invoke(Consumer<? super T> action) {
+        for (int i = 0; i < levels.length; i++) {
+            if (parallelLevels[i]) {
+                invokeParallel(levels[i], action);
+            } else {
+                for (int index : levels[i]) {
+                    action.accept(elements.get(index));
+                }
+            }
+        }
+    }
+
+    private void invokeParallel(int[] level, Consumer<? super T> action) {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[level.length - 1];
+        for (int i = 1; i < level.length; i++) {
+            T element = elements.get(level[i]);
+            futures[i - 1] = CompletableFuture.runAsync(() -> action.accept(element), executor);
+        }
+
+        Throwable failure = null;
+        try {
+            action.accept(elements.get(level[0]));
+        } catch (Throwable e) {
+            failure = e;
+        }
+
+        for (CompletableFuture<?> future : futures) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (failure == null) {
+                    failure = cause;
+                } else {
+                    failure.addSuppressed(cause);
+                }
+            }
+        }
+
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        } else if (failure != null) {
+            throw new CompletionException(failure);
+        }
+    }
+
+    /**
+     * Gets the number of levels.
+     *
+     * @return the number of levels
+     */
+    public int getLevelCount() {
+        return levels.length;
+    }
+
+    /**
+     * Gets the elements of the level at the specified index, in the sorted order.
+     *
+     * @param level the index of the level
+     * @return the elements of the level
+     */
+    public List<T> getLevel(int level) {
+        List<T> levelElements = new ArrayList<>();
+        for (int index : levels[level]) {
+            levelElements.add(elements.get(index));
+        }
+        return levelElements;
+    }
+
+    /**
+     * Returns whether or not the level at the specified index runs in parallel.
+     *
+     * @param level the index of the level
+     * @return {@code true} if the level runs in parallel, otherwise {@code false}
+     */
+    public boolean isParallel(int level) {
+        return parallelLevels[level];
+    }
+
+    /**
+     * The builder for {@link ParallelOrderedInvoker}.
+     *
+     * @param <T> the type of elements
+     */
+    public static final class Builder<T> {
+        private final ImmutableList<T> elements;
+        private final OrderedStructure<T> structure;
+        private Executor executor = ForkJoinPool.commonPool();
+        private ToLongFunction<? super T> cost = e -> 1;
+        private long fanOutThreshold = 2;
+
+        private Builder(Iterable<? extends T> elements, OrderedStructure<T> structure) {
+            requireNonNull(structure, "structure is null").checkElements(elements);
+
+            this.elements = ImmutableList.copyOf(elements);
+            this.structure = structure;
+        }
+
+        /**
+         * Sets the executor running elements in parallel.
+         * <p>
+         * The default value is {@link ForkJoinPool#commonPool()}.
+         *
+         * @param executor the executor
+         * @return the same builder
+         */
+        @CanIgnoreReturnValue
+        public Builder<T> executor(Executor executor) {
+            this.executor = requireNonNull(executor, "executor is null");
+            return this;
+        }
+
+        /**
+         * Sets the function estimating the cost of invoking an element, in any unit
+         * also used by the {@linkplain #fanOutThreshold(long) fan-out threshold}.
+         * <p>
+         * By default, every element has a cost of 1.
+         *
+         * @param cost the function estimating the cost of invoking an element
+         * @return the same builder
+         */
+        @CanIgnoreReturnValue
+        public Builder<T> cost(ToLongFunction<? super T> cost) {
+            this.cost = requireNonNull(cost, "cost is null");
+            return this;
+        }
+
+        /**
+         * Sets the minimum estimated cost of a level for it to run in parallel.
+         * <p>
+         * The default value is 2, so every level with multiple elements runs in parallel
+         * with the default cost.
+         *
+         * @param fanOutThreshold the minimum estimated cost of a level for it to run in parallel
+         * @return the same builder
+         */
+        @CanIgnoreReturnValue
+        public Builder<T> fanOutThreshold(long fanOutThreshold) {
+            this.fanOutThreshold = fanOutThreshold;
+            return this;
+        }
+
+        /**
+         * Builds an invoker using the values of this builder.
+         *
+         * @return a {@link ParallelOrderedInvoker} with the values of this builder
+         */
+        public ParallelOrderedInvoker<T> build() {
+            return new ParallelOrderedInvoker<>(this);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.github.jeuxjeux20.orderedmultibinders.Order;
+import com.google.inject.multibindings.Multibinder;
+
+import java.lang.annotation.*;
+
+/**
+ * Specifies that elements of a {@link Multibinder} identified by this class are optional,
+ * and can be skipped by a {@link LoadSheddingInvoker} under load.
+ * <p>
+ * An optional element is still run when a mandatory element needs it,
+ * because of an @{@link Order} constraint.
+ *
+ * @see LoadSheddingInvoker
+ */
+@Inherited
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Sheddable {
+    /**
+     * Returns the shed priority of the element.
+     * <p>
+     * Elements with a higher priority are skipped first: an element is skipped when its priority
+     * is greater than or equal to the cutoff of the {@link LoadSignal}.
+     *
+     * @return the shed priority of the element
+     */
+    int priority() default 1;
+}
@@ -0,0 +1,4 @@
+/**
+ * Contains stuff for using the elements of sorted multibinders at runtime.
+ */
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
\ No newline at end of file
@@ -0,0 +1,99 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.TestElements.First;
+import com.github.jeuxjeux20.orderedmultibinders.TestElements.Second;
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.Multibinder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.github.jeuxjeux20.orderedmultibinders.TestElements.getNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncSortTests {
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void async_sort_gives_same_order_as_sort() throws Exception {
+        Module module = OrderedMultibinders.sortAsync(SortingConfiguration.DEFAULT, executor, new AbstractModule() {
+            @Override
+            protected void configure() {
+                Multibinder<Object> objects = Multibinder.newSetBinder(binder(), Object.class);
+                objects.addBinding().to(Second.class);
+                objects.addBinding().to(First.class);
+
+                Multibinder<Runnable> runnables = Multibinder.newSetBinder(binder(), Runnable.class);
+                runnables.addBinding().to(SecondRunnable.class);
+                runnables.addBinding().to(FirstRunnable.class);
+            }
+        }).get();
+
+        Injector injector = Guice.createInjector(module);
+        assertEquals(ImmutableList.of("First", "Second"), getNames(injector));
+        assertEquals(ImmutableList.of("first runnable", "second runnable"),
+                getNames(injector, Key.get(new TypeLiteral<Set<Runnable>>() {})));
+    }
+
+    @Test
+    void cycle_completes_exceptionally() {
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> OrderedMultibinders.sortAsync(SortingConfiguration.DEFAULT, executor, new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        Multibinder<Object> objects = Multibinder.newSetBinder(binder(), Object.class);
+                        objects.addBinding().to(CycleA.class);
+                        objects.addBinding().to(CycleB.class);
+                    }
+                }).get());
+
+        assertTrue(exception.getCause() instanceof CycleDetectedException);
+    }
+
+    static class FirstRunnable implements Runnable {
+        @Override
+        public void run() {
+        }
+
+        @Override
+        public String toString() {
+            return "first runnable";
+        }
+    }
+
+    @Order(after = FirstRunnable.class)
+    static class SecondRunnable implements Runnable {
+        @Override
+        public void run() {
+        }
+
+        @Override
+        public String toString() {
+            return "second runnable";
+        }
+    }
+
+    @Order(before = CycleB.class)
+    static class CycleA {
+    }
+
+    @Order(before = CycleA.class)
+    static class CycleB {
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.TestElements.First;
+import com.github.jeuxjeux20.orderedmultibinders.TestElements.Second;
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Binding;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Names;
+import com.google.inject.spi.ElementSource;
+import org.junit.jupiter.api.Test;
+
+import static com.github.jeuxjeux20.orderedmultibinders.TestElements.getNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactSourcesTests {
+    private static final SortingConfiguration COMPACT_SOURCES = SortingConfiguration.builder()
+            .compactSources(true)
+            .build();
+
+    @Test
+    void compacted_module_keeps_sorted_order() {
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(COMPACT_SOURCES, new ElementsModule()));
+
+        assertEquals(ImmutableList.of("First", "Second"), getNames(injector));
+    }
+
+    @Test
+    void compacted_sources_only_keep_declaring_source() {
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(COMPACT_SOURCES, new ElementsModule()));
+        ElementSource source = (ElementSource) injector.getBinding(Second.class).getSource();
+
+        assertNull(source.getOriginalElementSource());
+        assertTrue(source.getDeclaringSource() instanceof StackTraceElement);
+    }
+
+    @Test
+    void compacted_sources_share_equal_declaring_sources() {
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(COMPACT_SOURCES, new AbstractModule() {
+            @Override
+            protected void configure() {
+                for (String name : ImmutableList.of("a", "b")) {
+                    bind(String.class).annotatedWith(Names.named(name)).toInstance(name);
+                }
+            }
+        }));
+        ElementSource a = (ElementSource) injector.getBinding(Key.get(String.class, Names.named("a"))).getSource();
+        ElementSource b = (ElementSource) injector.getBinding(Key.get(String.class, Names.named("b"))).getSource();
+
+        assertSame(a.getDeclaringSource(), b.getDeclaringSource());
+    }
+
+    @Test
+    void sources_are_kept_by_default() {
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(new ElementsModule()));
+        Binding<Second> binding = injector.getBinding(Second.class);
+
+        assertNotNull(((ElementSource) binding.getSource()).getOriginalElementSource());
+    }
+
+    static class ElementsModule extends AbstractModule {
+        @Override
+        protected void configure() {
+            bind(Second.class);
+
+            Multibinder<Object> multibinder = Multibinder.newSetBinder(binder(), Object.class);
+            multibinder.addBinding().to(Second.class);
+            multibinder.addBinding().to(First.class);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.github.jeuxjeux20.orderedmultibinders.runtime.OrderedStructure;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.name.Names;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ComponentSortingTests {
+    private static final SortingConfiguration COMPONENTS = SortingConfiguration.builder()
+            .sortingComponentsInParallel(true)
+            .build();
+
+    @Test
+    void components_give_same_result_as_whole_graph() {
+        for (int seed = 0; seed < 200; seed++) {
+            Module module = randomModule(new Random(seed));
+
+            SortResult expected = sort(SortingConfiguration.DEFAULT, module);
+            SortResult actual = sort(COMPONENTS, module);
+
+            assertEquals(expected, actual, "Different result with seed " + seed);
+        }
+    }
+
+    private static Module randomModule(Random random) {
+        int size = 2 + random.nextInt(40);
+        // Few constraints, to get many small groups of elements.
+        int[] before = random.ints(size, -3 * size, size).toArray();
+        int[] after = random.ints(size, -3 * size, size).toArray();
+        int[] positions = random.ints(size, -1, 2).toArray();
+
+        return binder -> {
+            OrderedMultibinder<Object> multibinder = OrderedMultibinder.newSetBinder(binder, Object.class);
+
+            for (int i = 0; i < size; i++) {
+                String name = String.valueOf(i);
+                OrderedMultibinder.ElementBuilder<Object> element = multibinder.addBinding().named(name);
+
+                if (before[i] >= 0) {
+                    element.before(Key.get(Object.class, Names.named(String.valueOf(before[i]))));
+                }
+                if (after[i] >= 0) {
+                    element.after(Key.get(Object.class, Names.named(String.valueOf(after[i]))));
+                }
+                element.position(positions[i]);
+
+                element.toInstance(name);
+            }
+        };
+    }
+
+    private static SortResult sort(SortingConfiguration configuration, Module module) {
+        try {
+            Injector injector = Guice.createInjector(OrderedMultibinders.sort(configuration, module));
+            OrderedStructure<Object> structure = injector.getInstance(new Key<OrderedStructure<Object>>() {});
+
+            List<String> elements = new ArrayList<>();
+            for (int i = 0; i < structure.size(); i++) {
+                elements.add(structure.getIdentifierKey(i) + " after " +
+                             Arrays.toString(structure.getExplicitPredecessors(i)));
+            }
+            return new SortResult(elements.toString());
+        } catch (CycleDetectedException e) {
+            return new SortResult(e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+
+    private static final class SortResult {
+        private final String value;
+
+        SortResult(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SortResult && value.equals(((SortResult) o).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+}
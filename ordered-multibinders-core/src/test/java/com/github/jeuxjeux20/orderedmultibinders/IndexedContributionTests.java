@@ -0,0 +1,203 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.CreationException;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.github.jeuxjeux20.orderedmultibinders.TestElements.getNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexedContributionTests {
+    private static final Key<Set<Handler>> SET_KEY = Key.get(new TypeLiteral<Set<Handler>>() {});
+    private static final Set<Class<?>> INITIALIZED_CLASSES = ConcurrentHashMap.newKeySet();
+
+    private final List<Path> pluginDirectories = new ArrayList<>();
+    private final List<URLClassLoader> pluginClassLoaders = new ArrayList<>();
+
+    @AfterEach
+    void deletePlugins() throws IOException {
+        for (URLClassLoader pluginClassLoader : pluginClassLoaders) {
+            pluginClassLoader.close();
+        }
+        for (Path pluginDirectory : pluginDirectories) {
+            try (Stream<Path> files = Files.walk(pluginDirectory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                    Files.delete(file);
+                }
+            }
+        }
+    }
+
+    @Test
+    void contributions_are_ordered_without_initializing_their_class() throws IOException {
+        ClassLoader pluginClassLoader = createPluginClassLoader(
+                LoggingHandler.class.getName() + " after=" + DecodingHandler.class.getName(),
+                DecodingHandler.class.getName() + " position=-1");
+
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(binder ->
+                OrderedMultibinder.newSetBinder(binder, Handler.class).addIndexedContributions(pluginClassLoader)));
+
+        assertFalse(INITIALIZED_CLASSES.contains(LoggingHandler.class));
+        assertFalse(INITIALIZED_CLASSES.contains(DecodingHandler.class));
+
+        assertEquals(ImmutableList.of("DecodingHandler", "LoggingHandler"), getNames(injector, SET_KEY));
+        assertTrue(INITIALIZED_CLASSES.contains(LoggingHandler.class));
+        assertTrue(INITIALIZED_CLASSES.contains(DecodingHandler.class));
+    }
+
+    @Test
+    void elements_refer_to_contributions_by_class() throws IOException {
+        ClassLoader pluginClassLoader = createPluginClassLoader(
+                "# A comment.",
+                "",
+                ValidationHandler.class.getName(),
+                ValidationHandler.class.getName() + " position=10");
+
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(binder -> {
+            OrderedMultibinder<Handler> multibinder = OrderedMultibinder.newSetBinder(binder, Handler.class)
+                    .addIndexedContributions(pluginClassLoader);
+            multibinder.getMultibinder().addBinding().to(AfterValidationHandler.class);
+            multibinder.addBinding().beforeNames(ValidationHandler.class.getName()).toInstance(new Handler() {});
+        }));
+
+        List<String> names = getNames(injector, SET_KEY);
+        assertEquals(3, names.size());
+        assertEquals(ImmutableList.of("ValidationHandler", "AfterValidationHandler"), names.subList(1, 3));
+    }
+
+    @Test
+    void malformed_index_fails() throws IOException {
+        ClassLoader pluginClassLoader = createPluginClassLoader(DecodingHandler.class.getName() + " first");
+
+        Module module = binder ->
+                OrderedMultibinder.newSetBinder(binder, Handler.class).addIndexedContributions(pluginClassLoader);
+
+        CreationException exception = assertThrows(CreationException.class, () -> Guice.createInjector(module));
+        assertTrue(exception.getMessage().contains("line 1"), exception.getMessage());
+    }
+
+    @Test
+    void contribution_of_a_bound_class_throws() throws IOException {
+        ClassLoader pluginClassLoader = createPluginClassLoader(ValidationHandler.class.getName());
+
+        Module module = binder -> {
+            OrderedMultibinder<Handler> multibinder = OrderedMultibinder.newSetBinder(binder, Handler.class)
+                    .addIndexedContributions(pluginClassLoader);
+            multibinder.getMultibinder().addBinding().to(ValidationHandler.class);
+        };
+
+        assertThrows(DuplicateIdentifiersException.class, () -> OrderedMultibinders.sort(module));
+    }
+
+    @Test
+    void subtype_constraints_ignore_contributions() throws IOException {
+        // Matching the contribution would create a cycle.
+        ClassLoader pluginClassLoader = createPluginClassLoader(
+                PluginHandler.class.getName() + " after=" + LastHandler.class.getName());
+
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(binder -> {
+            OrderedMultibinder<Handler> multibinder = OrderedMultibinder.newSetBinder(binder, Handler.class)
+                    .addIndexedContributions(pluginClassLoader);
+            multibinder.addBinding().afterSubtypesOf(Handler.class).to(LastHandler.class);
+            multibinder.getMultibinder().addBinding().to(ValidationHandler.class);
+        }));
+
+        assertEquals(ImmutableList.of("ValidationHandler", "LastHandler", "PluginHandler"), getNames(injector, SET_KEY));
+    }
+
+    @Test
+    void contributions_are_added_to_every_set() throws IOException {
+        ClassLoader pluginClassLoader = createPluginClassLoader(ValidationHandler.class.getName());
+
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(binder -> {
+            OrderedMultibinder.newSetBinder(binder, Handler.class, Names.named("a"))
+                    .addIndexedContributions(pluginClassLoader);
+            OrderedMultibinder.newSetBinder(binder, Handler.class, Names.named("b"))
+                    .addIndexedContributions(pluginClassLoader);
+        }));
+
+        for (String set : ImmutableList.of("a", "b")) {
+            Key<Set<Handler>> setKey = Key.get(SET_KEY.getTypeLiteral(), Names.named(set));
+            assertEquals(ImmutableList.of("ValidationHandler"), getNames(injector, setKey));
+        }
+    }
+
+    @Test
+    void contributions_of_a_shared_parent_are_added_once() throws IOException {
+        ClassLoader parentClassLoader = createPluginClassLoader(ValidationHandler.class.getName());
+        ClassLoader firstPluginClassLoader = createPluginClassLoader(parentClassLoader);
+        ClassLoader secondPluginClassLoader = createPluginClassLoader(parentClassLoader);
+
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(
+                binder -> OrderedMultibinder.newSetBinder(binder, Handler.class)
+                        .addIndexedContributions(firstPluginClassLoader),
+                binder -> OrderedMultibinder.newSetBinder(binder, Handler.class)
+                        .addIndexedContributions(secondPluginClassLoader)));
+
+        assertEquals(ImmutableList.of("ValidationHandler"), getNames(injector, SET_KEY));
+    }
+
+    private ClassLoader createPluginClassLoader(String... lines) throws IOException {
+        return createPluginClassLoader(getClass().getClassLoader(), lines);
+    }
+
+    private ClassLoader createPluginClassLoader(ClassLoader parent, String... lines) throws IOException {
+        Path pluginDirectory = Files.createTempDirectory("plugin");
+        pluginDirectories.add(pluginDirectory);
+
+        if (lines.length != 0) {
+            Path index = pluginDirectory.resolve(ContributionIndex.LOCATION + Handler.class.getName());
+            Files.createDirectories(index.getParent());
+            Files.write(index, Arrays.asList(lines), StandardCharsets.UTF_8);
+        }
+
+        URLClassLoader pluginClassLoader = new URLClassLoader(new URL[]{pluginDirectory.toUri().toURL()}, parent);
+        pluginClassLoaders.add(pluginClassLoader);
+        return pluginClassLoader;
+    }
+
+    interface Handler {}
+
+    static class LoggingHandler implements Handler {
+        static {
+            INITIALIZED_CLASSES.add(LoggingHandler.class);
+        }
+    }
+
+    static class DecodingHandler implements Handler {
+        static {
+            INITIALIZED_CLASSES.add(DecodingHandler.class);
+        }
+    }
+
+    static class ValidationHandler implements Handler {}
+
+    static class PluginHandler implements Handler {}
+
+    static class LastHandler implements Handler {}
+
+    @Order(after = ValidationHandler.class)
+    static class AfterValidationHandler implements Handler {}
+}
@@ -0,0 +1,90 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Module;
+import com.google.inject.matcher.Matchers;
+import com.google.inject.spi.Elements;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class InterceptorOrderTests {
+    @Test
+    void interceptors_ordered() {
+        Module module = OrderedMultibinders.sort(
+                new InterceptorsModule(new Tracing()),
+                new InterceptorsModule(new Transaction(), new Caching()));
+
+        assertEquals(ImmutableList.of(Caching.class, Tracing.class, Transaction.class), interceptorClasses(module));
+    }
+
+    @Test
+    void interceptors_of_same_class_keep_registration_order() {
+        Tracing firstTracing = new Tracing();
+        Tracing secondTracing = new Tracing();
+        Caching caching = new Caching();
+
+        Module module = OrderedMultibinders.sort(
+                new InterceptorsModule(firstTracing),
+                new InterceptorsModule(secondTracing, caching));
+
+        assertEquals(ImmutableList.of(caching, firstTracing, secondTracing), interceptors(module));
+    }
+
+    @Test
+    void circular_ordered_interceptors_throws() {
+        assertThrows(CycleDetectedException.class,
+                () -> OrderedMultibinders.sort(new InterceptorsModule(new CircularFirst(), new CircularSecond())));
+    }
+
+    private List<Class<?>> interceptorClasses(Module module) {
+        return interceptors(module).stream().map(Object::getClass).collect(Collectors.toList());
+    }
+
+    private List<MethodInterceptor> interceptors(Module module) {
+        return InterceptorSorter.findInterceptorBindings(Elements.getElements(module)).stream()
+                .flatMap(b -> b.getInterceptors().stream())
+                .collect(Collectors.toList());
+    }
+
+    static final class InterceptorsModule extends AbstractModule {
+        private final MethodInterceptor[] interceptors;
+
+        InterceptorsModule(MethodInterceptor... interceptors) {
+            this.interceptors = interceptors;
+        }
+
+        @Override
+        protected void configure() {
+            bindInterceptor(Matchers.any(), Matchers.any(), interceptors);
+        }
+    }
+
+    static abstract class TestInterceptor implements MethodInterceptor {
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            return invocation.proceed();
+        }
+    }
+
+    @Order(before = Tracing.class)
+    static class Caching extends TestInterceptor {}
+
+    static class Tracing extends TestInterceptor {}
+
+    @Order(after = Tracing.class)
+    static class Transaction extends TestInterceptor {}
+
+    @Order(after = CircularSecond.class)
+    static class CircularFirst extends TestInterceptor {}
+
+    @Order(after = CircularFirst.class)
+    static class CircularSecond extends TestInterceptor {}
+}
@@ -0,0 +1,109 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.TestElements.First;
+import com.github.jeuxjeux20.orderedmultibinders.TestElements.Second;
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.github.jeuxjeux20.orderedmultibinders.config.UnresolvableClassHandling;
+import com.github.jeuxjeux20.orderedmultibinders.engine.SortingEngine;
+import com.github.jeuxjeux20.orderedmultibinders.runtime.OrderedStructure;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.CreationException;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Names;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.jeuxjeux20.orderedmultibinders.TestElements.getNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultibinderPolicyTests {
+    private static final Key<Set<Object>> SORTED = Key.get(new TypeLiteral<Set<Object>>() {}, Names.named("sorted"));
+    private static final Key<Set<Object>> OTHER = Key.get(new TypeLiteral<Set<Object>>() {}, Names.named("other"));
+
+    private static final Module MODULE = new AbstractModule() {
+        @Override
+        protected void configure() {
+            for (String name : new String[]{"sorted", "other"}) {
+                Multibinder<Object> multibinder = Multibinder.newSetBinder(binder(), Object.class, Names.named(name));
+                multibinder.addBinding().to(Second.class);
+                multibinder.addBinding().to(First.class);
+            }
+        }
+    };
+
+    @Test
+    void filtered_multibinders_are_not_sorted() {
+        SortingConfiguration configuration = SortingConfiguration.builder()
+                .multibinderFilter(multibinder -> multibinder.getSetKey().equals(SORTED))
+                .build();
+
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(configuration, MODULE));
+
+        assertEquals(ImmutableList.of("First", "Second"), getNames(injector.getInstance(SORTED)));
+        assertEquals(ImmutableList.of("Second", "First"), getNames(injector.getInstance(OTHER)));
+        assertNull(injector.getExistingBinding(OrderedStructure.keyFor(OTHER)));
+    }
+
+    @Test
+    void filtered_ordered_multibinders_fail() {
+        SortingConfiguration configuration = SortingConfiguration.builder()
+                .multibinderFilter(multibinder -> multibinder.getSetKey().equals(SORTED))
+                .build();
+        Module module = binder -> {
+            OrderedMultibinder.newSetBinder(binder, Object.class, Names.named("sorted"))
+                    .addBinding().position(-1).toInstance("sorted");
+            OrderedMultibinder.newSetBinder(binder, Object.class, Names.named("other"))
+                    .addBinding().position(-1).toInstance("other");
+        };
+
+        CreationException exception = assertThrows(CreationException.class,
+                () -> Guice.createInjector(OrderedMultibinders.sort(configuration, module)));
+        assertEquals(1, exception.getErrorMessages().size());
+        assertTrue(exception.getMessage().contains(OTHER.toString()), exception.getMessage());
+    }
+
+    @Test
+    void multibinder_configuration_overrides_the_configuration() {
+        AtomicInteger sortCount = new AtomicInteger();
+        SortingConfiguration counting = SortingConfiguration.builder()
+                .sortingEngine(problem -> {
+                    sortCount.incrementAndGet();
+                    return SortingEngine.GRAPH.sort(problem);
+                })
+                .build();
+        SortingConfiguration configuration = SortingConfiguration.builder()
+                .multibinderConfiguration(OTHER, counting)
+                .build();
+
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(configuration, MODULE));
+
+        assertEquals(1, sortCount.get());
+        assertEquals(ImmutableList.of("First", "Second"), getNames(injector.getInstance(SORTED)));
+        assertEquals(ImmutableList.of("First", "Second"), getNames(injector.getInstance(OTHER)));
+    }
+
+    @Test
+    void unresolvable_class_handling_is_overridden() {
+        Key<Set<Object>> lenient = Key.get(new TypeLiteral<Set<Object>>() {}, Names.named("lenient"));
+        Module module = binder -> Multibinder.newSetBinder(binder, Object.class, Names.named("lenient"))
+                .addBinding().to(First.class);
+
+        assertThrows(UnableToResolveClassAsBindingException.class, () -> OrderedMultibinders.sort(module));
+
+        SortingConfiguration configuration = SortingConfiguration.builder()
+                .multibinderConfiguration(lenient, SortingConfiguration.builder()
+                        .unresolvableClassHandling(UnresolvableClassHandling.IGNORE)
+                        .build())
+                .build();
+
+        assertNotNull(OrderedMultibinders.sort(configuration, module));
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.TestElements.Second;
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.github.jeuxjeux20.orderedmultibinders.config.UnresolvableClassHandling;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.multibindings.Multibinder;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.github.jeuxjeux20.orderedmultibinders.TestElements.sortAndGetNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NameConstraintTests {
+    private static final String MISSING_CLASS_NAME = "com.example.plugin.MissingHandler";
+
+    @Test
+    void names_are_resolved_against_identifiers() {
+        List<String> names = sortAndGetNames(SortingConfiguration.DEFAULT, binder -> {
+            Multibinder<Object> multibinder = Multibinder.newSetBinder(binder, Object.class);
+            multibinder.addBinding().to(AfterSecond.class);
+            multibinder.addBinding().to(Second.class);
+        });
+
+        assertEquals(ImmutableList.of("Second", "AfterSecond"), names);
+    }
+
+    @Test
+    void missing_name_is_ignored() {
+        SortingConfiguration configuration = SortingConfiguration.builder()
+                .unresolvableClassHandling(UnresolvableClassHandling.IGNORE)
+                .build();
+
+        List<String> names = sortAndGetNames(configuration, binder -> {
+            Multibinder<Object> multibinder = Multibinder.newSetBinder(binder, Object.class);
+            multibinder.addBinding().to(AfterMissing.class);
+        });
+
+        assertEquals(ImmutableList.of("after missing"), names);
+    }
+
+    @Test
+    void missing_name_throws_with_class_name() {
+        UnableToResolveClassNameAsBindingException exception =
+                assertThrows(UnableToResolveClassNameAsBindingException.class,
+                        () -> sortAndGetNames(SortingConfiguration.DEFAULT, binder -> {
+                            Multibinder<Object> multibinder = Multibinder.newSetBinder(binder, Object.class);
+                            multibinder.addBinding().to(AfterMissing.class);
+                        }));
+
+        assertEquals(MISSING_CLASS_NAME, exception.getUnresolvedClassName());
+    }
+
+    @Order(afterNames = "com.github.jeuxjeux20.orderedmultibinders.TestElements$Second")
+    static class AfterSecond {}
+
+    @Order(afterNames = MISSING_CLASS_NAME)
+    static class AfterMissing {
+        @Override
+        public String toString() {
+            return "after missing";
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.AbstractModule;
+import com.google.inject.CreationException;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.TypeLiteral;
+import com.google.inject.name.Names;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderedMultibinderDslTests {
+    private static final TypeLiteral<Set<Handler>> HANDLERS = new TypeLiteral<Set<Handler>>() {};
+
+    @Test
+    void lambdas_are_ordered_using_recorded_values() {
+        List<String> calls = run(new AbstractModule() {
+            @Override
+            protected void configure() {
+                OrderedMultibinder<Handler> multibinder = OrderedMultibinder.newSetBinder(binder(), Handler.class);
+                multibinder.addBinding().after(Key.get(Handler.class, Names.named("first"))).toInstance(c -> c.add("second"));
+                multibinder.addBinding().named("first").toInstance(c -> c.add("first"));
+                multibinder.addBinding().position(-1).toInstance(c -> c.add("zeroth"));
+            }
+        });
+
+        assertEquals(ImmutableList.of("zeroth", "first", "second"), calls);
+    }
+
+    @Test
+    void recorded_values_combine_with_annotated_classes() {
+        List<String> calls = run(new AbstractModule() {
+            @Override
+            protected void configure() {
+                OrderedMultibinder<Handler> multibinder = OrderedMultibinder.newSetBinder(binder(), Handler.class);
+                multibinder.getMultibinder().addBinding().to(AnnotatedHandler.class);
+                multibinder.addBinding().named("lambda").before(AnnotatedHandler.class).toInstance(c -> c.add("lambda"));
+            }
+        });
+
+        assertEquals(ImmutableList.of("lambda", "annotated"), calls);
+    }
+
+    @Test
+    void recorded_order_ignores_class_annotations() {
+        List<String> calls = run(new AbstractModule() {
+            @Override
+            protected void configure() {
+                OrderedMultibinder<Handler> multibinder = OrderedMultibinder.newSetBinder(binder(), Handler.class);
+                multibinder.addBinding().named("lambda").toInstance(c -> c.add("lambda"));
+                multibinder.addBinding().to(OrderedAfterLambdaHandler.class);
+            }
+        });
+
+        assertEquals(ImmutableList.of("lambda", "after lambda"), calls);
+    }
+
+    @Test
+    void elements_bound_to_classes_are_identified_by_their_class() {
+        List<String> calls = run(new AbstractModule() {
+            @Override
+            protected void configure() {
+                OrderedMultibinder<Handler> multibinder = OrderedMultibinder.newSetBinder(binder(), Handler.class);
+                multibinder.addBinding().to(AnnotatedHandler.class);
+                multibinder.getMultibinder().addBinding().to(BeforeAnnotatedHandler.class);
+            }
+        });
+
+        assertEquals(ImmutableList.of("before annotated", "annotated"), calls);
+    }
+
+    @Test
+    void names_can_be_reused_by_other_sets_and_bindings() {
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(new AbstractModule() {
+            @Override
+            protected void configure() {
+                for (String set : ImmutableList.of("a", "b")) {
+                    OrderedMultibinder<Handler> multibinder =
+                            OrderedMultibinder.newSetBinder(binder(), Handler.class, Names.named(set));
+                    multibinder.addBinding().after(Key.get(Handler.class, Names.named("x"))).toInstance(c -> c.add(set));
+                    multibinder.addBinding().named("x").toInstance(c -> c.add("x"));
+                }
+                bind(Handler.class).annotatedWith(Names.named("x")).toInstance(c -> c.add("bound"));
+            }
+        }));
+
+        assertEquals(ImmutableList.of("x", "a"), call(injector.getInstance(Key.get(HANDLERS, Names.named("a")))));
+        assertEquals(ImmutableList.of("x", "b"), call(injector.getInstance(Key.get(HANDLERS, Names.named("b")))));
+        assertEquals(ImmutableList.of("bound"),
+                call(ImmutableSet.of(injector.getInstance(Key.get(Handler.class, Names.named("x"))))));
+    }
+
+    @Test
+    void sorting_twice_keeps_recorded_values() {
+        Module module = new AbstractModule() {
+            @Override
+            protected void configure() {
+                OrderedMultibinder<Handler> multibinder = OrderedMultibinder.newSetBinder(binder(), Handler.class);
+                multibinder.getMultibinder().addBinding().to(AnnotatedHandler.class);
+                multibinder.addBinding().before(AnnotatedHandler.class).toInstance(c -> c.add("lambda"));
+            }
+        };
+
+        assertEquals(ImmutableList.of("lambda", "annotated"), run(OrderedMultibinders.sort(module)));
+    }
+
+    @Test
+    void unsorted_modules_fail() {
+        Module module = binder -> OrderedMultibinder.newSetBinder(binder, Handler.class)
+                .addBinding().toInstance(c -> c.add("lambda"));
+
+        CreationException exception = assertThrows(CreationException.class, () -> Guice.createInjector(module));
+        assertTrue(exception.getMessage().contains("OrderedMultibinders.sort"), exception.getMessage());
+    }
+
+    private static List<String> run(Module module) {
+        return call(Guice.createInjector(OrderedMultibinders.sort(module)).getInstance(Key.get(HANDLERS)));
+    }
+
+    private static List<String> call(Set<Handler> handlers) {
+        List<String> calls = new ArrayList<>();
+        handlers.forEach(handler -> handler.accept(calls));
+        return calls;
+    }
+
+    interface Handler extends Consumer<List<String>> {}
+
+    static class AnnotatedHandler implements Handler {
+        @Override
+        public void accept(List<String> calls) {
+            calls.add("annotated");
+        }
+    }
+
+    @Order(before = AnnotatedHandler.class)
+    static class BeforeAnnotatedHandler implements Handler {
+        @Override
+        public void accept(List<String> calls) {
+            calls.add("before annotated");
+        }
+    }
+
+    // This annotation would create a cycle, but recorded values are used instead.
+    @Order(before = Handler.class)
+    static class OrderedAfterLambdaHandler implements Handler {
+        @Override
+        public void accept(List<String> calls) {
+            calls.add("after lambda");
+        }
+    }
+}
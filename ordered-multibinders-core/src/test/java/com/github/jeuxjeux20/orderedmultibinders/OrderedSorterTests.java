@@ -0,0 +1,84 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.TestElements.First;
+import com.github.jeuxjeux20.orderedmultibinders.TestElements.Second;
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.github.jeuxjeux20.orderedmultibinders.config.UnresolvableClassHandling;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.util.Types;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.github.jeuxjeux20.orderedmultibinders.TestElements.getNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderedSorterTests {
+    @Test
+    void objects_are_sorted_by_their_class() {
+        List<Object> sorted = OrderedSorter.create().sort(ImmutableList.of(new Second(), new Unordered(), new First()));
+
+        assertEquals(ImmutableList.of("First", "Second", "Unordered"), getNames(sorted));
+    }
+
+    @Test
+    void classes_are_sorted_and_identified_as_other_classes() {
+        List<Class<?>> sorted = OrderedSorter.create()
+                .sortClasses(ImmutableList.of(AlsoSecond.class, First.class));
+
+        assertEquals(ImmutableList.of(First.class, AlsoSecond.class), sorted);
+    }
+
+    @Test
+    void generic_elements_are_redirected_by_their_parameter() {
+        List<Wrapper<?>> elements = ImmutableList.of(new Wrapper<>(Second.class), new Wrapper<>(First.class));
+
+        List<Wrapper<?>> sorted = OrderedSorter.create()
+                .sort(elements, wrapper -> Types.newParameterizedTypeWithOwner(
+                        OrderedSorterTests.class, Wrapper.class, wrapper.type));
+
+        assertEquals(First.class, sorted.get(0).type);
+        assertEquals(Second.class, sorted.get(1).type);
+    }
+
+    @Test
+    void unordered_elements_keep_their_order() {
+        ImmutableList<Object> elements = ImmutableList.of(new Unordered(), "a", 1);
+
+        assertSame(elements, OrderedSorter.create().sort(elements));
+    }
+
+    @Test
+    void configuration_handles_unresolvable_classes() {
+        ImmutableList<Object> elements = ImmutableList.of(new Unordered(), new First());
+
+        assertThrows(UnableToResolveClassAsBindingException.class, () -> OrderedSorter.create().sort(elements));
+        assertThrows(UnableToResolveClassAsBindingException.class,
+                () -> OrderedSorter.create().sort(ImmutableList.of(new First())));
+
+        OrderedSorter lenientSorter = OrderedSorter.create(SortingConfiguration.builder()
+                .unresolvableClassHandling(UnresolvableClassHandling.IGNORE)
+                .build());
+        assertEquals(ImmutableList.of("Unordered", "First"), getNames(lenientSorter.sort(elements)));
+    }
+
+    @Test
+    void objects_of_the_same_class_throw() {
+        assertThrows(DuplicateIdentifiersException.class,
+                () -> OrderedSorter.create().sort(ImmutableList.of(new First(), new Second(), new First())));
+    }
+
+    @IdentifiedAs(Second.class)
+    static class AlsoSecond {}
+
+    static class Unordered {}
+
+    @RedirectedByGenericParameter
+    static class Wrapper<T> {
+        final Class<T> type;
+
+        Wrapper(Class<T> type) {
+            this.type = type;
+        }
+    }
+}
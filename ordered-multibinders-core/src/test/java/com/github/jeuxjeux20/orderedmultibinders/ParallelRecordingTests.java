@@ -0,0 +1,232 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.AbstractModule;
+import com.google.inject.Binder;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Names;
+import com.google.inject.spi.InjectionPoint;
+import com.google.inject.spi.ModuleAnnotatedMethodScanner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.jeuxjeux20.orderedmultibinders.TestElements.sortAndGetNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelRecordingTests {
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void parallel_recording_gives_same_order_as_sequential_recording() {
+        List<Module> modules = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            modules.add(new NumberModule(i));
+        }
+        modules.add(new ConstrainedModule());
+
+        SortingConfiguration parallel = SortingConfiguration.builder().recordingExecutor(executor).build();
+
+        assertEquals(sortAndGetNames(SortingConfiguration.DEFAULT, modules), sortAndGetNames(parallel, modules));
+    }
+
+    @Test
+    void sequentially_recorded_modules_are_recorded_on_calling_thread() {
+        SequentialModule sequentialModule = new SequentialModule();
+        SortingConfiguration parallel = SortingConfiguration.builder().recordingExecutor(executor).build();
+
+        List<String> names = sortAndGetNames(parallel, ImmutableList.of(new NumberModule(1), sequentialModule));
+
+        assertEquals(ImmutableList.of("1", "sequential"), names);
+        assertSame(Thread.currentThread(), sequentialModule.configuringThread);
+    }
+
+    @Test
+    void modules_installed_by_multiple_modules_are_recorded_once() {
+        List<Module> modules = ImmutableList.of(new InstallingModule("a"), new InstallingModule("b"));
+        SortingConfiguration parallel = SortingConfiguration.builder().recordingExecutor(executor).build();
+
+        assertEquals(ImmutableList.of("a", "shared", "b"), sortAndGetNames(SortingConfiguration.DEFAULT, modules));
+        assertEquals(ImmutableList.of("a", "shared", "b"), sortAndGetNames(parallel, modules));
+    }
+
+    @Test
+    void modules_installed_by_multiple_modules_are_configured_as_many_times_as_sequentially() {
+        AtomicInteger configureCount = new AtomicInteger();
+        List<Module> modules = ImmutableList.of(
+                new PluginModule("a", configureCount),
+                new PluginModule("b", configureCount));
+        SortingConfiguration parallel = SortingConfiguration.builder().recordingExecutor(executor).build();
+
+        assertEquals(ImmutableList.of("a", "b"), sortAndGetNames(parallel, modules));
+        // Both plugins and their own common module, which are not equal.
+        assertEquals(4, configureCount.get());
+    }
+
+    @Test
+    void scanners_apply_to_modules_recorded_in_other_tasks() {
+        SortingConfiguration parallel = SortingConfiguration.builder().recordingExecutor(executor).build();
+
+        Injector injector = Guice.createInjector(
+                OrderedMultibinders.sort(parallel, new ScannerModule(), new ScannedModule()));
+
+        assertEquals("scanned", injector.getInstance(Key.get(String.class, Names.named("scanned"))));
+    }
+
+    private static void bindNamed(Binder binder, String name) {
+        Key<Object> key = Key.get(Object.class, Names.named(name));
+        binder.bind(key).toInstance(name);
+        Multibinder.newSetBinder(binder, Object.class).addBinding().to(key);
+    }
+
+    static class NumberModule extends AbstractModule {
+        private final int number;
+
+        NumberModule(int number) {
+            this.number = number;
+        }
+
+        @Override
+        protected void configure() {
+            bindNamed(binder(), String.valueOf(number));
+        }
+    }
+
+    static class ConstrainedModule extends AbstractModule {
+        @Override
+        protected void configure() {
+            Multibinder.newSetBinder(binder(), Object.class).addBinding().to(Leading.class);
+        }
+    }
+
+    static class InstallingModule extends AbstractModule {
+        private final String name;
+
+        InstallingModule(String name) {
+            this.name = name;
+        }
+
+        @Override
+        protected void configure() {
+            bindNamed(binder(), name);
+            install(new SharedModule());
+        }
+    }
+
+    static class SharedModule extends AbstractModule {
+        @Override
+        protected void configure() {
+            Multibinder.newSetBinder(binder(), Object.class).addBinding().toInstance("shared");
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof SharedModule;
+        }
+
+        @Override
+        public int hashCode() {
+            return SharedModule.class.hashCode();
+        }
+    }
+
+    static class PluginModule extends AbstractModule {
+        private final String name;
+        private final AtomicInteger configureCount;
+
+        PluginModule(String name, AtomicInteger configureCount) {
+            this.name = name;
+            this.configureCount = configureCount;
+        }
+
+        @Override
+        protected void configure() {
+            configureCount.incrementAndGet();
+            bindNamed(binder(), name);
+            install(new CommonModule(configureCount));
+        }
+    }
+
+    static class CommonModule extends AbstractModule {
+        private final AtomicInteger configureCount;
+
+        CommonModule(AtomicInteger configureCount) {
+            this.configureCount = configureCount;
+        }
+
+        @Override
+        protected void configure() {
+            configureCount.incrementAndGet();
+            bind(CommonService.class);
+        }
+    }
+
+    static class CommonService {}
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Scanned {}
+
+    static class ScannerModule extends AbstractModule {
+        @Override
+        protected void configure() {
+            binder().scanModulesForAnnotatedMethods(new ModuleAnnotatedMethodScanner() {
+                @Override
+                public Set<? extends Class<? extends Annotation>> annotationClasses() {
+                    return ImmutableSet.of(Scanned.class);
+                }
+
+                @Override
+                public <T> Key<T> prepareMethod(Binder binder, Annotation annotation, Key<T> key,
+                                                InjectionPoint injectionPoint) {
+                    return Key.get(key.getTypeLiteral(), Names.named("scanned"));
+                }
+
+                @Override
+                public String toString() {
+                    return "ScannedScanner";
+                }
+            });
+        }
+    }
+
+    static class ScannedModule extends AbstractModule {
+        @Scanned
+        String provideScanned() {
+            return "scanned";
+        }
+    }
+
+    @SequentiallyRecorded
+    static class SequentialModule extends AbstractModule {
+        volatile Thread configuringThread;
+
+        @Override
+        protected void configure() {
+            configuringThread = Thread.currentThread();
+            bindNamed(binder(), "sequential");
+        }
+    }
+
+    @Order(position = -1)
+    static class Leading {}
+}
@@ -0,0 +1,129 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.github.jeuxjeux20.orderedmultibinders.engine.SortingEngine;
+import com.github.jeuxjeux20.orderedmultibinders.runtime.OrderedStructure;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.jeuxjeux20.orderedmultibinders.TestElements.sortAndGetNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PhaseOrderTests {
+    @Test
+    void elements_are_ordered_by_phase() {
+        List<String> names = sortAndGetNames(new AbstractModule() {
+            @Override
+            protected void configure() {
+                OrderedMultibinder<Object> multibinder = OrderedMultibinder.newSetBinder(binder(), Object.class)
+                        .phaseOrder(Decoding.class, Validation.class, Handling.class);
+                multibinder.getMultibinder().addBinding().to(Handler.class);
+                multibinder.getMultibinder().addBinding().to(Validator.class);
+                multibinder.getMultibinder().addBinding().to(Decoder.class);
+            }
+        });
+
+        assertEquals(ImmutableList.of("Decoder", "Validator", "Handler"), names);
+    }
+
+    @Test
+    void empty_phases_keep_the_order_of_the_other_phases() {
+        List<String> names = sortAndGetNames(new AbstractModule() {
+            @Override
+            protected void configure() {
+                OrderedMultibinder<Object> multibinder = OrderedMultibinder.newSetBinder(binder(), Object.class)
+                        .phaseOrder("first", "empty", "last");
+                multibinder.addBinding().phase("last").toInstance("b");
+                multibinder.addBinding().phase("first").toInstance("a");
+            }
+        });
+
+        assertEquals(ImmutableList.of("a", "b"), names);
+    }
+
+    @Test
+    void elements_of_the_previous_phase_are_explicit_predecessors() {
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(new AbstractModule() {
+            @Override
+            protected void configure() {
+                OrderedMultibinder<Object> multibinder = OrderedMultibinder.newSetBinder(binder(), Object.class)
+                        .phaseOrder("first", "second", "third");
+                multibinder.addBinding().phase("third").toInstance("c");
+                multibinder.addBinding().phase("first").toInstance("a1");
+                multibinder.addBinding().phase("second").toInstance("b");
+                multibinder.addBinding().phase("first").toInstance("a2");
+            }
+        }));
+
+        OrderedStructure<Object> structure = injector.getInstance(new Key<OrderedStructure<Object>>() {});
+
+        assertArrayEquals(new int[0], structure.getExplicitPredecessors(0));
+        assertArrayEquals(new int[0], structure.getExplicitPredecessors(1));
+        assertArrayEquals(new int[]{0, 1}, structure.getExplicitPredecessors(2));
+        assertArrayEquals(new int[]{2}, structure.getExplicitPredecessors(3));
+    }
+
+    @Test
+    void cycle_between_phases_throws() {
+        CycleDetectedException exception = assertThrows(CycleDetectedException.class,
+                () -> OrderedMultibinders.sort(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        OrderedMultibinder<Object> multibinder = OrderedMultibinder.newSetBinder(binder(), Object.class)
+                                .phaseOrder("first", "second")
+                                .phaseOrder("second", "first");
+                        multibinder.addBinding().phase("first").toInstance("a");
+                    }
+                }));
+
+        assertTrue(exception.getMessage().contains("phase"), exception.getMessage());
+    }
+
+    @Test
+    void edges_are_linear_in_the_number_of_elements() {
+        AtomicInteger edgeCount = new AtomicInteger();
+        SortingConfiguration configuration = SortingConfiguration.builder()
+                .sortingEngine(problem -> {
+                    edgeCount.set(problem.getEdgeCount());
+                    return SortingEngine.GRAPH.sort(problem);
+                })
+                .build();
+
+        OrderedMultibinders.sort(configuration, new AbstractModule() {
+            @Override
+            protected void configure() {
+                OrderedMultibinder<Object> multibinder = OrderedMultibinder.newSetBinder(binder(), Object.class)
+                        .phaseOrder("first", "second");
+                for (int i = 0; i < 100; i++) {
+                    multibinder.addBinding().phase("first").toInstance("a" + i);
+                    multibinder.addBinding().phase("second").toInstance("b" + i);
+                }
+            }
+        });
+
+        // An edge from every element to its phase, and from the first phase to every element of the second phase.
+        assertEquals(200 + 100 + 1, edgeCount.get());
+    }
+
+    interface Decoding {}
+
+    interface Validation {}
+
+    interface Handling {}
+
+    @Order(phase = Handling.class)
+    static class Handler {}
+
+    @Order(phase = Validation.class)
+    static class Validator {}
+
+    @Order(phaseName = "com.github.jeuxjeux20.orderedmultibinders.PhaseOrderTests$Decoding")
+    static class Decoder {}
+}
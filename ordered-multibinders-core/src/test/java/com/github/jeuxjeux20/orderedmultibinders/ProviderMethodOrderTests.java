@@ -0,0 +1,136 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.multibindings.ProvidesIntoSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.github.jeuxjeux20.orderedmultibinders.TestElements.sortAndGetNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProviderMethodOrderTests {
+    private static final Key<Set<Handler>> HANDLERS = Key.get(new TypeLiteral<Set<Handler>>() {});
+
+    @Test
+    void provider_methods_are_ordered_using_their_annotations() {
+        List<String> names = sortAndGetNames(HANDLERS, new AbstractModule() {
+            @ProvidesIntoSet
+            @Order(afterQualified = @Qualified(value = Handler.class, named = "first"))
+            Handler second() {
+                return new Handler("second");
+            }
+
+            @ProvidesIntoSet
+            Handler first() {
+                return new Handler("first");
+            }
+
+            @ProvidesIntoSet
+            @Order(position = -1)
+            Handler zeroth() {
+                return new Handler("zeroth");
+            }
+        });
+
+        assertEquals(ImmutableList.of("zeroth", "first", "second"), names);
+    }
+
+    @Test
+    void provider_methods_can_be_identified_as_classes() {
+        List<String> names = sortAndGetNames(HANDLERS, new AbstractModule() {
+            @Override
+            protected void configure() {
+                Multibinder.newSetBinder(binder(), Handler.class).addBinding().to(AfterMarkerHandler.class);
+            }
+
+            @ProvidesIntoSet
+            @IdentifiedAs(Marker.class)
+            Handler marker() {
+                return new Handler("marker");
+            }
+        });
+
+        assertEquals(ImmutableList.of("marker", "after marker"), names);
+    }
+
+    @Test
+    void class_reference_uses_all_provider_methods() {
+        List<String> names = sortAndGetNames(HANDLERS, new AbstractModule() {
+            @Override
+            protected void configure() {
+                Multibinder.newSetBinder(binder(), Handler.class).addBinding().to(AfterAllHandlers.class);
+            }
+
+            @ProvidesIntoSet
+            Handler a() {
+                return new Handler("a");
+            }
+
+            @ProvidesIntoSet
+            Handler b() {
+                return new Handler("b");
+            }
+        });
+
+        assertEquals("after all", names.get(2));
+    }
+
+    @Test
+    void provider_methods_of_different_modules_have_different_identifiers() {
+        List<String> names = sortAndGetNames(HANDLERS, new AbstractModule() {
+            @ProvidesIntoSet
+            @Order(afterQualified = @Qualified(value = Handler.class, named = "handler"))
+            Handler last() {
+                return new Handler("last");
+            }
+        }, new AbstractModule() {
+            @ProvidesIntoSet
+            Handler handler() {
+                return new Handler("first handler");
+            }
+        }, new AbstractModule() {
+            @ProvidesIntoSet
+            Handler handler() {
+                return new Handler("second handler");
+            }
+        });
+
+        assertEquals(ImmutableList.of("first handler", "second handler", "last"), names);
+    }
+
+    static class Handler {
+        private final String name;
+
+        Handler(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    interface Marker {
+    }
+
+    @Order(after = Marker.class)
+    static class AfterMarkerHandler extends Handler {
+        AfterMarkerHandler() {
+            super("after marker");
+        }
+    }
+
+    @Order(after = Handler.class)
+    static class AfterAllHandlers extends Handler {
+        AfterAllHandlers() {
+            super("after all");
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Binder;
+import com.google.inject.Key;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Names;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.github.jeuxjeux20.orderedmultibinders.TestElements.sortAndGetNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QualifiedIdentifierTests {
+    @Test
+    void same_class_with_different_qualifiers_is_ordered() {
+        List<String> names = sortAndGetNames(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bindNamed(binder(), "second");
+                bindNamed(binder(), "first");
+
+                Multibinder<Object> multibinder = Multibinder.newSetBinder(binder(), Object.class);
+                multibinder.addBinding().to(AfterFirst.class);
+                multibinder.addBinding().to(Key.get(NamedHandler.class, Names.named("first")));
+                multibinder.addBinding().to(Key.get(NamedHandler.class, Names.named("second")));
+            }
+        });
+
+        assertEquals(ImmutableList.of("first", "after first", "second"), names);
+    }
+
+    @Test
+    void class_reference_uses_all_qualified_identifiers() {
+        List<String> names = sortAndGetNames(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bindNamed(binder(), "a");
+                bindNamed(binder(), "b");
+
+                Multibinder<Object> multibinder = Multibinder.newSetBinder(binder(), Object.class);
+                multibinder.addBinding().to(BeforeAllHandlers.class);
+                multibinder.addBinding().to(Key.get(NamedHandler.class, Names.named("a")));
+                multibinder.addBinding().to(Key.get(NamedHandler.class, Names.named("b")));
+                multibinder.addBinding().to(AfterAllHandlers.class);
+            }
+        });
+
+        assertEquals(ImmutableList.of("before all", "a", "b", "after all"), names);
+    }
+
+    @Test
+    void same_qualifier_throws() {
+        assertThrows(DuplicateIdentifiersException.class, () -> sortAndGetNames(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bindNamed(binder(), "a");
+
+                Multibinder<Object> multibinder = Multibinder.newSetBinder(binder(), Object.class);
+                multibinder.addBinding().to(Key.get(NamedHandler.class, Names.named("a")));
+                multibinder.addBinding().to(Key.get(NamedHandler.class, Names.named("a")));
+            }
+        }));
+    }
+
+    private static void bindNamed(Binder binder, String name) {
+        binder.bind(NamedHandler.class).annotatedWith(Names.named(name)).toInstance(new NamedHandler(name));
+    }
+
+    static class NamedHandler {
+        private final String name;
+
+        NamedHandler(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    @Order(afterQualified = @Qualified(value = NamedHandler.class, named = "first"),
+            beforeQualified = @Qualified(value = NamedHandler.class, named = "second"))
+    static class AfterFirst {
+        @Override
+        public String toString() {
+            return "after first";
+        }
+    }
+
+    @Order(before = NamedHandler.class)
+    static class BeforeAllHandlers {
+        @Override
+        public String toString() {
+            return "before all";
+        }
+    }
+
+    @Order(after = NamedHandler.class)
+    static class AfterAllHandlers {
+        @Override
+        public String toString() {
+            return "after all";
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.TestElements.First;
+import com.github.jeuxjeux20.orderedmultibinders.TestElements.Second;
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.github.jeuxjeux20.orderedmultibinders.engine.SortingEngine;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Names;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.jeuxjeux20.orderedmultibinders.TestElements.getNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShapeReuseTests {
+    private static final int MULTIBINDER_COUNT = 10;
+
+    @Test
+    void multibinders_with_same_shape_are_sorted_once() {
+        AtomicInteger sortCount = new AtomicInteger();
+        SortingConfiguration configuration = SortingConfiguration.builder()
+                .sortingEngine(problem -> {
+                    sortCount.incrementAndGet();
+                    return SortingEngine.GRAPH.sort(problem);
+                })
+                .build();
+
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(configuration, new AbstractModule() {
+            @Override
+            protected void configure() {
+                for (int i = 0; i < MULTIBINDER_COUNT; i++) {
+                    Multibinder<Object> multibinder = Multibinder.newSetBinder(binder(), Object.class, Names.named("" + i));
+                    multibinder.addBinding().to(Second.class);
+                    multibinder.addBinding().to(First.class);
+                }
+
+                // A different shape.
+                Multibinder<Object> other = Multibinder.newSetBinder(binder(), Object.class);
+                other.addBinding().to(First.class);
+                other.addBinding().to(Second.class);
+            }
+        }));
+
+        assertEquals(2, sortCount.get());
+        for (int i = 0; i < MULTIBINDER_COUNT; i++) {
+            assertEquals(ImmutableList.of("First", "Second"),
+                    getNames(injector.getInstance(Key.get(new TypeLiteral<Set<Object>>() {}, Names.named("" + i)))));
+        }
+        assertEquals(ImmutableList.of("First", "Second"), getNames(injector));
+    }
+}
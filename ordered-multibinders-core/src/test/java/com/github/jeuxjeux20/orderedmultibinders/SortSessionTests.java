@@ -0,0 +1,76 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.TestElements.First;
+import com.github.jeuxjeux20.orderedmultibinders.TestElements.Second;
+import com.github.jeuxjeux20.orderedmultibinders.runtime.OrderedStructure;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.multibindings.Multibinder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.github.jeuxjeux20.orderedmultibinders.TestElements.getNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SortSessionTests {
+    @Test
+    void identical_module_sets_share_their_order() {
+        SortSession session = SortSession.create();
+
+        List<List<Module>> moduleSets = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            moduleSets.add(ImmutableList.of(new TenantModule()));
+        }
+
+        List<Module> sortedModules = session.sortAll(moduleSets);
+
+        assertEquals(10, sortedModules.size());
+        assertEquals(1, session.getCachedOrderCount());
+
+        Injector first = Guice.createInjector(sortedModules.get(0));
+        Injector last = Guice.createInjector(sortedModules.get(9));
+        assertEquals(ImmutableList.of("First", "Second", "Third"), getNames(first));
+        assertEquals(ImmutableList.of("First", "Second", "Third"), getNames(last));
+        assertSame(first.getInstance(new Key<OrderedStructure<Object>>() {}),
+                last.getInstance(new Key<OrderedStructure<Object>>() {}));
+    }
+
+    @Test
+    void different_shapes_are_sorted_separately() {
+        SortSession session = SortSession.create();
+
+        Injector tenant = Guice.createInjector(session.sort(new TenantModule()));
+        Injector otherTenant = Guice.createInjector(session.sort(new TenantModule(), new AbstractModule() {
+            @Override
+            protected void configure() {
+                Multibinder.newSetBinder(binder(), Object.class).addBinding().to(Zeroth.class);
+            }
+        }));
+
+        assertEquals(2, session.getCachedOrderCount());
+        assertEquals(ImmutableList.of("First", "Second", "Third"), getNames(tenant));
+        assertEquals(ImmutableList.of("Zeroth", "First", "Second", "Third"), getNames(otherTenant));
+    }
+
+    static class TenantModule extends AbstractModule {
+        @Override
+        protected void configure() {
+            Multibinder<Object> multibinder = Multibinder.newSetBinder(binder(), Object.class);
+            multibinder.addBinding().to(Third.class);
+            multibinder.addBinding().to(Second.class);
+            multibinder.addBinding().to(First.class);
+        }
+    }
+
+    @Order(before = First.class)
+    static class Zeroth {}
+
+    @Order(after = Second.class)
+    static class Third {}
+}
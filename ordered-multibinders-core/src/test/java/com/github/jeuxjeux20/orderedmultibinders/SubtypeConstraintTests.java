@@ -0,0 +1,87 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Names;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.github.jeuxjeux20.orderedmultibinders.TestElements.sortAndGetNames;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SubtypeConstraintTests {
+    @Test
+    void element_precedes_every_subtype() {
+        List<String> names = sortAndGetNames(new AbstractModule() {
+            @Override
+            protected void configure() {
+                Multibinder<Object> multibinder = Multibinder.newSetBinder(binder(), Object.class);
+                multibinder.addBinding().to(JsonDecoder.class);
+                multibinder.addBinding().to(Unrelated.class);
+                multibinder.addBinding().to(XmlDecoder.class);
+                multibinder.addBinding().to(BeforeDecoders.class);
+            }
+        });
+
+        assertEquals(ImmutableList.of("BeforeDecoders", "JsonDecoder", "Unrelated", "XmlDecoder"), names);
+    }
+
+    @Test
+    void element_succeeds_every_subtype_except_itself() {
+        List<String> names = sortAndGetNames(new AbstractModule() {
+            @Override
+            protected void configure() {
+                Multibinder<Object> multibinder = Multibinder.newSetBinder(binder(), Object.class);
+                multibinder.addBinding().to(LastDecoder.class);
+                multibinder.addBinding().to(JsonDecoder.class);
+                multibinder.addBinding().to(XmlDecoder.class);
+            }
+        });
+
+        assertEquals(ImmutableList.of("JsonDecoder", "XmlDecoder", "LastDecoder"), names);
+    }
+
+    @Test
+    void subtypes_match_qualified_elements() {
+        List<String> names = sortAndGetNames(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Key.get(JsonDecoder.class, Names.named("json"))).to(JsonDecoder.class);
+
+                OrderedMultibinder<Object> multibinder = OrderedMultibinder.newSetBinder(binder(), Object.class);
+                multibinder.getMultibinder().addBinding().to(Key.get(JsonDecoder.class, Names.named("json")));
+                multibinder.addBinding().afterSubtypesOf(Decoder.class).toInstance("after decoders");
+                multibinder.getMultibinder().addBinding().to(XmlDecoder.class);
+            }
+        });
+
+        assertEquals(ImmutableList.of("JsonDecoder", "XmlDecoder", "after decoders"), names);
+    }
+
+    @Test
+    void supertype_without_subtypes_is_ignored() {
+        List<String> names = sortAndGetNames(binder -> Multibinder.newSetBinder(binder, Object.class)
+                .addBinding().to(BeforeDecoders.class));
+
+        assertEquals(ImmutableList.of("BeforeDecoders"), names);
+    }
+
+    interface Decoder {}
+
+    static abstract class AbstractDecoder implements Decoder {}
+
+    static class JsonDecoder extends AbstractDecoder {}
+
+    static class XmlDecoder implements Decoder {}
+
+    @Order(afterSubtypesOf = Decoder.class)
+    static class LastDecoder implements Decoder {}
+
+    static class Unrelated {}
+
+    @Order(beforeSubtypesOf = Decoder.class)
+    static class BeforeDecoders {}
+}
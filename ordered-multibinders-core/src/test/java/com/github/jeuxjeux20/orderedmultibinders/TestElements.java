@@ -0,0 +1,70 @@
+package com.github.jeuxjeux20.orderedmultibinders;
+
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.TypeLiteral;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+public final class TestElements {
+    public static final Key<Set<Object>> OBJECT_SET_KEY = Key.get(new TypeLiteral<Set<Object>>() {});
+
+    private TestElements() {
+    }
+
+    public static List<String> sortAndGetNames(Module... modules) {
+        return sortAndGetNames(SortingConfiguration.DEFAULT, modules);
+    }
+
+    public static List<String> sortAndGetNames(SortingConfiguration configuration, Module... modules) {
+        return sortAndGetNames(configuration, Arrays.asList(modules));
+    }
+
+    public static List<String> sortAndGetNames(SortingConfiguration configuration,
+                                               Iterable<? extends Module> modules) {
+        return getNames(Guice.createInjector(OrderedMultibinders.sort(configuration, modules)));
+    }
+
+    public static List<String> sortAndGetNames(Key<? extends Set<?>> setKey, Module... modules) {
+        return getNames(Guice.createInjector(OrderedMultibinders.sort(modules)), setKey);
+    }
+
+    public static List<String> getNames(Injector injector) {
+        return getNames(injector, OBJECT_SET_KEY);
+    }
+
+    public static List<String> getNames(Injector injector, Key<? extends Set<?>> setKey) {
+        return getNames(injector.getInstance(setKey));
+    }
+
+    public static List<String> getNames(Iterable<?> elements) {
+        List<String> names = new ArrayList<>();
+        for (Object element : elements) {
+            names.add(getName(element));
+        }
+        return names;
+    }
+
+    // The string representation of the element, or its simple class name if it doesn't have one.
+    public static String getName(Object element) {
+        try {
+            if (element.getClass().getMethod("toString").getDeclaringClass() != Object.class) {
+                return element.toString();
+            }
+        } catch (NoSuchMethodException e) {
+            throw new AssertionError(e);
+        }
+        return element.getClass().getSimpleName();
+    }
+
+    @Order(before = Second.class)
+    public static class First {}
+
+    public static class Second {}
+}
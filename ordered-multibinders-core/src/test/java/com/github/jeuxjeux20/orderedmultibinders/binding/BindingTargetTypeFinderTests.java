@@ -2,9 +2,11 @@ package com.github.jeuxjeux20.orderedmultibinders.binding;
 
 import com.github.jeuxjeux20.orderedmultibinders.Placeholders;
 import com.github.jeuxjeux20.orderedmultibinders.internal.binding.BindingTargetTypeFinder;
+import com.google.inject.AbstractModule;
 import com.google.inject.Binding;
 import com.google.inject.Module;
 import com.google.inject.Provider;
+import com.google.inject.Provides;
 import com.google.inject.TypeLiteral;
 import com.google.inject.spi.Elements;
 import org.junit.jupiter.api.Assumptions;
@@ -57,6 +59,19 @@ public class BindingTargetTypeFinderTests {
         );
     }
 
+    @Test
+    void provider_method_returns_return_type() {
+        testBindingType(
+                new AbstractModule() {
+                    @Provides
+                    Placeholders.Cat provideCat() {
+                        return new Placeholders.Cat();
+                    }
+                },
+                Placeholders.Cat.class
+        );
+    }
+
     @Test
     void linked_key_returns_key_type() {
         testBindingType(
@@ -2,6 +2,7 @@ package com.github.jeuxjeux20.orderedmultibinders.config;
 
 import com.github.jeuxjeux20.orderedmultibinders.Order;
 import com.github.jeuxjeux20.orderedmultibinders.Placeholders;
+import com.github.jeuxjeux20.orderedmultibinders.Qualified;
 import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBinding;
 import org.junit.jupiter.api.Test;
 
@@ -57,6 +58,13 @@ public class ClosestDefaultPositionProviderTests {
         assertEquals(-1, position);
     }
 
+    @Test
+    void other_constraints_are_before_or_after() {
+        assertEquals(1, DEFAULT_POSITION_PROVIDER.get(createOrderedBinding(BeforeNameOnly.class)));
+        assertEquals(1, DEFAULT_POSITION_PROVIDER.get(createOrderedBinding(BeforeQualifiedOnly.class)));
+        assertEquals(-1, DEFAULT_POSITION_PROVIDER.get(createOrderedBinding(AfterSubtypesOnly.class)));
+        assertEquals(0, DEFAULT_POSITION_PROVIDER.get(createOrderedBinding(BeforeAndAfterName.class)));
+    }
 
     static class NoOrder {}
 
@@ -71,4 +79,16 @@ public class ClosestDefaultPositionProviderTests {
 
     @Order(after = Placeholders.Dog.class)
     static class AfterOnly {}
+
+    @Order(beforeNames = "com.example.Cat")
+    static class BeforeNameOnly {}
+
+    @Order(beforeQualified = @Qualified(value = Placeholders.Cat.class, named = "cat"))
+    static class BeforeQualifiedOnly {}
+
+    @Order(afterSubtypesOf = Placeholders.Dog.class)
+    static class AfterSubtypesOnly {}
+
+    @Order(before = Placeholders.Cat.class, afterNames = "com.example.Dog")
+    static class BeforeAndAfterName {}
 }
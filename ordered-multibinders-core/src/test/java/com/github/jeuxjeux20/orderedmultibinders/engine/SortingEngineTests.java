@@ -0,0 +1,125 @@
+package com.github.jeuxjeux20.orderedmultibinders.engine;
+
+import com.github.jeuxjeux20.orderedmultibinders.OrderedMultibinder;
+import com.github.jeuxjeux20.orderedmultibinders.OrderedMultibinders;
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.google.inject.Guice;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.name.Names;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SortingEngineTests {
+    private static final Module MODULE = binder -> {
+        OrderedMultibinder<String> multibinder = OrderedMultibinder.newSetBinder(binder, String.class);
+
+        multibinder.addBinding().named("a").toInstance("a");
+        multibinder.addBinding().named("b").after(Key.get(String.class, Names.named("c"))).toInstance("b");
+        multibinder.addBinding().named("c").toInstance("c");
+        multibinder.addBinding().named("d").position(-1).toInstance("d");
+    };
+
+    private static final Key<Set<String>> SET_KEY = new Key<Set<String>>() {};
+
+    @Test
+    void configured_engine_is_used() {
+        AtomicInteger calls = new AtomicInteger();
+        SortingConfiguration configuration = SortingConfiguration.builder()
+                .sortingEngine(problem -> {
+                    calls.incrementAndGet();
+                    return SortingEngine.GRAPH.sort(problem);
+                })
+                .build();
+
+        assertIterableEquals(sort(SortingConfiguration.DEFAULT), sort(configuration));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void invalid_order_is_rejected() {
+        SortingConfiguration configuration = SortingConfiguration.builder()
+                .sortingEngine(problem -> new int[]{3, 2, 1, 0})
+                .build();
+
+        assertThrows(IllegalStateException.class, () -> sort(configuration));
+    }
+
+    @Test
+    void verifying_engine_reports_divergences_and_keeps_reference_order() {
+        List<SortingDivergence> divergences = new ArrayList<>();
+        SortingEngine reversing = problem -> {
+            int[] order = SortingEngine.GRAPH.sort(problem);
+            for (int i = 0; i < order.length / 2; i++) {
+                int swap = order[i];
+                order[i] = order[order.length - 1 - i];
+                order[order.length - 1 - i] = swap;
+            }
+            return order;
+        };
+        SortingConfiguration configuration = SortingConfiguration.builder()
+                .sortingEngine(SortingEngine.verifying(SortingEngine.GRAPH, reversing, 1, divergences::add))
+                .build();
+
+        assertIterableEquals(sort(SortingConfiguration.DEFAULT), sort(configuration));
+
+        assertEquals(1, divergences.size());
+        SortingDivergence divergence = divergences.get(0);
+        assertSame(reversing, divergence.getCandidate());
+        assertArrayEquals(new int[]{3, 0, 2, 1}, divergence.getReferenceOrder());
+        assertArrayEquals(new int[]{1, 2, 0, 3}, divergence.getCandidateOrder());
+    }
+
+    @Test
+    void verifying_engine_reports_candidate_exceptions() {
+        List<SortingDivergence> divergences = new ArrayList<>();
+        SortingEngine failing = problem -> {
+            throw new UnsupportedOperationException("Not yet.");
+        };
+        SortingConfiguration configuration = SortingConfiguration.builder()
+                .sortingEngine(SortingEngine.verifying(SortingEngine.GRAPH, failing, 1, divergences::add))
+                .build();
+
+        assertIterableEquals(sort(SortingConfiguration.DEFAULT), sort(configuration));
+
+        assertEquals(1, divergences.size());
+        assertNull(divergences.get(0).getCandidateOrder());
+        assertTrue(divergences.get(0).getCandidateException() instanceof UnsupportedOperationException);
+    }
+
+    @Test
+    void verifying_engine_does_not_report_same_results() {
+        List<SortingDivergence> divergences = new ArrayList<>();
+        SortingEngine engine = SortingEngine.verifying(
+                SortingEngine.GRAPH, SortingEngine.parallelComponents(SortingEngine.GRAPH), 1, divergences::add);
+
+        sort(SortingConfiguration.builder().sortingEngine(engine).build());
+
+        assertTrue(divergences.isEmpty());
+    }
+
+    @Test
+    void verifying_engine_without_samples_does_not_run_candidate() {
+        SortingEngine engine = SortingEngine.verifying(SortingEngine.GRAPH, problem -> {
+            throw new AssertionError("The candidate should not run.");
+        }, 0, divergence -> fail("No divergence expected."));
+
+        sort(SortingConfiguration.builder().sortingEngine(engine).build());
+    }
+
+    @Test
+    void invalid_sample_rate_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SortingEngine.verifying(SortingEngine.GRAPH, SortingEngine.GRAPH, 1.5, divergence -> {}));
+    }
+
+    private static Set<String> sort(SortingConfiguration configuration) {
+        return Guice.createInjector(OrderedMultibinders.sort(configuration, MODULE)).getInstance(SET_KEY);
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.jeuxjeux20.orderedmultibinders.profile;
+
+import com.github.jeuxjeux20.orderedmultibinders.Order;
+import com.github.jeuxjeux20.orderedmultibinders.OrderedMultibinders;
+import com.github.jeuxjeux20.orderedmultibinders.Placeholders;
+import com.github.jeuxjeux20.orderedmultibinders.binding.OrderedBinding;
+import com.github.jeuxjeux20.orderedmultibinders.config.SortingConfiguration;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.Module;
+import com.google.inject.*;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Names;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static com.github.jeuxjeux20.orderedmultibinders.TestOrderedBindings.createOrderedBinding;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProfiledDefaultPositionProviderTests {
+    @Test
+    void cheap_selective_elements_first() {
+        ProfiledDefaultPositionProvider provider = new ProfiledDefaultPositionProvider(createProfile());
+
+        int expensive = provider.get(createOrderedBinding(Expensive.class));
+        int cheap = provider.get(createOrderedBinding(Cheap.class));
+        int neverStops = provider.get(createOrderedBinding(NeverStops.class));
+
+        assertTrue(cheap < expensive);
+        assertTrue(expensive < neverStops);
+        assertTrue(neverStops < 0);
+    }
+
+    @Test
+    void unprofiled_uses_fallback() {
+        ProfiledDefaultPositionProvider provider = new ProfiledDefaultPositionProvider(createProfile());
+
+        assertEquals(0, provider.get(createOrderedBinding(Unprofiled.class)));
+    }
+
+    @Test
+    void qualified_elements_have_their_own_profile() {
+        Key<Cheap> fast = Key.get(Cheap.class, Names.named("fast"));
+        Key<Cheap> slow = Key.get(Cheap.class, Names.named("slow"));
+        ElementProfiler profiler = new ElementProfiler();
+        profiler.record(slow, 1000, true);
+        profiler.record(fast, 10, true);
+
+        ProfiledDefaultPositionProvider provider = new ProfiledDefaultPositionProvider(profiler.snapshot());
+
+        assertTrue(provider.get(new OrderedBinding(fast, Placeholders.BINDING, null)) <
+                   provider.get(new OrderedBinding(slow, Placeholders.BINDING, null)));
+        assertEquals(0, provider.get(createOrderedBinding(Cheap.class)));
+    }
+
+    @Test
+    void sort_respects_explicit_constraints() {
+        SortingConfiguration configuration = SortingConfiguration.builder()
+                .defaultPosition(new ProfiledDefaultPositionProvider(createProfile()))
+                .build();
+
+        Module module = OrderedMultibinders.sort(configuration, new TestItemsModule(
+                NeverStops.INSTANCE, Expensive.INSTANCE, Cheap.INSTANCE, AfterNeverStops.INSTANCE));
+
+        assertIterableEquals(
+                ImmutableList.of(Cheap.INSTANCE, Expensive.INSTANCE, NeverStops.INSTANCE, AfterNeverStops.INSTANCE),
+                resolveSet(module));
+    }
+
+    @Test
+    void save_and_load_keeps_entries() throws Exception {
+        ElementProfile profile = createProfile();
+        Path file = Files.createTempFile("profile", ".properties");
+        try {
+            profile.save(file);
+
+            ElementProfile loaded = ElementProfile.load(file);
+
+            assertEquals(profile.getEntries().keySet(), loaded.getEntries().keySet());
+            assertEquals(3, loaded.getEntry(TypeLiteral.get(Cheap.class)).getShortCircuits());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private ElementProfile createProfile() {
+        ElementProfiler profiler = new ElementProfiler();
+        for (int i = 0; i < 4; i++) {
+            profiler.record(Cheap.class, 10, i != 0);
+            profiler.record(Expensive.class, 1000, i != 0);
+            profiler.record(NeverStops.class, 5, false);
+        }
+        return profiler.snapshot();
+    }
+
+    private Set<Object> resolveSet(Module module) {
+        return Guice.createInjector(module).getInstance(Key.get(new TypeLiteral<Set<Object>>() {}));
+    }
+
+    static class TestItemsModule extends AbstractModule {
+        private final List<Object> items;
+
+        TestItemsModule(Object... items) {
+            this.items = ImmutableList.copyOf(items);
+        }
+
+        @Override
+        protected void configure() {
+            Multibinder<Object> multibinder = Multibinder.newSetBinder(binder(), Object.class);
+
+            for (Object item : items) {
+                multibinder.addBinding().toInstance(item);
+            }
+        }
+    }
+
+    enum Cheap {INSTANCE}
+
+    enum Expensive {INSTANCE}
+
+    enum NeverStops {INSTANCE}
+
+    enum Unprofiled {INSTANCE}
+
+    @Order(after = NeverStops.class)
+    enum AfterNeverStops {INSTANCE}
+}
@@ -0,0 +1,78 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.github.jeuxjeux20.orderedmultibinders.Order;
+import com.github.jeuxjeux20.orderedmultibinders.OrderedMultibinders;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.multibindings.Multibinder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadSheddingInvokerTests {
+    @Test
+    void skips_optional_elements_beyond_cutoff() {
+        AtomicInteger cutoff = new AtomicInteger(Integer.MAX_VALUE);
+        LoadSheddingInvoker<Handler> invoker = createInvoker(cutoff::get);
+
+        assertEquals(ImmutableList.of(Audit.class, Validation.class, Metrics.class, Processing.class),
+                invoke(invoker));
+
+        cutoff.set(2);
+        assertEquals(ImmutableList.of(Audit.class, Validation.class, Processing.class), invoke(invoker));
+    }
+
+    @Test
+    void never_skips_elements_needed_by_mandatory_elements() {
+        LoadSheddingInvoker<Handler> invoker = createInvoker(() -> 0);
+
+        assertFalse(invoker.isSheddable(0));
+        assertEquals(ImmutableList.of(Audit.class, Validation.class, Processing.class), invoke(invoker));
+    }
+
+    private static List<Class<?>> invoke(LoadSheddingInvoker<Handler> invoker) {
+        List<Class<?>> invoked = new ArrayList<>();
+        invoker.invoke(handler -> invoked.add(handler.getClass()));
+        return invoked;
+    }
+
+    private static LoadSheddingInvoker<Handler> createInvoker(LoadSignal loadSignal) {
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(new AbstractModule() {
+            @Override
+            protected void configure() {
+                Multibinder<Handler> multibinder = Multibinder.newSetBinder(binder(), Handler.class);
+                multibinder.addBinding().to(Audit.class);
+                multibinder.addBinding().to(Validation.class);
+                multibinder.addBinding().to(Metrics.class);
+                multibinder.addBinding().to(Processing.class);
+            }
+        }));
+
+        Key<Set<Handler>> setKey = new Key<Set<Handler>>() {};
+        return LoadSheddingInvoker
+                .builder(injector.getInstance(setKey), injector.getInstance(OrderedStructure.keyFor(setKey)))
+                .loadSignal(loadSignal)
+                .build();
+    }
+
+    interface Handler {}
+
+    @Sheddable(priority = 1)
+    static class Audit implements Handler {}
+
+    @Order(after = Audit.class)
+    static class Validation implements Handler {}
+
+    @Sheddable(priority = 2)
+    static class Metrics implements Handler {}
+
+    static class Processing implements Handler {}
+}
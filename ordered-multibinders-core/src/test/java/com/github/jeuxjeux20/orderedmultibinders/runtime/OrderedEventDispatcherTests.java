@@ -0,0 +1,98 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.github.jeuxjeux20.orderedmultibinders.Order;
+import com.github.jeuxjeux20.orderedmultibinders.OrderedMultibinders;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.Multibinder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OrderedEventDispatcherTests {
+    @Test
+    void dispatches_in_sorted_order() {
+        OrderedEventDispatcher dispatcher = Guice.createInjector(OrderedMultibinders.sort(new ListenersModule()))
+                .getInstance(OrderedEventDispatcher.class);
+        List<String> received = new ArrayList<>();
+
+        dispatcher.dispatch(new Greeting(received));
+
+        assertEquals(ImmutableList.of("first", "any", "last"), received);
+    }
+
+    @Test
+    void only_matching_listeners_receive_events() {
+        OrderedEventDispatcher dispatcher = OrderedEventDispatcher.of(ImmutableList.of(new Any(), new First()));
+
+        assertEquals(1, dispatcher.getListeners(Object.class).size());
+        assertEquals(2, dispatcher.getListeners(Greeting.class).size());
+        assertTrue(dispatcher.getListeners(String.class).get(0) instanceof Any);
+    }
+
+    static final class ListenersModule extends AbstractModule {
+        @Override
+        protected void configure() {
+            Multibinder<OrderedEventListener<?>> listeners =
+                    Multibinder.newSetBinder(binder(), new TypeLiteral<OrderedEventListener<?>>() {});
+
+            listeners.addBinding().to(Last.class);
+            listeners.addBinding().to(Any.class);
+            listeners.addBinding().to(First.class);
+        }
+    }
+
+    static final class Greeting {
+        final List<String> received;
+
+        Greeting(List<String> received) {
+            this.received = received;
+        }
+    }
+
+    static class Any implements OrderedEventListener<Object> {
+        @Override
+        public Class<Object> getEventType() {
+            return Object.class;
+        }
+
+        @Override
+        public void onEvent(Object event) {
+            if (event instanceof Greeting) {
+                ((Greeting) event).received.add("any");
+            }
+        }
+    }
+
+    @Order(before = Any.class)
+    static class First implements OrderedEventListener<Greeting> {
+        @Override
+        public Class<Greeting> getEventType() {
+            return Greeting.class;
+        }
+
+        @Override
+        public void onEvent(Greeting event) {
+            event.received.add("first");
+        }
+    }
+
+    @Order(after = Any.class)
+    static class Last implements OrderedEventListener<Greeting> {
+        @Override
+        public Class<Greeting> getEventType() {
+            return Greeting.class;
+        }
+
+        @Override
+        public void onEvent(Greeting event) {
+            event.received.add("last");
+        }
+    }
+}
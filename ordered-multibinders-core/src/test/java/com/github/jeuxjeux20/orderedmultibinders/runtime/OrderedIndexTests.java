@@ -0,0 +1,96 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.github.jeuxjeux20.orderedmultibinders.Order;
+import com.github.jeuxjeux20.orderedmultibinders.OrderedMultibinders;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.ProvisionException;
+import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.Multibinder;
+import com.google.inject.name.Names;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderedIndexTests {
+    private static final Key<Set<Thing>> SET_KEY = Key.get(new TypeLiteral<Set<Thing>>() {},
+            Names.named("things"));
+
+    @Test
+    void indexes_elements_by_identifier() {
+        OrderedIndex<Thing> index = createInjector().getInstance(OrderedIndex.keyFor(SET_KEY));
+
+        assertEquals(1, index.indexOf(MediumThing.class));
+        assertTrue(index.get(HighThing.class) instanceof HighThing);
+        assertNull(index.get(Thing.class));
+    }
+
+    @Test
+    void gives_elements_before_and_after() {
+        OrderedIndex<Thing> index = createInjector().getInstance(OrderedIndex.keyFor(SET_KEY));
+
+        assertEquals(ImmutableList.of(LowThing.class), classes(index.before(MediumThing.class)));
+        assertEquals(ImmutableList.of(HighThing.class), classes(index.after(MediumThing.class)));
+        assertThrows(IllegalArgumentException.class, () -> index.after(Thing.class));
+    }
+
+    @Test
+    void index_is_a_singleton() {
+        Injector injector = createInjector();
+
+        assertSame(injector.getInstance(OrderedIndex.keyFor(SET_KEY)),
+                injector.getInstance(OrderedIndex.keyFor(SET_KEY)));
+    }
+
+    @Test
+    void sorting_twice_binds_index_once() {
+        Injector injector = Guice.createInjector(OrderedMultibinders.sort(OrderedMultibinders.sort(new ThingModule())));
+
+        assertEquals(3, injector.getInstance(OrderedIndex.keyFor(SET_KEY)).getElements().size());
+    }
+
+    @Test
+    void modules_sorted_separately_can_be_installed_together() {
+        Injector injector = Guice.createInjector(
+                OrderedMultibinders.sort(binder -> Multibinder.newSetBinder(binder, Thing.class, Names.named("things"))
+                        .addBinding().to(HighThing.class)),
+                OrderedMultibinders.sort(binder -> Multibinder.newSetBinder(binder, Thing.class, Names.named("things"))
+                        .addBinding().toInstance(new Thing() {})));
+
+        assertEquals(2, injector.getInstance(SET_KEY).size());
+        assertThrows(ProvisionException.class, () -> injector.getInstance(OrderedIndex.keyFor(SET_KEY)));
+    }
+
+    private static ImmutableList<Class<?>> classes(ImmutableList<Thing> things) {
+        return things.stream().map(Object::getClass).collect(ImmutableList.toImmutableList());
+    }
+
+    private static Injector createInjector() {
+        return Guice.createInjector(OrderedMultibinders.sort(new ThingModule()));
+    }
+
+    static class ThingModule extends AbstractModule {
+        @Override
+        protected void configure() {
+            Multibinder<Thing> multibinder = Multibinder.newSetBinder(binder(), Thing.class, Names.named("things"));
+            multibinder.addBinding().to(HighThing.class);
+            multibinder.addBinding().to(MediumThing.class);
+            multibinder.addBinding().to(LowThing.class);
+        }
+    }
+
+    interface Thing {}
+
+    @Order(before = MediumThing.class)
+    static class LowThing implements Thing {}
+
+    @Order(before = HighThing.class)
+    static class MediumThing implements Thing {}
+
+    static class HighThing implements Thing {}
+}
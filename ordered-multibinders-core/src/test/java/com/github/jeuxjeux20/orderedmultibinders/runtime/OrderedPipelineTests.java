@@ -0,0 +1,211 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.github.jeuxjeux20.orderedmultibinders.Order;
+import com.github.jeuxjeux20.orderedmultibinders.OrderedMultibinders;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.Multibinder;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderedPipelineTests {
+    @Test
+    void processes_items_through_sorted_stages_in_order() {
+        Set<OrderedStage<StringBuilder>> stages = Guice.createInjector(OrderedMultibinders.sort(new AbstractModule() {
+            @Override
+            protected void configure() {
+                Multibinder<OrderedStage<StringBuilder>> multibinder =
+                        Multibinder.newSetBinder(binder(), new TypeLiteral<OrderedStage<StringBuilder>>() {});
+                multibinder.addBinding().to(AppendB.class);
+                multibinder.addBinding().to(AppendA.class);
+            }
+        })).getInstance(new Key<Set<OrderedStage<StringBuilder>>>() {});
+
+        List<String> results = Collections.synchronizedList(new ArrayList<>());
+        try (OrderedPipeline<StringBuilder> pipeline = OrderedPipeline.builder(stages)
+                .sink(item -> results.add(item.toString()))
+                .queueCapacity(4)
+                .build()) {
+            assertEquals(2, pipeline.getWorkerCount());
+
+            for (int i = 0; i < 100; i++) {
+                pipeline.submit(new StringBuilder().append(i));
+            }
+        }
+
+        assertEquals(100, results.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + "ab", results.get(i));
+        }
+    }
+
+    @Test
+    void batching_stages_receive_batches() {
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        OrderedStage<Integer> batchingStage = new OrderedStage<Integer>() {
+            @Override
+            public Integer process(Integer item) {
+                return item;
+            }
+
+            @Override
+            public int getMaxBatchSize() {
+                return 8;
+            }
+
+            @Override
+            public void processBatch(List<Integer> items) {
+                batchSizes.add(items.size());
+                for (int i = 0; i < items.size(); i++) {
+                    items.set(i, items.get(i) * 2);
+                }
+            }
+        };
+        OrderedStage<Integer> increment = item -> item + 1;
+
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        try (OrderedPipeline<Integer> pipeline = OrderedPipeline.builder(ImmutableList.of(increment, batchingStage))
+                .sink(results::add)
+                .stagesPerWorker(2)
+                .build()) {
+            assertEquals(1, pipeline.getWorkerCount());
+
+            for (int i = 0; i < 50; i++) {
+                pipeline.submit(i);
+            }
+        }
+
+        assertEquals(50, results.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals((i + 1) * 2, results.get(i).intValue());
+        }
+        assertTrue(batchSizes.stream().allMatch(size -> size >= 1 && size <= 8));
+    }
+
+    @Test
+    void failed_items_go_to_error_handler() {
+        OrderedStage<Integer> failing = item -> {
+            if (item == 3) {
+                throw new IllegalStateException();
+            }
+            return item;
+        };
+
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> failures = Collections.synchronizedList(new ArrayList<>());
+        try (OrderedPipeline<Integer> pipeline = OrderedPipeline.builder(ImmutableList.of(failing))
+                .sink(results::add)
+                .errorHandler((item, e) -> failures.add(item))
+                .build()) {
+            for (int i = 0; i < 5; i++) {
+                pipeline.submit(i);
+            }
+        }
+
+        assertEquals(ImmutableList.of(0, 1, 2, 4), results);
+        assertEquals(ImmutableList.of(3), failures);
+    }
+
+    @Test
+    void failing_error_handler_does_not_stop_workers() {
+        OrderedStage<Integer> failing = item -> {
+            throw new IllegalStateException();
+        };
+
+        List<Throwable> uncaughtExceptions = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        OrderedPipeline<Integer> pipeline = OrderedPipeline.builder(ImmutableList.of(failing, item -> item))
+                .sink(results::add)
+                .errorHandler((item, e) -> {
+                    throw new UnsupportedOperationException();
+                })
+                .threadFactory(runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setUncaughtExceptionHandler((t, e) -> uncaughtExceptions.add(e));
+                    return thread;
+                })
+                .build();
+        for (int i = 0; i < 3; i++) {
+            pipeline.submit(i);
+        }
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), pipeline::close);
+        assertEquals(3, uncaughtExceptions.size());
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    void items_given_to_the_sink_before_a_failure_do_not_fail() {
+        OrderedStage<Integer> batchingStage = new OrderedStage<Integer>() {
+            @Override
+            public Integer process(Integer item) {
+                return item;
+            }
+
+            @Override
+            public int getMaxBatchSize() {
+                return 8;
+            }
+        };
+
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> failures = Collections.synchronizedList(new ArrayList<>());
+        try (OrderedPipeline<Integer> pipeline = OrderedPipeline.builder(ImmutableList.of(batchingStage))
+                .sink(item -> {
+                    if (item == 3) {
+                        throw new IllegalStateException();
+                    }
+                    results.add(item);
+                })
+                .errorHandler((item, e) -> failures.add(item))
+                .build()) {
+            for (int i = 0; i < 5; i++) {
+                pipeline.submit(i);
+            }
+        }
+
+        assertTrue(failures.contains(3));
+        assertEquals(5, results.size() + failures.size());
+        for (Integer result : results) {
+            assertFalse(failures.contains(result));
+        }
+    }
+
+    @Test
+    void workers_are_daemon_threads_by_default() {
+        List<Boolean> daemons = Collections.synchronizedList(new ArrayList<>());
+        try (OrderedPipeline<Integer> pipeline = OrderedPipeline.<Integer>builder(ImmutableList.of(item -> {
+            daemons.add(Thread.currentThread().isDaemon());
+            return item;
+        })).build()) {
+            pipeline.submit(1);
+        }
+
+        assertEquals(ImmutableList.of(true), daemons);
+    }
+
+    static class AppendA implements OrderedStage<StringBuilder> {
+        @Override
+        public StringBuilder process(StringBuilder item) {
+            return item.append('a');
+        }
+    }
+
+    @Order(after = AppendA.class)
+    static class AppendB implements OrderedStage<StringBuilder> {
+        @Override
+        public StringBuilder process(StringBuilder item) {
+            return item.append('b');
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderedSelectorTests {
+    private static final Factory NUMBERS = new Factory(Number.class);
+    private static final Factory INTEGERS = new Factory(Integer.class);
+    private static final Factory STRINGS = new Factory(String.class);
+
+    @Test
+    void selects_first_supporting_element() {
+        OrderedSelector<Class<?>, Factory> selector =
+                OrderedSelector.of(ImmutableList.of(INTEGERS, NUMBERS, STRINGS), Factory::supports);
+
+        assertSame(INTEGERS, selector.select(Integer.class));
+        assertSame(NUMBERS, selector.select(Long.class));
+        assertSame(STRINGS, selector.select(String.class));
+        assertNull(selector.select(Object.class));
+    }
+
+    @Test
+    void memoizes_selections() {
+        AtomicInteger tests = new AtomicInteger();
+        OrderedSelector<Class<?>, Factory> selector = OrderedSelector.of(ImmutableList.of(NUMBERS, STRINGS),
+                (Factory f, Class<?> type) -> {
+                    tests.incrementAndGet();
+                    return f.supports(type);
+                });
+
+        selector.select(String.class);
+        selector.select(String.class);
+        selector.select(Object.class);
+        selector.select(Object.class);
+
+        assertEquals(4, tests.get());
+    }
+
+    @Test
+    void precomputed_exact_keys_respect_order() {
+        OrderedSelector<Class<?>, Factory> selector = OrderedSelector
+                .builder(ImmutableList.of(NUMBERS, INTEGERS), Factory::supports)
+                .exactKey(f -> f.type)
+                .maximumCacheSize(0)
+                .build();
+
+        assertSame(NUMBERS, selector.select(Integer.class));
+        assertSame(NUMBERS, selector.select(Number.class));
+    }
+
+    static final class Factory {
+        final Class<?> type;
+
+        Factory(Class<?> type) {
+            this.type = type;
+        }
+
+        boolean supports(Class<?> otherType) {
+            return type.isAssignableFrom(otherType);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderedTogglesTests {
+    @Test
+    void all_elements_are_enabled_by_default() {
+        OrderedToggles<String> toggles = OrderedToggles.of(ImmutableList.of("a", "b", "c"));
+
+        assertEquals(ImmutableList.of("a", "b", "c"), toggles.getEnabled());
+        assertTrue(toggles.isEnabled(1));
+    }
+
+    @Test
+    void disabled_elements_are_skipped_in_order() {
+        List<Integer> elements = IntStream.range(0, 130).boxed().collect(Collectors.toList());
+        OrderedToggles<Integer> toggles = OrderedToggles.of(elements);
+
+        assertTrue(toggles.setEnabled(1, false));
+        assertTrue(toggles.setEnabled(Integer.valueOf(64), false));
+        assertFalse(toggles.setEnabled(64, false));
+        assertTrue(toggles.setEnabled(129, false));
+
+        List<Integer> iterated = new ArrayList<>();
+        toggles.forEachEnabled(iterated::add);
+
+        List<Integer> expected = new ArrayList<>(elements);
+        expected.removeAll(ImmutableList.of(1, 64, 129));
+        assertEquals(expected, iterated);
+        assertEquals(expected, toggles.getEnabled());
+    }
+
+    @Test
+    void enabled_elements_are_shared_until_toggled() {
+        OrderedToggles<String> toggles = OrderedToggles.of(ImmutableList.of("a", "b"));
+        toggles.setEnabled("a", false);
+
+        ImmutableList<String> enabled = toggles.getEnabled();
+        assertSame(enabled, toggles.getEnabled());
+
+        toggles.setEnabled("a", true);
+        assertEquals(ImmutableList.of("a", "b"), toggles.getEnabled());
+    }
+}
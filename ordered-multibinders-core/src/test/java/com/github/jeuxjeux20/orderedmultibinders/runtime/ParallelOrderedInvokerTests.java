@@ -0,0 +1,117 @@
+package com.github.jeuxjeux20.orderedmultibinders.runtime;
+
+import com.github.jeuxjeux20.orderedmultibinders.Order;
+import com.github.jeuxjeux20.orderedmultibinders.OrderedMultibinders;
+import com.google.common.collect.ImmutableList;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import com.google.inject.multibindings.Multibinder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelOrderedInvokerTests {
+    @Test
+    void sorted_multibinder_binds_structure() {
+        Injector injector = createInjector();
+        OrderedStructure<Task> structure = injector.getInstance(STRUCTURE_KEY);
+
+        assertEquals(ImmutableList.of(TypeLiteral.get(First.class), TypeLiteral.get(Second.class),
+                TypeLiteral.get(Third.class), TypeLiteral.get(Last.class)), structure.getIdentifiers());
+        assertArrayEquals(new int[0], structure.getExplicitPredecessors(1));
+        assertArrayEquals(new int[]{0, 1, 2}, sorted(structure.getExplicitPredecessors(3)));
+    }
+
+    @Test
+    void groups_independent_elements_in_levels() {
+        Injector injector = createInjector();
+        ParallelOrderedInvoker<Task> invoker = ParallelOrderedInvoker
+                .builder(injector.getInstance(SET_KEY), injector.getInstance(STRUCTURE_KEY))
+                .build();
+
+        assertEquals(2, invoker.getLevelCount());
+        assertEquals(3, invoker.getLevel(0).size());
+        assertTrue(invoker.isParallel(0));
+        assertFalse(invoker.isParallel(1));
+    }
+
+    @Test
+    void runs_dependents_after_predecessors() {
+        Injector injector = createInjector();
+        AtomicInteger asyncRuns = new AtomicInteger();
+        Executor executor = command -> {
+            asyncRuns.incrementAndGet();
+            new Thread(command).start();
+        };
+        ParallelOrderedInvoker<Task> invoker = ParallelOrderedInvoker
+                .builder(injector.getInstance(SET_KEY), injector.getInstance(STRUCTURE_KEY))
+                .executor(executor)
+                .build();
+
+        List<Class<?>> invoked = Collections.synchronizedList(new ArrayList<>());
+        invoker.invoke(task -> invoked.add(task.getClass()));
+
+        assertEquals(2, asyncRuns.get());
+        assertEquals(4, invoked.size());
+        assertEquals(Last.class, invoked.get(3));
+    }
+
+    @Test
+    void runs_sequentially_below_threshold() {
+        Injector injector = createInjector();
+        ParallelOrderedInvoker<Task> invoker = ParallelOrderedInvoker
+                .builder(injector.getInstance(SET_KEY), injector.getInstance(STRUCTURE_KEY))
+                .executor(command -> fail("Should not run in parallel."))
+                .fanOutThreshold(100)
+                .build();
+
+        List<Class<?>> invoked = new ArrayList<>();
+        invoker.invoke(task -> invoked.add(task.getClass()));
+
+        assertEquals(ImmutableList.of(First.class, Second.class, Third.class, Last.class), invoked);
+    }
+
+    private static int[] sorted(int[] array) {
+        int[] copy = array.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    private static Injector createInjector() {
+        return Guice.createInjector(OrderedMultibinders.sort(new AbstractModule() {
+            @Override
+            protected void configure() {
+                Multibinder<Task> multibinder = Multibinder.newSetBinder(binder(), Task.class);
+                multibinder.addBinding().to(Last.class);
+                multibinder.addBinding().to(First.class);
+                multibinder.addBinding().to(Second.class);
+                multibinder.addBinding().to(Third.class);
+            }
+        }));
+    }
+
+    private static final Key<Set<Task>> SET_KEY = new Key<Set<Task>>() {};
+    private static final Key<OrderedStructure<Task>> STRUCTURE_KEY = OrderedStructure.keyFor(SET_KEY);
+
+    interface Task {}
+
+    static class First implements Task {}
+
+    static class Second implements Task {}
+
+    static class Third implements Task {}
+
+    @Order(after = {First.class, Second.class, Third.class})
+    static class Last implements Task {}
+}